@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Log message formatting, paid for every logged line. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JUnitPlatformMojoBenchmark {
+
+  private long outputBytes = 123_456_789L;
+  private long errorBytes = 4_711L;
+
+  @Benchmark
+  public String formatMessageWithoutArguments() {
+    return JUnitPlatformMojo.formatMessage("[INFO] Tests run: 1, Failures: 0 {no pattern}");
+  }
+
+  @Benchmark
+  public String formatMessageWithArguments() {
+    return JUnitPlatformMojo.formatMessage(
+        "Output Log: {0,number,integer} bytes, Error Log: {1,number,integer} bytes",
+        outputBytes,
+        errorBytes);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.util.Collections.emptyList;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import de.sormuras.junit.platform.isolator.ConfigurationBuilder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Command line assembly of the forked console launcher. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaExecutorBenchmark {
+
+  @Param({"100", "1000", "5000"})
+  int dependencies;
+
+  private JavaExecutor executor;
+  private Configuration configuration;
+  private Path target;
+
+  @Setup
+  public void setup() {
+    Path base = Paths.get("target", "jmh-project").toAbsolutePath();
+    SyntheticMojo mojo = new SyntheticMojo(base, dependencies, Isolation.NONE);
+    this.target = base.resolve("target/junit-platform");
+    this.executor = new JavaExecutor(mojo);
+    this.configuration =
+        new ConfigurationBuilder()
+            .setTargetDirectory(target.toString())
+            .setTargetMainPath(mojo.getMavenProject().getBuild().getOutputDirectory())
+            .setTargetTestPath(mojo.getMavenProject().getBuild().getTestOutputDirectory())
+            .setPaths(new MavenDriver(mojo).buildPathMap(target))
+            .build();
+  }
+
+  @Benchmark
+  public String createPathArgument() {
+    return executor.createPathArgument(configuration);
+  }
+
+  @Benchmark
+  public List<String> createCommandLine() {
+    return executor.createCommandLine(configuration, target, emptyList());
+  }
+}
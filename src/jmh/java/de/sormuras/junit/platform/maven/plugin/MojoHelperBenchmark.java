@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Reflective configuration of option objects via user properties. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MojoHelperBenchmark {
+
+  private MojoHelper helper;
+
+  @SuppressWarnings("deprecation")
+  @Setup
+  public void setup() {
+    MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+    request.getUserProperties().setProperty("junit-platform.tweaks.failIfNoTests", "false");
+    request.getUserProperties().setProperty("junit-platform.tweaks.dependencyExcludes", "a:b,c:d");
+    request.getUserProperties().setProperty("junit-platform.javaOptions.inheritIO", "true");
+    SyntheticMojo mojo = new SyntheticMojo(Paths.get("target"), 0, Isolation.NONE);
+    MavenSession session =
+        new MavenSession(null, request, new DefaultMavenExecutionResult(), mojo.getMavenProject());
+    this.helper = new MojoHelper(mojo, session, new MojoExecution(new MojoDescriptor()));
+  }
+
+  @Benchmark
+  public Tweaks autoConfigureTweaks() {
+    Tweaks tweaks = new Tweaks();
+    helper.autoConfigure("tweaks", tweaks);
+    return tweaks;
+  }
+
+  @Benchmark
+  public JavaOptions autoConfigureJavaOptions() {
+    JavaOptions options = new JavaOptions();
+    helper.autoConfigure("javaOptions", options);
+    return options;
+  }
+}
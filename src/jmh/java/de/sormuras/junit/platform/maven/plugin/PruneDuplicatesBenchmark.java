@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Removal of path elements shared by multiple layers. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PruneDuplicatesBenchmark {
+
+  @Param({"100", "1000", "5000"})
+  int dependencies;
+
+  private Map<String, Set<String>> layers;
+
+  @Setup
+  public void setup() {
+    // overlapping layers, like main and test paths sharing compile dependencies
+    this.layers = new LinkedHashMap<>();
+    String[] names = {"main", "test", "launcher", "isolator"};
+    for (int layer = 0; layer < names.length; layer++) {
+      Set<String> paths = new LinkedHashSet<>();
+      for (int i = layer * dependencies / 8; i < (layer + 2) * dependencies / 4; i++) {
+        paths.add("/repository/org/example/lib-" + i + ".jar");
+      }
+      layers.put(names[layer], paths);
+    }
+  }
+
+  @Benchmark
+  public Map<String, Set<String>> ofSets() {
+    Map<String, Set<String>> paths = new LinkedHashMap<>();
+    layers.forEach((name, layer) -> paths.put(name, new LinkedHashSet<>(layer)));
+    MavenDriver.pruneDuplicates(paths);
+    return paths;
+  }
+
+  @Benchmark
+  public Map<String, List<String>> ofLists() {
+    Map<String, List<String>> paths = new LinkedHashMap<>();
+    layers.forEach((name, layer) -> paths.put(name, new ArrayList<>(layer)));
+    MavenDriver.pruneDuplicates(paths);
+    return paths;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Replay of captured console launcher logs to the Maven log. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+
+  @Param({"10000", "1000000"})
+  int lines;
+
+  private JavaExecutor executor;
+  private Path output;
+  private Path error;
+
+  @Setup
+  public void setup() throws IOException {
+    Path base = Paths.get("target", "jmh-replay").toAbsolutePath();
+    Files.createDirectories(base);
+    this.executor = new JavaExecutor(new SyntheticMojo(base, 0, Isolation.NONE));
+    this.output = base.resolve("console-launcher-" + lines + ".out.log");
+    this.error = base.resolve("console-launcher-" + lines + ".err.log");
+    try (BufferedWriter writer = Files.newBufferedWriter(output, UTF_8)) {
+      for (int i = 0; i < lines; i++) {
+        writer.write("│  ├─ test" + i + "() ✔ {with braces} and some more text to fill the line");
+        writer.newLine();
+      }
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(error, UTF_8)) {
+      for (int i = 0; i < lines / 100; i++) {
+        writer.write("WARNING: line " + i);
+        writer.newLine();
+      }
+    }
+  }
+
+  @Benchmark
+  public void replaySuccessful() {
+    executor.replay(output, error, 0);
+  }
+}
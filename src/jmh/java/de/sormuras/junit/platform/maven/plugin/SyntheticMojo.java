@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.util.Collections.emptyList;
+
+import de.sormuras.junit.platform.isolator.Modules;
+import de.sormuras.junit.platform.isolator.Version;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Mojo backed by a synthetic project with a large number of dependencies.
+ *
+ * <p>All artifacts injected by the {@link MavenDriver} are part of the project, so building the
+ * path map never hits a repository. Log messages are formatted, but discarded.
+ */
+class SyntheticMojo extends JUnitPlatformMojo {
+
+  private static final String[] WELL_KNOWN = {
+    "org.junit.platform:junit-platform-launcher",
+    "org.junit.platform:junit-platform-reporting",
+    "org.junit.platform:junit-platform-console",
+    "org.junit.platform:junit-platform-engine",
+    "org.junit.platform:junit-platform-commons",
+    "org.junit.jupiter:junit-jupiter-api",
+    "org.junit.jupiter:junit-jupiter-engine",
+    "de.sormuras.junit:junit-platform-isolator-worker"
+  };
+
+  private final MavenProject project;
+  private final Modules modules;
+  private final Isolation isolation;
+  private final Tweaks tweaks;
+  private final Log log;
+
+  SyntheticMojo(Path base, int dependencies, Isolation isolation) {
+    this.project = createProject(base, dependencies);
+    this.modules =
+        new Modules(
+            base.resolve(project.getBuild().getOutputDirectory()),
+            base.resolve(project.getBuild().getTestOutputDirectory()));
+    this.isolation = isolation;
+    this.tweaks = new Tweaks();
+    tweaks.moveTestEnginesToLauncherClassLoader = false; // would always resolve the engine
+    this.log = new DefaultLog(new ConsoleLogger(Logger.LEVEL_DISABLED, "jmh"));
+  }
+
+  private static MavenProject createProject(Path base, int dependencies) {
+    MavenProject project =
+        new MavenProject() {
+          @Override
+          public List<RemoteRepository> getRemoteProjectRepositories() {
+            return emptyList();
+          }
+
+          @Override
+          public List<RemoteRepository> getRemotePluginRepositories() {
+            return emptyList();
+          }
+        };
+    project.setGroupId("benchmark");
+    project.setArtifactId("synthetic");
+    project.setVersion("1");
+    project.getBuild().setDirectory(base.resolve("target").toString());
+    project.getBuild().setOutputDirectory(base.resolve("target/classes").toString());
+    project.getBuild().setTestOutputDirectory(base.resolve("target/test-classes").toString());
+
+    Set<Artifact> artifacts = new LinkedHashSet<>();
+    for (int i = 0; i < dependencies; i++) {
+      String scope = i % 3 == 0 ? Artifact.SCOPE_TEST : Artifact.SCOPE_COMPILE;
+      artifacts.add(createArtifact(base, "org.example.group" + i % 10 + ":lib-" + i, scope));
+    }
+    for (String groupArtifact : WELL_KNOWN) {
+      artifacts.add(createArtifact(base, groupArtifact, Artifact.SCOPE_TEST));
+    }
+    project.setArtifacts(artifacts);
+    return project;
+  }
+
+  private static Artifact createArtifact(Path base, String groupArtifact, String scope) {
+    String[] ga = groupArtifact.split(":");
+    DefaultArtifactHandler handler = new DefaultArtifactHandler("jar");
+    handler.setAddedToClasspath(true);
+    Artifact artifact = new DefaultArtifact(ga[0], ga[1], "1.0", scope, "jar", null, handler);
+    artifact.setFile(
+        base.resolve("repository").resolve(ga[0]).resolve(ga[1] + "-1.0.jar").toFile());
+    return artifact;
+  }
+
+  @Override
+  public Log getLog() {
+    return log;
+  }
+
+  @Override
+  MavenProject getMavenProject() {
+    return project;
+  }
+
+  @Override
+  Tweaks getTweaks() {
+    return tweaks;
+  }
+
+  @Override
+  Modules getProjectModules() {
+    return modules;
+  }
+
+  @Override
+  Isolation getIsolation() {
+    return isolation;
+  }
+
+  @Override
+  String getCharset() {
+    return "UTF-8";
+  }
+
+  @Override
+  String version(Version version) {
+    return version.getDefaultVersion();
+  }
+
+  @Override
+  boolean versionIsEqualOrHigher(Version version, String comparableVersion) {
+    return true;
+  }
+
+  @Override
+  String getJavaExecutable() {
+    return "java";
+  }
+}
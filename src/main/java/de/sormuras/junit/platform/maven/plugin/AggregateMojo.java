@@ -0,0 +1,186 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLStreamException;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Launch the JUnit Platform once for all modules of the reactor.
+ *
+ * <p>Invoke this goal after the lifecycle phases, like {@code mvn test-compile
+ * junit-platform:aggregate}, so it runs at the end of the reactor. All modules that use this plugin
+ * and don't use {@code pom} packaging are merged into a single launch: their main and test output
+ * directories and their dependencies form the main and test layers, test engines and the launcher
+ * are resolved once. Results are reported per module.
+ *
+ * <p>Note that modules share a single test layer: the isolator builds one chain of class loaders
+ * and can't isolate sibling modules from each other. Modules are launched on the class path, their
+ * module descriptors are ignored.
+ */
+@Mojo(
+    name = "aggregate",
+    aggregator = true,
+    threadSafe = true,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDependencyResolution = ResolutionScope.TEST)
+public class AggregateMojo extends JUnitPlatformMojo {
+
+  /** Test output directory per aggregated module. */
+  private final Map<MavenProject, String> modules = new LinkedHashMap<>();
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    MavenProject root = getMavenSession().getTopLevelProject();
+    for (MavenProject project : getMavenSession().getProjects()) {
+      if (project.getPackaging().equals("pom") || !findThisPlugin(project).isPresent()) {
+        continue;
+      }
+      modules.put(project, project.getBuild().getTestOutputDirectory());
+    }
+    if (modules.isEmpty()) {
+      info("JUnit Platform Plugin aggregation skipped: no module uses this plugin");
+      return;
+    }
+    info("Aggregating {0} module(s) into a single launch...", modules.size());
+    setMavenProject(createAggregateProject(root));
+
+    long start = System.currentTimeMillis();
+    MojoFailureException failure = null;
+    try {
+      super.execute();
+    } catch (MojoFailureException e) {
+      failure = e;
+    }
+    reportPerModule(start);
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  Set<String> getTestOutputDirectories() {
+    return new LinkedHashSet<>(modules.values());
+  }
+
+  /** Create a synthetic project that owns the merged output directories and dependencies. */
+  private MavenProject createAggregateProject(MavenProject root) {
+    Set<String> reactor = new LinkedHashSet<>();
+    getMavenSession()
+        .getProjects()
+        .forEach(p -> reactor.add(p.getGroupId() + ':' + p.getArtifactId()));
+
+    Map<String, Artifact> artifacts = new LinkedHashMap<>();
+    List<String> outputDirectories = new ArrayList<>();
+    for (MavenProject project : modules.keySet()) {
+      outputDirectories.add(project.getBuild().getTestOutputDirectory());
+      outputDirectories.add(project.getBuild().getOutputDirectory());
+      for (Artifact artifact : project.getArtifacts()) {
+        String key = artifact.getGroupId() + ':' + artifact.getArtifactId();
+        if (!reactor.contains(key)) {
+          artifacts.putIfAbsent(artifact.getDependencyConflictId(), artifact);
+        }
+      }
+    }
+
+    Path directory = Paths.get(root.getBuild().getDirectory()).resolve("junit-platform-aggregate");
+    MavenProject aggregate =
+        new MavenProject() {
+          @Override
+          public List<RemoteRepository> getRemoteProjectRepositories() {
+            return root.getRemoteProjectRepositories();
+          }
+
+          @Override
+          public List<RemoteRepository> getRemotePluginRepositories() {
+            return root.getRemotePluginRepositories();
+          }
+        };
+    aggregate.setGroupId(root.getGroupId());
+    aggregate.setArtifactId(root.getArtifactId() + "-aggregate");
+    aggregate.setVersion(root.getVersion());
+    aggregate.setPackaging("jar");
+    aggregate.setFile(root.getFile());
+    aggregate.getBuild().setDirectory(directory.toString());
+    aggregate.getBuild().setOutputDirectory(directory.resolve("classes").toString());
+    aggregate.getBuild().setTestOutputDirectory(directory.resolve("test-classes").toString());
+    aggregate.getBuild().setTestSourceDirectory(directory.resolve("test-sources").toString());
+    aggregate.setArtifacts(new LinkedHashSet<>(artifacts.values()));
+
+    // Output directories of all modules are added to the test layer
+    List<String> additional = new ArrayList<>(outputDirectories);
+    additional.addAll(getTweaks().additionalTestPathElements);
+    getTweaks().additionalTestPathElements = additional;
+    return aggregate;
+  }
+
+  /** Count outcomes per module, reading only the main suite's reports written by this launch. */
+  private void reportPerModule(long start) throws MojoExecutionException {
+    Map<String, MavenProject> owners = new HashMap<>();
+    Map<MavenProject, int[]> counts = new LinkedHashMap<>();
+    try {
+      for (Map.Entry<MavenProject, String> module : modules.entrySet()) {
+        counts.put(module.getKey(), new int[4]);
+        for (String name : ClassFiles.listClassNames(Paths.get(module.getValue()))) {
+          owners.putIfAbsent(name, module.getKey());
+        }
+      }
+      Path target = getTargetDirectory().toPath();
+      for (Path report : TestReports.find(target, start, TestReports.LANE_DIRECTORIES)) {
+        TestReports.read(
+            report,
+            testCase -> {
+              MavenProject owner = owners.get(testCase.className);
+              if (owner == null) {
+                owner = owners.get(testCase.topLevelClassName());
+              }
+              if (owner != null) {
+                counts.get(owner)[testCase.status.ordinal()]++;
+              }
+            });
+      }
+    } catch (IOException | XMLStreamException e) {
+      throw new MojoExecutionException("Reading aggregated test reports failed", e);
+    }
+    info("Results per module:");
+    for (Map.Entry<MavenProject, int[]> entry : counts.entrySet()) {
+      int[] count = entry.getValue();
+      int total = count[0] + count[1] + count[2] + count[3];
+      String format = "  {0}: {1} test(s), {2} failed, {3} error(s), {4} skipped";
+      String id = entry.getKey().getArtifactId();
+      if (count[2] + count[3] > 0) {
+        error(format, id, total, count[2], count[3], count[1]);
+      } else {
+        info(format, id, total, count[2], count[3], count[1]);
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+
+/** Registry of test launches running in the background of the current Maven session. */
+final class AsyncExecutions {
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private static final ExecutorService EXECUTOR =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            String name = "junit-platform-async-" + THREAD_COUNTER.incrementAndGet();
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private static final Map<String, Future<Integer>> OUTSTANDING = new LinkedHashMap<>();
+
+  static synchronized void submit(String id, Callable<Integer> launch) {
+    String key = id;
+    for (int count = 2; OUTSTANDING.containsKey(key); count++) {
+      key = id + " #" + count;
+    }
+    OUTSTANDING.put(key, EXECUTOR.submit(launch));
+  }
+
+  static synchronized boolean isEmpty() {
+    return OUTSTANDING.isEmpty();
+  }
+
+  /**
+   * Wait for all outstanding launches to complete.
+   *
+   * @return list of failure messages, empty if all launches succeeded
+   */
+  static List<String> awaitAll(Log log) throws InterruptedException {
+    Map<String, Future<Integer>> launches;
+    synchronized (AsyncExecutions.class) {
+      launches = new LinkedHashMap<>(OUTSTANDING);
+      OUTSTANDING.clear();
+    }
+    List<String> failures = new ArrayList<>();
+    for (Map.Entry<String, Future<Integer>> entry : launches.entrySet()) {
+      String id = entry.getKey();
+      log.info("Awaiting background test launch of " + id + "...");
+      try {
+        JUnitPlatformMojo.checkResult(entry.getValue().get());
+        log.info("Background test launch of " + id + " succeeded.");
+      } catch (MojoFailureException e) {
+        failures.add(id + ": " + e.getMessage());
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        failures.add(id + ": " + (cause.getMessage() != null ? cause.getMessage() : cause));
+      }
+    }
+    failures.forEach(failure -> log.error("Background test launch failed - " + failure));
+    return failures;
+  }
+
+  private AsyncExecutions() {}
+}
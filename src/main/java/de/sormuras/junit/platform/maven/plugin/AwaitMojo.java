@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.List;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/** Await all test launches started in {@code async} mode and fail if any of them failed. */
+@Mojo(name = "await", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class AwaitMojo extends AbstractMojo {
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    try {
+      List<String> failures = AsyncExecutions.awaitAll(getLog());
+      if (!failures.isEmpty()) {
+        throw new MojoFailureException("Background test launch failed: " + failures);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Awaiting background test launches interrupted", e);
+    }
+  }
+}
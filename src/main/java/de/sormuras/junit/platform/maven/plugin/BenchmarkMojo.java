@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * Run JMH benchmarks found in the test classes.
+ *
+ * <p>The path layering of the test run is reused: main and test classes, their dependencies and an
+ * injected {@code jmh-core} artifact form the class path of a forked JVM running {@code
+ * org.openjdk.jmh.Main}. Benchmarks must be compiled with the {@code jmh-generator-annprocess}
+ * annotation processor. Results are written as JSON to {@code ${targetDirectory}/jmh} and are
+ * compared against an optional baseline file.
+ *
+ * <p>JMH launches its own forks using the class path of the host JVM, so benchmarks always run on
+ * the class path, even for modular projects.
+ */
+@Mojo(
+    name = "benchmark",
+    threadSafe = true,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDependencyResolution = ResolutionScope.TEST)
+public class BenchmarkMojo extends JUnitPlatformMojo {
+
+  /** Version of {@code jmh-core} injected if the project does not depend on it. */
+  @Parameter(defaultValue = "1.37", property = "junit-platform.benchmark.jmhVersion")
+  private String jmhVersion = "1.37";
+
+  /**
+   * Regular expressions selecting the benchmarks to run, all benchmarks are run if empty.
+   *
+   * <p>Not named {@code includes}: that parameter holds the Ant-style class file patterns of the
+   * test run, which a plugin-level configuration shares with this goal.
+   */
+  @Parameter(property = "junit-platform.benchmark.includes")
+  private List<String> benchmarkIncludes = emptyList();
+
+  /** Number of forks per benchmark, JMH's default is used if not set. */
+  @Parameter(property = "junit-platform.benchmark.forks")
+  private Integer forks;
+
+  /** Number of warmup iterations, JMH's default is used if not set. */
+  @Parameter(property = "junit-platform.benchmark.warmupIterations")
+  private Integer warmupIterations;
+
+  /** Duration of each warmup iteration, like {@code 1s}, JMH's default is used if not set. */
+  @Parameter(property = "junit-platform.benchmark.warmupTime")
+  private String warmupTime;
+
+  /** Number of measurement iterations, JMH's default is used if not set. */
+  @Parameter(property = "junit-platform.benchmark.measurementIterations")
+  private Integer measurementIterations;
+
+  /** Duration of each measurement iteration, like {@code 1s}, JMH's default is used if not set. */
+  @Parameter(property = "junit-platform.benchmark.measurementTime")
+  private String measurementTime;
+
+  /** Additional JMH command line arguments, like {@code -prof gc}. */
+  @Parameter private List<String> additionalArguments = emptyList();
+
+  /** JSON result file of a previous run to compare the current results with. */
+  @Parameter(property = "junit-platform.benchmark.baseline")
+  private File baseline;
+
+  /** Regression threshold in percent of the baseline score. */
+  @Parameter(defaultValue = "10", property = "junit-platform.benchmark.threshold")
+  private double threshold = 10;
+
+  /** Overwrite the baseline file with the current results. */
+  @Parameter(defaultValue = "false", property = "junit-platform.benchmark.updateBaseline")
+  private boolean updateBaseline = false;
+
+  /** Benchmarks are always run in a forked JVM. */
+  @Override
+  Executor getExecutor() {
+    return Executor.JAVA;
+  }
+
+  @Override
+  List<String> getInjectedTestDependencies() {
+    if (getMavenProject().getArtifactMap().containsKey("org.openjdk.jmh:jmh-core")) {
+      return emptyList();
+    }
+    return singletonList("org.openjdk.jmh:jmh-core:" + jmhVersion);
+  }
+
+  /**
+   * Run the benchmarks.
+   *
+   * <p>Only the path layering is shared with the test run: test selection, time budget, the
+   * quarantine and performance lanes, the result cache and test report handling don't apply.
+   */
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (!prepareExecution()) {
+      return;
+    }
+    info("Running JMH benchmarks...");
+    Path targetPath = getTargetDirectory().toPath();
+    Map<String, Set<String>> paths = buildPathMap(new MavenDriver(this), targetPath);
+    Configuration configuration =
+        createConfiguration(targetPath, paths, emptySet(), getModuleInfoTest());
+    try {
+      checkResult(benchmark(configuration));
+    } catch (MojoExecutionException | MojoFailureException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new MojoExecutionException("Benchmark run failed", e);
+    }
+  }
+
+  private int benchmark(Configuration configuration) throws Exception {
+    Path target = getTargetDirectory().toPath().resolve("jmh");
+    Path result = target.resolve("jmh-result.json");
+    JavaExecutor executor = new JavaExecutor(this);
+
+    List<String> cmd = new ArrayList<>();
+    cmd.add(getJavaExecutable());
+    for (String option : getJavaOptions().additionalOptions) {
+      if (option == null || option.trim().isEmpty()) continue;
+      cmd.add(option);
+    }
+    if (!getJavaOptions().encoding.isEmpty()) {
+      cmd.add("-Dfile.encoding=" + getJavaOptions().encoding);
+    }
+    cmd.add("-classpath");
+    cmd.add(executor.createPathArgument(configuration));
+    cmd.add("org.openjdk.jmh.Main");
+    cmd.addAll(benchmarkIncludes);
+    addArgument(cmd, "-f", forks);
+    addArgument(cmd, "-wi", warmupIterations);
+    addArgument(cmd, "-w", warmupTime);
+    addArgument(cmd, "-i", measurementIterations);
+    addArgument(cmd, "-r", measurementTime);
+    cmd.add("-rf");
+    cmd.add("json");
+    cmd.add("-rff");
+    cmd.add(result.toString());
+    cmd.addAll(additionalArguments);
+
+    Files.createDirectories(target);
+    Files.deleteIfExists(result);
+    int exitValue = executor.execute(cmd, target, "jmh");
+    if (isDryRun()) {
+      return exitValue;
+    }
+    if (exitValue != 0) {
+      throw new MojoFailureException("Benchmark run failed with exit value " + exitValue);
+    }
+    if (Files.notExists(result)) {
+      throw new MojoExecutionException("No benchmark result file written: " + result);
+    }
+    info("Benchmark results written to {0}", result);
+    compareWithBaseline(result);
+    return 0;
+  }
+
+  private static void addArgument(List<String> cmd, String option, Object value) {
+    if (value == null || value.toString().trim().isEmpty()) {
+      return;
+    }
+    cmd.add(option);
+    cmd.add(value.toString().trim());
+  }
+
+  private void compareWithBaseline(Path result) throws IOException, MojoFailureException {
+    if (baseline == null) {
+      return;
+    }
+    Path baselinePath = baseline.toPath();
+    if (updateBaseline || Files.notExists(baselinePath)) {
+      if (baselinePath.getParent() != null) {
+        Files.createDirectories(baselinePath.getParent());
+      }
+      Files.copy(result, baselinePath, REPLACE_EXISTING);
+      info("Benchmark baseline stored in {0}", baselinePath);
+      return;
+    }
+    Map<String, Score> previous = readScores(baselinePath);
+    Map<String, Score> current = readScores(result);
+    List<String> regressions = new ArrayList<>();
+    info("Comparing benchmark results with baseline {0}", baselinePath);
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score old = previous.get(entry.getKey());
+      Score now = entry.getValue();
+      if (old == null || !old.unit.equals(now.unit)) {
+        info("  {0}: {1} (no baseline)", entry.getKey(), now);
+        continue;
+      }
+      String line = entry.getKey() + ": " + old + " -> " + now;
+      line += String.format(" (%+.1f%%)", now.changeInPercent(old));
+      if (now.isRegression(old, threshold)) {
+        error("  {0}", line);
+        regressions.add(line);
+      } else {
+        info("  {0}", line);
+      }
+    }
+    if (!regressions.isEmpty()) {
+      String message = "{0} benchmark(s) regressed by more than {1}%";
+      error(message, regressions.size(), threshold);
+      throw new MojoFailureException(regressions.size() + " benchmark regression(s) detected.");
+    }
+  }
+
+  /** Read the primary metric of all benchmarks in a JMH JSON result file. */
+  static Map<String, Score> readScores(Path file) throws IOException {
+    String json = new String(Files.readAllBytes(file), UTF_8);
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (Object element : (List<?>) Json.parse(json)) {
+      Map<?, ?> run = (Map<?, ?>) element;
+      Map<?, ?> metric = (Map<?, ?>) run.get("primaryMetric");
+      String key = run.get("benchmark").toString();
+      if (run.get("params") instanceof Map) {
+        key += new TreeMap<>((Map<?, ?>) run.get("params"));
+      }
+      String mode = run.get("mode").toString();
+      double score = ((Number) metric.get("score")).doubleValue();
+      String unit = String.valueOf(metric.get("scoreUnit"));
+      scores.put(key + " [" + mode + "]", new Score(mode, score, unit));
+    }
+    return scores;
+  }
+
+  /** Primary metric of a single benchmark run. */
+  static final class Score {
+    final String mode;
+    final double score;
+    final String unit;
+
+    Score(String mode, double score, String unit) {
+      this.mode = mode;
+      this.score = score;
+      this.unit = unit;
+    }
+
+    /** Throughput is better when higher, all other modes measure time: lower is better. */
+    boolean isHigherBetter() {
+      return "thrpt".equals(mode);
+    }
+
+    double changeInPercent(Score baseline) {
+      return baseline.score == 0 ? 0 : (score - baseline.score) * 100 / baseline.score;
+    }
+
+    boolean isRegression(Score baseline, double threshold) {
+      double change = changeInPercent(baseline);
+      return isHigherBetter() ? change < -threshold : change > threshold;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.3f %s", score, unit);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Selection of test classes that fit a time budget, see {@link TimeBudget}.
+ *
+ * <p>Test classes are ranked by their expected failure detection per second: the recorded failure
+ * rate divided by the recorded duration. Classes without history are assumed to fail with a rate of
+ * 50 percent, classes related to recent changes are ranked first. Classes are then taken greedily
+ * in ranked order while they fit the remaining budget, all others are deferred.
+ */
+class BudgetSelection {
+
+  static final String FILE_NAME = "deferred-tests.txt";
+
+  /** Assumed failure rate of test classes without history. */
+  private static final double UNKNOWN_FAILURE_RATE = 0.5;
+
+  /** Minimum failure rate, so durations still rank classes that never failed. */
+  private static final double BASE_FAILURE_RATE = 0.01;
+
+  /** Select test classes in ranked order until the budget in milliseconds is exhausted. */
+  static BudgetSelection select(
+      Collection<String> candidates,
+      Set<String> related,
+      Map<String, ClassHistory.Entry> history,
+      long budget,
+      long unknownDuration) {
+    BudgetSelection selection = new BudgetSelection();
+    List<String> ranked = new ArrayList<>(candidates);
+    Comparator<String> value =
+        Comparator.comparingDouble(
+            name ->
+                -rate(history.get(name))
+                    / Math.max(1, duration(history.get(name), unknownDuration)));
+    ranked.sort(
+        Comparator.comparing((String name) -> !related.contains(name)).thenComparing(value));
+    long remaining = budget;
+    for (String name : ranked) {
+      long duration = duration(history.get(name), unknownDuration);
+      if (duration <= remaining) {
+        remaining -= duration;
+        selection.expected += duration;
+        selection.selected.add(name);
+        if (related.contains(name)) {
+          selection.related++;
+        }
+      } else {
+        selection.deferred.add(name);
+        selection.deferredDuration += duration;
+      }
+    }
+    return selection;
+  }
+
+  /**
+   * Find top-level test classes related to changes since the given time: test classes whose class
+   * files changed and test classes referencing changed main classes.
+   */
+  static Set<String> findRelated(Collection<Path> testRoots, Collection<Path> mainRoots, long since)
+      throws IOException {
+    Set<String> related = new TreeSet<>();
+    if (since <= 0) {
+      return related;
+    }
+    related.addAll(findChanged(testRoots, since));
+    List<String> references = new ArrayList<>();
+    findChanged(mainRoots, since).forEach(name -> references.add(name.replace('.', '/')));
+    if (!references.isEmpty()) {
+      for (String name : ClassFiles.findReferencingClasses(testRoots, references)) {
+        related.add(topLevel(name));
+      }
+    }
+    return related;
+  }
+
+  private static Set<String> findChanged(Collection<Path> roots, long since) throws IOException {
+    Set<String> changed = new TreeSet<>();
+    for (Path root : roots) {
+      for (String name : ClassFiles.listClassNames(root)) {
+        Path file = root.resolve(name.replace('.', '/') + ".class");
+        if (Files.getLastModifiedTime(file).toMillis() > since) {
+          changed.add(topLevel(name));
+        }
+      }
+    }
+    return changed;
+  }
+
+  static String topLevel(String name) {
+    int dollar = name.indexOf('$');
+    return dollar < 0 ? name : name.substring(0, dollar);
+  }
+
+  private static double rate(ClassHistory.Entry entry) {
+    return entry == null ? UNKNOWN_FAILURE_RATE : entry.failureRate + BASE_FAILURE_RATE;
+  }
+
+  private static long duration(ClassHistory.Entry entry, long unknownDuration) {
+    return entry == null ? unknownDuration : entry.duration;
+  }
+
+  private final List<String> selected = new ArrayList<>();
+  private final List<String> deferred = new ArrayList<>();
+  private long expected = 0;
+  private long deferredDuration = 0;
+  private int related = 0;
+
+  /** Return selected classes, those related to changes first. */
+  List<String> getSelected() {
+    return selected;
+  }
+
+  List<String> getDeferred() {
+    return deferred;
+  }
+
+  /** Return the expected duration of the selected classes in milliseconds. */
+  long getExpected() {
+    return expected;
+  }
+
+  /** Return the expected duration of the deferred classes in milliseconds. */
+  long getDeferredDuration() {
+    return deferredDuration;
+  }
+
+  /** Return the number of selected classes related to recent changes. */
+  int getRelated() {
+    return related;
+  }
+
+  /** Write names of deferred classes to the given file, one per line. */
+  void writeDeferred(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+      for (String name : deferred) {
+        writer.write(name);
+        writer.newLine();
+      }
+    }
+  }
+}
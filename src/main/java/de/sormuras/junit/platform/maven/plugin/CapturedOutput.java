@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** Replays captured output of failed tests written by the {@link CapturedOutputListener}. */
+class CapturedOutput {
+
+  static final String FAILED_FILE_NAME = "failed-output.log";
+
+  static final String PASSED_FILE_NAME = "passed-output.log.gz";
+
+  private final JUnitPlatformMojo mojo;
+
+  CapturedOutput(JUnitPlatformMojo mojo) {
+    this.mojo = mojo;
+  }
+
+  /**
+   * Log the captured output of failed tests of the main suite found below the given directory.
+   *
+   * <p>Files written before the given start time or by lanes launched besides the main suite are
+   * skipped: the latter may still be written to by a concurrently running lane.
+   */
+  void replay(Path directory, long start) throws IOException {
+    if (Files.notExists(directory)) {
+      return;
+    }
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(directory)) {
+      files =
+          paths
+              .filter(path -> path.getFileName().toString().equals(FAILED_FILE_NAME))
+              .sorted()
+              .collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      if (!TestReports.isCurrent(directory, file, start, TestReports.LANE_DIRECTORIES)) {
+        continue;
+      }
+      if (Files.size(file) == 0) {
+        continue;
+      }
+      mojo.error("Captured output of failed tests, see {0}", file);
+      // output is written as is, decode leniently instead of failing on malformed input
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(Files.newInputStream(file), UTF_8))) {
+        reader.lines().forEach(mojo::error);
+      }
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Captures output written to {@code System.out} and {@code System.err} per test and keeps only the
+ * output of failed tests and containers.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ *
+ * <p>While the test plan executes, both streams are replaced by a {@link CapturingOutputStream}.
+ * Output of failed tests and containers is appended to a log file, output of all others is
+ * discarded or appended to a compressed archive. Output of threads not executing a test is passed
+ * through. Forked JVMs may override the file locations via system properties of the same keys.
+ */
+public class CapturedOutputListener implements TestExecutionListener {
+
+  static final String FAILED_FILE_KEY = "junit-platform.captured-output.failed.file";
+
+  static final String PASSED_FILE_KEY = "junit-platform.captured-output.passed.file";
+
+  static final String LIMIT_KEY = "junit-platform.captured-output.limit";
+
+  private final Path failedFile;
+  private final Path passedFile;
+  private final int limit;
+  private final InheritableThreadLocal<String> current = new InheritableThreadLocal<>();
+  private final Map<String, ByteArrayOutputStream> buffers = new ConcurrentHashMap<>();
+  private final Map<String, String> parents = new ConcurrentHashMap<>();
+  private PrintStream originalOut;
+  private PrintStream originalErr;
+  private OutputStream failed;
+  private OutputStream passed;
+
+  public CapturedOutputListener() {
+    Properties properties = new Properties();
+    try (InputStream stream = getClass().getResourceAsStream(LauncherExtensions.PROPERTIES)) {
+      if (stream != null) {
+        properties.load(stream);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Loading launcher extension properties failed", e);
+    }
+    String failed = System.getProperty(FAILED_FILE_KEY, properties.getProperty(FAILED_FILE_KEY));
+    String passed = System.getProperty(PASSED_FILE_KEY, properties.getProperty(PASSED_FILE_KEY));
+    this.failedFile = failed == null ? null : Paths.get(failed);
+    this.passedFile = passed == null ? null : Paths.get(passed);
+    this.limit = Integer.parseInt(properties.getProperty(LIMIT_KEY, "1048576"));
+  }
+
+  @Override
+  public synchronized void testPlanExecutionStarted(TestPlan testPlan) {
+    buffers.clear();
+    parents.clear();
+    try {
+      if (failedFile != null) {
+        Files.createDirectories(failedFile.toAbsolutePath().getParent());
+        failed = Files.newOutputStream(failedFile);
+      }
+      if (passedFile != null) {
+        Files.createDirectories(passedFile.toAbsolutePath().getParent());
+        passed = new GZIPOutputStream(Files.newOutputStream(passedFile));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Opening captured output files failed", e);
+    }
+    originalOut = System.out;
+    originalErr = System.err;
+    System.setOut(
+        new PrintStream(new CapturingOutputStream(originalOut, current, buffers, limit), true));
+    System.setErr(
+        new PrintStream(new CapturingOutputStream(originalErr, current, buffers, limit), true));
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier identifier) {
+    String id = identifier.getUniqueId();
+    buffers.put(id, new ByteArrayOutputStream());
+    String parent = current.get();
+    if (parent != null) {
+      parents.put(id, parent);
+    }
+    current.set(id);
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+    String id = identifier.getUniqueId();
+    if (id.equals(current.get())) {
+      current.set(parents.remove(id));
+    }
+    ByteArrayOutputStream buffer = buffers.remove(id);
+    if (buffer == null || buffer.size() == 0) {
+      return;
+    }
+    boolean failure = result.getStatus() == TestExecutionResult.Status.FAILED;
+    write(failure ? failed : passed, identifier, result, buffer);
+  }
+
+  @Override
+  public synchronized void testPlanExecutionFinished(TestPlan testPlan) {
+    System.out.flush();
+    System.err.flush();
+    System.setOut(originalOut);
+    System.setErr(originalErr);
+    try {
+      if (failed != null) {
+        failed.close();
+      }
+      if (passed != null) {
+        passed.close();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Closing captured output files failed", e);
+    } finally {
+      failed = null;
+      passed = null;
+    }
+  }
+
+  private synchronized void write(
+      OutputStream stream,
+      TestIdentifier identifier,
+      TestExecutionResult result,
+      ByteArrayOutputStream buffer) {
+    if (stream == null) {
+      return;
+    }
+    String header =
+        "=== "
+            + identifier.getLegacyReportingName()
+            + " ["
+            + result.getStatus()
+            + "] "
+            + identifier.getUniqueId()
+            + '\n';
+    try {
+      stream.write(header.getBytes(UTF_8));
+      synchronized (buffer) {
+        buffer.writeTo(stream);
+        if (!buffer.toString().endsWith("\n")) {
+          stream.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Writing captured output failed", e);
+    }
+  }
+}
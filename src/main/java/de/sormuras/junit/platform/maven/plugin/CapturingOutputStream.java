@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Routes bytes written by a thread executing a test into a bounded buffer of that test.
+ *
+ * <p>Bytes written by other threads are passed to the original stream. Each buffer keeps at least
+ * the last {@code limit} bytes written to it.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ */
+public final class CapturingOutputStream extends OutputStream {
+
+  private final OutputStream original;
+  private final ThreadLocal<String> current;
+  private final Map<String, ByteArrayOutputStream> buffers;
+  private final int limit;
+
+  public CapturingOutputStream(
+      OutputStream original,
+      ThreadLocal<String> current,
+      Map<String, ByteArrayOutputStream> buffers,
+      int limit) {
+    this.original = original;
+    this.current = current;
+    this.buffers = buffers;
+    this.limit = limit;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) throws IOException {
+    String id = current.get();
+    ByteArrayOutputStream buffer = id == null ? null : buffers.get(id);
+    if (buffer == null) {
+      original.write(bytes, offset, length);
+      return;
+    }
+    synchronized (buffer) {
+      buffer.write(bytes, offset, length);
+      if (buffer.size() > 2 * limit) {
+        byte[] all = buffer.toByteArray();
+        buffer.reset();
+        buffer.write(all, all.length - limit, limit);
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    original.flush();
+  }
+}
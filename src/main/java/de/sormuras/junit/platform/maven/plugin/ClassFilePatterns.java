@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Ant-style include and exclude patterns selecting test classes by the paths of their class files.
+ *
+ * <p>Patterns are matched against the path of a class file relative to its output directory, using
+ * {@code /} as separator: {@code **} matches any number of directories, {@code *} any number of
+ * characters and {@code ?} a single character within a directory or file name. A {@code .java} or
+ * {@code .class} suffix of a pattern is ignored. Patterns enclosed in {@code %regex[...]} are
+ * regular expressions matched against the relative path, including the {@code .class} suffix.
+ *
+ * <p>All include patterns and all exclude patterns are compiled into a single regular expression
+ * each. Nested classes are never matched, they are executed along with their enclosing class.
+ */
+class ClassFilePatterns {
+
+  /** Compile the given patterns into a single regular expression, {@code null} if empty. */
+  static Pattern compile(Collection<String> patterns) {
+    if (patterns == null || patterns.isEmpty()) {
+      return null;
+    }
+    StringBuilder regex = new StringBuilder();
+    for (String pattern : patterns) {
+      String trimmed = pattern.trim();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      regex.append(regex.length() == 0 ? "" : "|").append("(?:");
+      if (trimmed.startsWith("%regex[") && trimmed.endsWith("]")) {
+        regex.append(trimmed, "%regex[".length(), trimmed.length() - 1);
+      } else {
+        regex.append(toRegex(trimmed));
+      }
+      regex.append(')');
+    }
+    return regex.length() == 0 ? null : Pattern.compile(regex.toString());
+  }
+
+  /** Translate an Ant-style pattern into a regular expression matching class file paths. */
+  static String toRegex(String glob) {
+    String path = glob.replace('\\', '/');
+    while (path.startsWith("/")) {
+      path = path.substring(1);
+    }
+    if (path.endsWith(".java") || path.endsWith(".class")) {
+      path = path.substring(0, path.lastIndexOf('.'));
+    }
+    StringBuilder regex = new StringBuilder();
+    for (int i = 0; i < path.length(); i++) {
+      char c = path.charAt(i);
+      if (path.startsWith("**/", i)) {
+        regex.append("(?:.*/)?");
+        i += 2;
+      } else if (path.startsWith("**", i)) {
+        regex.append(".*");
+        i++;
+      } else if (c == '*') {
+        regex.append("[^/]*");
+      } else if (c == '?') {
+        regex.append("[^/]");
+      } else if (Character.isLetterOrDigit(c) || c == '/' || c == '_') {
+        regex.append(c);
+      } else {
+        regex.append('\\').append(c);
+      }
+    }
+    return regex.append("\\.class").toString();
+  }
+
+  private final Pattern includes;
+  private final Pattern excludes;
+
+  ClassFilePatterns(Collection<String> includes, Collection<String> excludes) {
+    this.includes = compile(includes);
+    this.excludes = compile(excludes);
+  }
+
+  boolean isEmpty() {
+    return includes == null && excludes == null;
+  }
+
+  /** Test the path of a class file, relative to its output directory and using {@code /}. */
+  boolean matches(String path) {
+    if (!path.endsWith(".class") || path.endsWith("-info.class") || path.indexOf('$') >= 0) {
+      return false; // module and package descriptors, nested classes
+    }
+    if (includes != null && !includes.matcher(path).matches()) {
+      return false;
+    }
+    return excludes == null || !excludes.matcher(path).matches();
+  }
+
+  /** Scan the given output directories and return the sorted names of all matching classes. */
+  Set<String> scan(Collection<Path> roots) throws IOException {
+    Set<String> names = new TreeSet<>();
+    for (Path root : roots) {
+      if (!Files.isDirectory(root)) {
+        continue;
+      }
+      try (Stream<Path> paths = Files.walk(root)) {
+        paths
+            .map(root::relativize)
+            .filter(path -> matches(path.toString().replace('\\', '/')))
+            .forEach(path -> names.add(ClassFiles.toClassName(path)));
+      }
+    }
+    return names;
+  }
+}
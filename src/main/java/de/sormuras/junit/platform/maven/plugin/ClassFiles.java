@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** Class file helpers operating on compiled output directories. */
+class ClassFiles {
+
+  /** List binary names of all classes, excluding module and package descriptors. */
+  static List<String> listClassNames(Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> paths = Files.walk(root)) {
+      return paths
+          .filter(path -> path.getFileName().toString().endsWith(".class"))
+          .map(path -> toClassName(root.relativize(path)))
+          .filter(name -> !name.endsWith("module-info") && !name.endsWith("package-info"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Find markers referenced by any class below the given roots.
+   *
+   * <p>Only the constant pool of each class file is parsed, no class is loaded. A marker is found,
+   * if it is contained in any {@code CONSTANT_Utf8} entry, which holds class names, descriptors of
+   * annotations, fields and methods, and string literals. Scanning stops as soon as all markers are
+   * found.
+   */
+  static Set<String> findReferences(Collection<Path> roots, Collection<String> markers)
+      throws IOException {
+    Set<String> found = new HashSet<>();
+    for (Path root : roots) {
+      if (!Files.isDirectory(root)) {
+        continue;
+      }
+      try (Stream<Path> paths = Files.walk(root)) {
+        Iterator<Path> iterator =
+            paths.filter(path -> path.getFileName().toString().endsWith(".class")).iterator();
+        while (iterator.hasNext() && found.size() < markers.size()) {
+          for (String string : readConstantPoolStrings(iterator.next())) {
+            for (String marker : markers) {
+              if (string.contains(marker)) {
+                found.add(marker);
+              }
+            }
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /** Find binary names of all classes below the given roots that reference any of the markers. */
+  static Set<String> findReferencingClasses(Collection<Path> roots, Collection<String> markers)
+      throws IOException {
+    Set<String> found = new TreeSet<>();
+    for (Path root : roots) {
+      if (!Files.isDirectory(root)) {
+        continue;
+      }
+      try (Stream<Path> paths = Files.walk(root)) {
+        Iterator<Path> iterator =
+            paths.filter(path -> path.getFileName().toString().endsWith(".class")).iterator();
+        while (iterator.hasNext()) {
+          Path file = iterator.next();
+          for (String string : readConstantPoolStrings(file)) {
+            if (markers.stream().anyMatch(string::contains)) {
+              found.add(toClassName(root.relativize(file)));
+              break;
+            }
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /** Read all {@code CONSTANT_Utf8} entries of the constant pool of the given class file. */
+  static List<String> readConstantPoolStrings(Path file) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != 0xCAFEBABE) {
+        return Collections.emptyList();
+      }
+      in.readUnsignedShort(); // minor version
+      in.readUnsignedShort(); // major version
+      int count = in.readUnsignedShort();
+      List<String> strings = new ArrayList<>();
+      for (int index = 1; index < count; index++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case 1: // Utf8
+            strings.add(in.readUTF());
+            break;
+          case 7: // Class
+          case 8: // String
+          case 16: // MethodType
+          case 19: // Module
+          case 20: // Package
+            in.skipBytes(2);
+            break;
+          case 15: // MethodHandle
+            in.skipBytes(3);
+            break;
+          case 3: // Integer
+          case 4: // Float
+          case 9: // Fieldref
+          case 10: // Methodref
+          case 11: // InterfaceMethodref
+          case 12: // NameAndType
+          case 17: // Dynamic
+          case 18: // InvokeDynamic
+            in.skipBytes(4);
+            break;
+          case 5: // Long
+          case 6: // Double
+            in.skipBytes(8);
+            index++; // 8-byte constants take up two entries
+            break;
+          default:
+            throw new IOException("Unknown constant pool tag " + tag + " in " + file);
+        }
+      }
+      return strings;
+    }
+  }
+
+  /** Convert a relative class file path like {@code a/b/C$D.class} to {@code a.b.C$D}. */
+  static String toClassName(Path relative) {
+    String name = relative.toString().replace('\\', '/');
+    return name.substring(0, name.length() - ".class".length()).replace('/', '.');
+  }
+}
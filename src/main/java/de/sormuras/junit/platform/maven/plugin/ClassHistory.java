@@ -0,0 +1,156 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Persisted durations and failure rates of test classes.
+ *
+ * <p>Each entry is stored as {@code name=duration,runs,failureRate} in a properties file of the
+ * module's history directory. The duration in milliseconds is smoothed like the suite duration, the
+ * failure rate is an exponentially weighted moving average of failed runs. Nested classes are
+ * recorded as part of their top-level class.
+ */
+class ClassHistory {
+
+  static final String FILE_NAME = "class-history.properties";
+
+  /** Key of the start time of the last recorded run, can't clash with a binary class name. */
+  private static final String TIMESTAMP = ".timestamp";
+
+  /** Weight of the previous failure rate when a new outcome is merged. */
+  private static final double DECAY = 0.75;
+
+  /** Recorded statistics of a single test class. */
+  static final class Entry {
+    final long duration;
+    final int runs;
+    final double failureRate;
+
+    Entry(long duration, int runs, double failureRate) {
+      this.duration = duration;
+      this.runs = runs;
+      this.failureRate = failureRate;
+    }
+
+    Entry merge(long millis, boolean failed) {
+      long smoothed = (duration + millis) / 2;
+      double rate = failureRate * DECAY + (failed ? 1 - DECAY : 0);
+      return new Entry(smoothed, runs + 1, rate);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ROOT, "%d,%d,%.4f", duration, runs, failureRate);
+    }
+
+    static Entry parse(String value) {
+      String[] values = value.split(",");
+      return new Entry(
+          Long.parseLong(values[0].trim()),
+          Integer.parseInt(values[1].trim()),
+          Double.parseDouble(values[2].trim()));
+    }
+  }
+
+  static ClassHistory load(Path file) {
+    ClassHistory history = new ClassHistory();
+    Properties properties = History.load(file);
+    for (String name : properties.stringPropertyNames()) {
+      try {
+        if (name.equals(TIMESTAMP)) {
+          history.timestamp = Long.parseLong(properties.getProperty(name));
+        } else {
+          history.entries.put(name, Entry.parse(properties.getProperty(name)));
+        }
+      } catch (RuntimeException e) {
+        // skip malformed entry
+      }
+    }
+    return history;
+  }
+
+  private final Map<String, Entry> entries = new TreeMap<>();
+  private long timestamp = 0;
+
+  Map<String, Entry> getEntries() {
+    return entries;
+  }
+
+  /** Return the start time of the last recorded run, {@code 0} if no run was recorded. */
+  long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * Merge outcomes of a run into this history.
+   *
+   * @param durations durations in milliseconds per top-level class
+   * @param failed top-level classes with at least one failed test
+   * @param start start time of the run
+   */
+  void record(Map<String, Long> durations, Set<String> failed, long start) {
+    for (Map.Entry<String, Long> entry : durations.entrySet()) {
+      String name = entry.getKey();
+      long millis = entry.getValue();
+      boolean failure = failed.contains(name);
+      Entry previous = entries.get(name);
+      entries.put(
+          name,
+          previous == null
+              ? new Entry(millis, 1, failure ? 1 : 0)
+              : previous.merge(millis, failure));
+    }
+    timestamp = Math.max(timestamp, start);
+  }
+
+  /**
+   * Read reports of the main suite written since the given start time and merge their outcomes.
+   *
+   * <p>Reports of lanes launched besides the main suite are skipped, they may still be written.
+   */
+  void record(Path directory, long start) throws IOException, XMLStreamException {
+    Map<String, Long> durations = new TreeMap<>();
+    Set<String> failed = new TreeSet<>();
+    for (Path report : TestReports.find(directory, start, TestReports.LANE_DIRECTORIES)) {
+      TestReports.read(
+          report,
+          testCase -> {
+            String name = testCase.topLevelClassName();
+            durations.merge(name, Math.round(testCase.time * 1000), Long::sum);
+            if (testCase.isFailure()) {
+              failed.add(name);
+            }
+          });
+    }
+    record(durations, failed, start);
+  }
+
+  void store(Path file) {
+    Properties properties = new Properties();
+    entries.forEach((name, entry) -> properties.setProperty(name, entry.toString()));
+    properties.setProperty(TIMESTAMP, Long.toString(timestamp));
+    History.store(file, properties);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+/** Options of the regression gate comparing test durations against a baseline. */
+@SuppressWarnings("WeakerAccess")
+public class DurationGate {
+
+  /** Compare durations of this run with the baseline after each launch. */
+  boolean enabled = false;
+
+  /**
+   * Path to the baseline file, like a file committed to the project.
+   *
+   * <p>When empty, the durations of the last successful run recorded in the history directory are
+   * used as baseline.
+   */
+  String baseline = "";
+
+  /** Compare durations of single tests instead of test classes. */
+  boolean perTest = false;
+
+  /** Regression threshold in percent of the baseline duration. */
+  double threshold = 50;
+
+  /** Minimum increase in milliseconds, shorter increases are considered noise. */
+  long minimum = 250;
+
+  /** Fail the build instead of logging a warning when a regression is detected. */
+  boolean failOnRegression = false;
+
+  /** Overwrite an explicit baseline file with the durations of a successful run. */
+  boolean updateBaseline = false;
+
+  /** Number of worst offenders to log. */
+  int reportSize = 10;
+}
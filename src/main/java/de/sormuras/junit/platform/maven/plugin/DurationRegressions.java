@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import javax.xml.stream.XMLStreamException;
+import org.apache.maven.plugin.MojoFailureException;
+
+/** Compares test durations of the current run with a baseline, see {@link DurationGate}. */
+class DurationRegressions {
+
+  static final String FILE_NAME = "duration-regressions.txt";
+
+  /** Test class or test that got slower. */
+  static final class Regression {
+    final String name;
+    final long baseline;
+    final long current;
+
+    Regression(String name, long baseline, long current) {
+      this.name = name;
+      this.baseline = baseline;
+      this.current = current;
+    }
+
+    long increase() {
+      return current - baseline;
+    }
+
+    double changeInPercent() {
+      return baseline == 0 ? Double.POSITIVE_INFINITY : increase() * 100.0 / baseline;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ROOT,
+          "+%d ms (%+.0f%%) %d ms -> %d ms %s",
+          increase(),
+          changeInPercent(),
+          baseline,
+          current,
+          name);
+    }
+  }
+
+  /**
+   * Sum durations in milliseconds per test class, or per test, of the given reports.
+   *
+   * <p>Reports truncated by a fork killed on timeout are read up to the point of truncation and
+   * added to the given list of partial reports.
+   */
+  static Map<String, Long> collect(List<Path> reports, boolean perTest, List<Path> partial)
+      throws IOException {
+    Map<String, Long> durations = new TreeMap<>();
+    for (Path report : reports) {
+      try {
+        TestReports.read(
+            report,
+            testCase -> {
+              String name = perTest ? testCase.className + '#' + testCase.name : testCase.className;
+              durations.merge(name, Math.round(testCase.time * 1000), Long::sum);
+            });
+      } catch (XMLStreamException e) {
+        partial.add(report);
+      }
+    }
+    return durations;
+  }
+
+  /**
+   * Find durations that increased by more than the threshold in percent and at least by the minimum
+   * number of milliseconds, worst offenders first.
+   */
+  static List<Regression> compare(
+      Map<String, Long> baseline, Map<String, Long> current, double threshold, long minimum) {
+    List<Regression> regressions = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : current.entrySet()) {
+      Long previous = baseline.get(entry.getKey());
+      if (previous == null) {
+        continue;
+      }
+      Regression regression = new Regression(entry.getKey(), previous, entry.getValue());
+      if (regression.increase() >= minimum && regression.changeInPercent() > threshold) {
+        regressions.add(regression);
+      }
+    }
+    regressions.sort(Comparator.comparingLong(Regression::increase).reversed());
+    return regressions;
+  }
+
+  static Map<String, Long> load(Path file) {
+    Map<String, Long> durations = new TreeMap<>();
+    Properties properties = History.load(file);
+    for (String name : properties.stringPropertyNames()) {
+      try {
+        durations.put(name, Long.parseLong(properties.getProperty(name)));
+      } catch (NumberFormatException e) {
+        // skip malformed entry
+      }
+    }
+    return durations;
+  }
+
+  static void store(Path file, Map<String, Long> durations) {
+    Properties properties = new Properties();
+    durations.forEach((name, millis) -> properties.setProperty(name, Long.toString(millis)));
+    History.store(file, properties);
+  }
+
+  private final JUnitPlatformMojo mojo;
+  private final DurationGate gate;
+
+  DurationRegressions(JUnitPlatformMojo mojo) {
+    this.mojo = mojo;
+    this.gate = mojo.getDurationGate();
+  }
+
+  /** Return the baseline file, either the configured one or the one stored in the history. */
+  Path getBaselineFile() {
+    if (!gate.baseline.trim().isEmpty()) {
+      return mojo.getMavenProject().getBasedir().toPath().resolve(Paths.get(gate.baseline.trim()));
+    }
+    History history = History.of(mojo.getMavenSession());
+    String name = gate.perTest ? "test-durations.properties" : "class-durations.properties";
+    return history.module(mojo.getMavenProject()).resolve(name);
+  }
+
+  /**
+   * Compare durations of the run with the baseline and update the baseline after a successful run.
+   *
+   * <p>Only reports of the main suite written since the start of the run are read. The baseline
+   * isn't updated by a run with regressions, unless {@link DurationGate#updateBaseline} is set:
+   * otherwise the slow durations would become the baseline of the next run.
+   *
+   * @param result exit value of the run
+   * @param start start time of the run
+   * @throws MojoFailureException if a regression was detected and the gate is configured to fail
+   */
+  void check(int result, long start) throws IOException, MojoFailureException {
+    Path target = mojo.getTargetDirectory().toPath();
+    List<Path> reports = TestReports.find(target, start, TestReports.LANE_DIRECTORIES);
+    List<Path> partial = new ArrayList<>();
+    Map<String, Long> current = collect(reports, gate.perTest, partial);
+    for (Path report : partial) {
+      mojo.warn("Read partial report {0}, its fork was probably killed", report);
+    }
+    if (current.isEmpty()) {
+      return;
+    }
+    Path baselineFile = getBaselineFile();
+    boolean explicit = !gate.baseline.trim().isEmpty();
+    boolean missing = Files.notExists(baselineFile);
+    List<Regression> regressions = new ArrayList<>();
+    if (!missing) {
+      Map<String, Long> baseline = load(baselineFile);
+      regressions = compare(baseline, current, gate.threshold, gate.minimum);
+      write(target.resolve(FILE_NAME), baselineFile, regressions);
+    }
+    boolean accepted = gate.updateBaseline || (!explicit && regressions.isEmpty());
+    if (result == 0 && partial.isEmpty() && (missing || accepted)) {
+      store(baselineFile, current);
+      mojo.debug("Test durations stored in {0}", baselineFile);
+    }
+    if (regressions.isEmpty()) {
+      return;
+    }
+    String format = "{0} test duration(s) regressed by more than {1}% and {2} ms, see {3}";
+    Object[] args = {regressions.size(), gate.threshold, gate.minimum, target.resolve(FILE_NAME)};
+    if (gate.failOnRegression) {
+      mojo.error(format, args);
+    } else {
+      mojo.warn(format, args);
+    }
+    for (Regression regression :
+        regressions.subList(0, Math.min(gate.reportSize, regressions.size()))) {
+      if (gate.failOnRegression) {
+        mojo.error("  {0}", regression);
+      } else {
+        mojo.warn("  {0}", regression);
+      }
+    }
+    if (gate.failOnRegression) {
+      throw new MojoFailureException(regressions.size() + " test duration regression(s) detected.");
+    }
+  }
+
+  private static void write(Path file, Path baseline, List<Regression> regressions)
+      throws IOException {
+    Files.createDirectories(file.getParent());
+    try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+      writer.write("# Baseline: " + baseline);
+      writer.newLine();
+      for (Regression regression : regressions) {
+        writer.write(regression.toString());
+        writer.newLine();
+      }
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+/** Options of the flaky test statistics and the quarantine lane. */
+@SuppressWarnings("WeakerAccess")
+public class FlakyTests {
+
+  /** Record the outcome of each test and report flaky tests after each launch. */
+  boolean enabled = false;
+
+  /** Launch flaky tests in a separate lane, in parallel to the main suite, that never fails. */
+  boolean quarantine = false;
+
+  /**
+   * Flakiness score above which a test is considered flaky.
+   *
+   * <p>The score is the rate of outcome flips between consecutive recorded runs: {@code 0} for
+   * tests that always pass or always fail, {@code 1} for tests that alternate between passing and
+   * failing.
+   */
+  double threshold = 0.2;
+
+  /** Minimum number of recorded runs before a test is scored. */
+  int minimumRuns = 10;
+
+  /** Number of most recent outcomes recorded per test. */
+  int window = 20;
+
+  /** Number of flaky tests to log. */
+  int reportSize = 10;
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Controls Java Flight Recorder sessions capturing test runs.
+ *
+ * <p>Forked JVMs are started with a {@code -XX:StartFlightRecording} option, the Maven JVM running
+ * tests directly starts a recording via the {@code jdk.jfr} API. That API is accessed reflectively:
+ * the plugin is compiled for Java 8.
+ */
+class FlightRecording {
+
+  static final String FILE_NAME = "recording.jfr";
+
+  static final String SETTINGS_NAME = "recording.jfc";
+
+  /** Settings template tuned for test runs: frequent sampling, moderate thresholds. */
+  static final List<String> SETTINGS =
+      Arrays.asList(
+          "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+          "<configuration version=\"2.0\" label=\"JUnit Platform\">",
+          event("jdk.ExecutionSample", "<setting name=\"period\">10 ms</setting>"),
+          event("jdk.NativeMethodSample", "<setting name=\"period\">20 ms</setting>"),
+          event(
+              "jdk.ObjectAllocationSample",
+              "<setting name=\"throttle\">300/s</setting>",
+              "<setting name=\"stackTrace\">true</setting>"),
+          event("jdk.ObjectAllocationInNewTLAB", "<setting name=\"stackTrace\">true</setting>"),
+          event("jdk.ObjectAllocationOutsideTLAB", "<setting name=\"stackTrace\">true</setting>"),
+          event(
+              "jdk.JavaMonitorEnter",
+              "<setting name=\"threshold\">5 ms</setting>",
+              "<setting name=\"stackTrace\">true</setting>"),
+          event("jdk.GarbageCollection"),
+          event("jdk.GCPhasePause", "<setting name=\"threshold\">0 ms</setting>"),
+          event(ProfilingListener.EVENT_NAME),
+          "</configuration>");
+
+  private static String event(String name, String... settings) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("  <event name=\"").append(name).append("\">");
+    builder.append("<setting name=\"enabled\">true</setting>");
+    for (String setting : settings) {
+      builder.append(setting);
+    }
+    return builder.append("</event>").toString();
+  }
+
+  /** Write the settings template to the given directory. */
+  static Path writeSettings(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    return Files.write(directory.resolve(SETTINGS_NAME), SETTINGS, UTF_8);
+  }
+
+  /** Create the option starting a recording in a forked JVM, dumped when the JVM exits. */
+  static String createStartOption(Path recording, Path settings) {
+    return "-XX:StartFlightRecording=name=junit-platform,dumponexit=true"
+        + (",filename=" + recording)
+        + (",settings=" + settings);
+  }
+
+  private final Object recording;
+
+  private FlightRecording(Object recording) {
+    this.recording = recording;
+  }
+
+  /** Start a recording in this JVM using the given settings file. */
+  static FlightRecording start(Path settings) throws ReflectiveOperationException {
+    Class<?> configurationType = Class.forName("jdk.jfr.Configuration");
+    Object configuration = configurationType.getMethod("create", Path.class).invoke(null, settings);
+    Class<?> recordingType = Class.forName("jdk.jfr.Recording");
+    Object recording = recordingType.getConstructor(configurationType).newInstance(configuration);
+    recordingType.getMethod("setName", String.class).invoke(recording, "junit-platform");
+    recordingType.getMethod("start").invoke(recording);
+    return new FlightRecording(recording);
+  }
+
+  /** Stop this recording, write it to the given file and release its resources. */
+  void stop(Path file) throws ReflectiveOperationException {
+    Class<?> type = recording.getClass();
+    try {
+      type.getMethod("stop").invoke(recording);
+      type.getMethod("dump", Path.class).invoke(recording, file);
+    } finally {
+      type.getMethod("close").invoke(recording);
+    }
+  }
+}
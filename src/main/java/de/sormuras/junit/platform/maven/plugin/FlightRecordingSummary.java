@@ -0,0 +1,387 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Attributes the events of a flight recording to test classes and writes a summary.
+ *
+ * <p>Events are attributed to the test class the {@link ProfilingListener} reported as executing on
+ * the same thread at the same time. Events not covered by such an execution are attributed to the
+ * first test class found on their stack trace. The {@code jdk.jfr.consumer} API is accessed
+ * reflectively: the plugin is compiled for Java 8.
+ */
+class FlightRecordingSummary {
+
+  static final String FILE_NAME = "recording-summary.txt";
+
+  static final String UNATTRIBUTED = "(unattributed)";
+
+  /** Execution of a test class on a single thread, in nanoseconds since the epoch. */
+  static final class Interval {
+    final String className;
+    final long start;
+    final long end;
+
+    Interval(String className, long start, long end) {
+      this.className = className;
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  /** Test class executions per thread. */
+  static final class Timeline {
+    private final Map<Long, List<Interval>> threads = new HashMap<>();
+    private final Map<Long, long[]> latestEnds = new HashMap<>();
+
+    void add(long thread, String className, long start, long end) {
+      threads
+          .computeIfAbsent(thread, t -> new ArrayList<>())
+          .add(new Interval(className, start, end));
+      latestEnds.clear();
+    }
+
+    boolean isEmpty() {
+      return threads.isEmpty();
+    }
+
+    /** Return the innermost test class executing on the given thread at the given time. */
+    String find(long thread, long time) {
+      List<Interval> intervals = threads.get(thread);
+      if (intervals == null) {
+        return null;
+      }
+      long[] ends = latestEnds.computeIfAbsent(thread, t -> index(intervals));
+      // last interval started at or before the given time
+      int low = 0;
+      int high = intervals.size() - 1;
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        if (intervals.get(middle).start <= time) {
+          low = middle + 1;
+        } else {
+          high = middle - 1;
+        }
+      }
+      // walk back until no earlier interval ends after the given time
+      for (int i = high; i >= 0 && ends[i] >= time; i--) {
+        if (intervals.get(i).end >= time) {
+          return intervals.get(i).className;
+        }
+      }
+      return null;
+    }
+
+    /** Return the innermost test classes executing on any thread at the given time. */
+    Set<String> findAll(long time) {
+      Set<String> classNames = new LinkedHashSet<>();
+      for (Long thread : threads.keySet()) {
+        String className = find(thread, time);
+        if (className != null) {
+          classNames.add(className);
+        }
+      }
+      return classNames;
+    }
+
+    /** Sort intervals by start time and compute the latest end of each prefix. */
+    private static long[] index(List<Interval> intervals) {
+      intervals.sort(Comparator.comparingLong(interval -> interval.start));
+      long[] ends = new long[intervals.size()];
+      long latest = Long.MIN_VALUE;
+      for (int i = 0; i < ends.length; i++) {
+        latest = Math.max(latest, intervals.get(i).end);
+        ends[i] = latest;
+      }
+      return ends;
+    }
+  }
+
+  /** Events attributed to a single test class. */
+  static final class Profile {
+    final String name;
+    long samples;
+    final Map<String, Long> methods = new HashMap<>();
+    final Map<String, Long> allocations = new HashMap<>();
+    final Map<String, Long> contentions = new HashMap<>();
+    long pauses;
+    long pauseNanos;
+
+    Profile(String name) {
+      this.name = name;
+    }
+
+    static List<Map.Entry<String, Long>> top(Map<String, Long> map, int limit) {
+      return map.entrySet().stream()
+          .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+          .limit(limit)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private final JUnitPlatformMojo mojo;
+  private final Set<String> testClassNames;
+  private final Map<String, Method> methods = new HashMap<>();
+  private final Timeline timeline = new Timeline();
+  private final Map<String, Profile> profiles = new HashMap<>();
+  private boolean allocationSamples = false;
+  private long samples = 0;
+
+  FlightRecordingSummary(JUnitPlatformMojo mojo, Collection<String> testClassNames) {
+    this.mojo = mojo;
+    this.testClassNames = new LinkedHashSet<>(testClassNames);
+  }
+
+  /** Read the recording, write the summary next to it and log the hottest test classes. */
+  void summarize(Path recording, int limit) {
+    if (limit <= 0 || Files.notExists(recording)) {
+      return;
+    }
+    Path file = recording.resolveSibling(FILE_NAME);
+    try {
+      read(recording, this::collectTimeline);
+      read(recording, this::attribute);
+      write(file, limit);
+    } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+      mojo.warn("Summarizing flight recording {0} failed: {1}", recording, e);
+      return;
+    }
+    mojo.info("Flight recording summary written to {0}", file);
+    for (Profile profile : sorted().subList(0, Math.min(limit, profiles.size()))) {
+      List<Map.Entry<String, Long>> hottest = Profile.top(profile.methods, 1);
+      mojo.info(
+          "  {0} sample(s) | {1,number,0.0} MB sampled allocations | {2} | hottest: {3}",
+          profile.samples,
+          sum(profile.allocations) / 1e6,
+          profile.name,
+          hottest.isEmpty() ? "-" : hottest.get(0).getKey());
+    }
+  }
+
+  Map<String, Profile> getProfiles() {
+    return profiles;
+  }
+
+  private void read(Path recording, Consumer<Object> consumer) throws ReflectiveOperationException {
+    Class<?> type = Class.forName("jdk.jfr.consumer.RecordingFile");
+    Object file = type.getConstructor(Path.class).newInstance(recording);
+    try {
+      Method hasMoreEvents = type.getMethod("hasMoreEvents");
+      Method readEvent = type.getMethod("readEvent");
+      while ((Boolean) hasMoreEvents.invoke(file)) {
+        consumer.accept(readEvent.invoke(file));
+      }
+    } finally {
+      type.getMethod("close").invoke(file);
+    }
+  }
+
+  private void collectTimeline(Object event) {
+    if (!ProfilingListener.EVENT_NAME.equals(name(event))) {
+      if ("jdk.ObjectAllocationSample".equals(name(event))) {
+        allocationSamples = true;
+      }
+      return;
+    }
+    Object thread = call(event, "getThread");
+    String className = (String) call(event, "getString", "testClass");
+    if (thread == null || className == null) {
+      return;
+    }
+    long id = (Long) call(thread, "getJavaThreadId");
+    timeline.add(
+        id, className, nanos(call(event, "getStartTime")), nanos(call(event, "getEndTime")));
+  }
+
+  private void attribute(Object event) {
+    switch (name(event)) {
+      case "jdk.ExecutionSample":
+        {
+          samples++;
+          Profile profile = profile(event, call(event, "getThread", "sampledThread"));
+          profile.samples++;
+          profile.methods.merge(topFrame(event), 1L, Long::sum);
+          break;
+        }
+      case "jdk.ObjectAllocationSample":
+        allocate(event, (Long) call(event, "getLong", "weight"));
+        break;
+      case "jdk.ObjectAllocationInNewTLAB":
+      case "jdk.ObjectAllocationOutsideTLAB":
+        if (!allocationSamples) {
+          allocate(event, (Long) call(event, "getLong", "allocationSize"));
+        }
+        break;
+      case "jdk.JavaMonitorEnter":
+        {
+          Profile profile = profile(event, call(event, "getThread"));
+          Object monitor = call(event, "getClass", "monitorClass");
+          String site = topFrame(event);
+          if (monitor != null) {
+            site += " (" + call(monitor, "getName") + ")";
+          }
+          profile.contentions.merge(site, nanos(call(event, "getDuration")), Long::sum);
+          break;
+        }
+      case "jdk.GarbageCollection":
+        {
+          long pause = nanos(call(event, "getDuration", "sumOfPauses"));
+          for (String className : timeline.findAll(nanos(call(event, "getStartTime")))) {
+            Profile profile = profiles.computeIfAbsent(className, Profile::new);
+            profile.pauses++;
+            profile.pauseNanos += pause;
+          }
+          break;
+        }
+      default:
+    }
+  }
+
+  private void allocate(Object event, long bytes) {
+    Profile profile = profile(event, call(event, "getThread"));
+    profile.allocations.merge(topFrame(event), bytes, Long::sum);
+  }
+
+  /** Find the profile of the test class the given event is attributed to. */
+  private Profile profile(Object event, Object thread) {
+    String className = null;
+    if (thread != null) {
+      long id = (Long) call(thread, "getJavaThreadId");
+      className = timeline.find(id, nanos(call(event, "getStartTime")));
+    }
+    if (className == null) {
+      for (Object frame : frames(event)) {
+        String type = (String) call(call(call(frame, "getMethod"), "getType"), "getName");
+        if (testClassNames.contains(type)) {
+          className = type;
+          break;
+        }
+      }
+    }
+    return profiles.computeIfAbsent(className == null ? UNATTRIBUTED : className, Profile::new);
+  }
+
+  private List<?> frames(Object event) {
+    Object stackTrace = call(event, "getStackTrace");
+    return stackTrace == null ? Collections.emptyList() : (List<?>) call(stackTrace, "getFrames");
+  }
+
+  private String topFrame(Object event) {
+    List<?> frames = frames(event);
+    if (frames.isEmpty()) {
+      return "<no stack trace>";
+    }
+    Object method = call(frames.get(0), "getMethod");
+    return call(call(method, "getType"), "getName") + "." + call(method, "getName");
+  }
+
+  private List<Profile> sorted() {
+    List<Profile> sorted = new ArrayList<>(profiles.values());
+    sorted.sort(
+        Comparator.comparing((Profile profile) -> profile.name.equals(UNATTRIBUTED))
+            .thenComparing(
+                Comparator.comparingLong((Profile profile) -> profile.samples).reversed())
+            .thenComparing(profile -> profile.name));
+    return sorted;
+  }
+
+  private void write(Path file, int limit) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+      writer.write(String.format(Locale.ROOT, "# %d execution sample(s)%n", samples));
+      for (Profile profile : sorted()) {
+        writer.write(String.format(Locale.ROOT, "%n%s%n", profile.name));
+        writer.write(
+            String.format(
+                Locale.ROOT,
+                "  %d execution sample(s), %d gc pause(s) taking %.1f ms%n",
+                profile.samples,
+                profile.pauses,
+                profile.pauseNanos / 1e6));
+        writer.write(String.format(Locale.ROOT, "  hot methods (samples)%n"));
+        for (Map.Entry<String, Long> entry : Profile.top(profile.methods, limit)) {
+          writer.write(
+              String.format(Locale.ROOT, "    %8d  %s%n", entry.getValue(), entry.getKey()));
+        }
+        writer.write(String.format(Locale.ROOT, "  allocation sites (sampled MB)%n"));
+        for (Map.Entry<String, Long> entry : Profile.top(profile.allocations, limit)) {
+          double megabytes = entry.getValue() / 1e6;
+          writer.write(String.format(Locale.ROOT, "    %8.1f  %s%n", megabytes, entry.getKey()));
+        }
+        writer.write(String.format(Locale.ROOT, "  lock contention (ms)%n"));
+        for (Map.Entry<String, Long> entry : Profile.top(profile.contentions, limit)) {
+          double millis = entry.getValue() / 1e6;
+          writer.write(String.format(Locale.ROOT, "    %8.1f  %s%n", millis, entry.getKey()));
+        }
+      }
+    }
+  }
+
+  private static long sum(Map<String, Long> map) {
+    return map.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  private static long nanos(Object value) {
+    if (value instanceof Instant) {
+      Instant instant = (Instant) value;
+      return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+    if (value instanceof Duration) {
+      return ((Duration) value).toNanos();
+    }
+    return 0;
+  }
+
+  private String name(Object event) {
+    return (String) call(call(event, "getEventType"), "getName");
+  }
+
+  /** Invoke a public method, taking no or a single field name argument, of a consumer object. */
+  private Object call(Object target, String name, String... field) {
+    Class<?>[] types = field.length == 0 ? new Class<?>[0] : new Class<?>[] {String.class};
+    String key = target.getClass().getName() + '#' + name + '/' + field.length;
+    try {
+      Method method = methods.get(key);
+      if (method == null) {
+        method = target.getClass().getMethod(name, types);
+        methods.put(key, method);
+      }
+      return method.invoke(target, (Object[]) field);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Calling " + key + " failed", e);
+    }
+  }
+}
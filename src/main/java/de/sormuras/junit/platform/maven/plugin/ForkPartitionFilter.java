@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.Optional;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Includes only the test classes assigned to the current fork.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ *
+ * <p>Test classes are assigned to forks by the hash code of their top-level class name, so every
+ * fork discovers the same tests and executes a distinct subset of them without coordination. Test
+ * descriptors without a class or method source are always included. The fork index and count are
+ * passed as system properties.
+ */
+public class ForkPartitionFilter implements PostDiscoveryFilter {
+
+  static final String INDEX_KEY = "junit-platform.fork.index";
+
+  static final String COUNT_KEY = "junit-platform.fork.count";
+
+  /** Return the index of the fork the given class is assigned to. */
+  static int assign(String className, int count) {
+    int dollar = className.indexOf('$');
+    String topLevelClassName = dollar < 0 ? className : className.substring(0, dollar);
+    return Math.floorMod(topLevelClassName.hashCode(), count);
+  }
+
+  private final int index;
+  private final int count;
+
+  public ForkPartitionFilter() {
+    this(Integer.getInteger(INDEX_KEY, 0), Integer.getInteger(COUNT_KEY, 1));
+  }
+
+  ForkPartitionFilter(int index, int count) {
+    this.index = index;
+    this.count = count;
+  }
+
+  @Override
+  public FilterResult apply(TestDescriptor descriptor) {
+    if (count <= 1) {
+      return FilterResult.included("single fork");
+    }
+    Optional<TestSource> source = descriptor.getSource();
+    String className = null;
+    if (source.isPresent() && source.get() instanceof ClassSource) {
+      className = ((ClassSource) source.get()).getClassName();
+    }
+    if (source.isPresent() && source.get() instanceof MethodSource) {
+      className = ((MethodSource) source.get()).getClassName();
+    }
+    if (className == null) {
+      return FilterResult.included("no class source");
+    }
+    int fork = assign(className, count);
+    return FilterResult.includedIf(
+        fork == index, () -> "assigned to fork " + index, () -> "assigned to fork " + fork);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.OptionalLong;
+import java.util.Properties;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Persisted test execution history shared by all modules of a build.
+ *
+ * <p>Each module stores its data below {@code ${directory}/${groupId}/${artifactId}}. The directory
+ * defaults to {@code junit-platform/history} next to the local repository and can be changed via
+ * the {@code junit-platform.history.directory} property.
+ */
+class History {
+
+  static final String DIRECTORY_PROPERTY = "junit-platform.history.directory";
+
+  static History of(MavenSession session) {
+    String custom = session.getUserProperties().getProperty(DIRECTORY_PROPERTY);
+    if (custom == null) {
+      custom = session.getSystemProperties().getProperty(DIRECTORY_PROPERTY, "");
+    }
+    if (!custom.trim().isEmpty()) {
+      return new History(Paths.get(custom.trim()));
+    }
+    Path repository = Paths.get(session.getLocalRepository().getBasedir()).toAbsolutePath();
+    Path base = repository.getParent() == null ? repository : repository.getParent();
+    return new History(base.resolve("junit-platform").resolve("history"));
+  }
+
+  private final Path directory;
+
+  History(Path directory) {
+    this.directory = directory;
+  }
+
+  Path getDirectory() {
+    return directory;
+  }
+
+  Path module(MavenProject project) {
+    return directory.resolve(project.getGroupId()).resolve(project.getArtifactId());
+  }
+
+  /** Return the smoothed duration of the last test suite executions of the given project. */
+  OptionalLong loadSuiteDuration(MavenProject project) {
+    Properties properties = load(module(project).resolve("suite.properties"));
+    String duration = properties.getProperty("duration");
+    if (duration == null) {
+      return OptionalLong.empty();
+    }
+    try {
+      return OptionalLong.of(Long.parseLong(duration));
+    } catch (NumberFormatException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  /** Merge the measured duration into the smoothed duration of the given project. */
+  void storeSuiteDuration(MavenProject project, long millis) {
+    Path file = module(project).resolve("suite.properties");
+    Properties properties = load(file);
+    OptionalLong previous = loadSuiteDuration(project);
+    long smoothed = previous.isPresent() ? (previous.getAsLong() + millis) / 2 : millis;
+    long runs = Long.parseLong(properties.getProperty("runs", "0")) + 1;
+    properties.setProperty("duration", Long.toString(smoothed));
+    properties.setProperty("last", Long.toString(millis));
+    properties.setProperty("runs", Long.toString(runs));
+    store(file, properties);
+  }
+
+  static Properties load(Path file) {
+    Properties properties = new Properties();
+    if (Files.notExists(file)) {
+      return properties;
+    }
+    try (InputStream stream = Files.newInputStream(file)) {
+      properties.load(stream);
+    } catch (IOException e) {
+      // a corrupt or concurrently replaced history file is treated like a missing one
+      properties.clear();
+    }
+    return properties;
+  }
+
+  /** Write properties to a temporary sibling file and atomically move it into place. */
+  static void store(Path file, Properties properties) {
+    try {
+      Files.createDirectories(file.getParent());
+      Path temporary =
+          Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try (OutputStream stream = Files.newOutputStream(temporary)) {
+        properties.store(stream, null);
+      }
+      try {
+        Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file, REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Storing history file failed: " + file, e);
+    }
+  }
+}
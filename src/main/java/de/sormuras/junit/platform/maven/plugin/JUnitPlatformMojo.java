@@ -15,9 +15,11 @@
 package de.sormuras.junit.platform.maven.plugin;
 
 import static de.sormuras.junit.platform.isolator.Version.JUNIT_PLATFORM_VERSION;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 
 import de.sormuras.junit.platform.isolator.Configuration;
 import de.sormuras.junit.platform.isolator.ConfigurationBuilder;
@@ -29,23 +31,37 @@ import de.sormuras.junit.platform.isolator.TestMode;
 import de.sormuras.junit.platform.isolator.Version;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLStreamException;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.MavenExecutionException;
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Build;
@@ -77,6 +93,12 @@ import org.eclipse.aether.RepositorySystemSession;
 @org.codehaus.plexus.component.annotations.Component(role = AbstractMavenLifecycleParticipant.class)
 public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant implements Mojo {
 
+  /** Set once this plugin is loaded as an extension, which awaits background launches. */
+  private static volatile boolean loadedAsExtension = false;
+
+  /** Set once the agent preload hint was logged by any execution in this process. */
+  private static final AtomicBoolean AGENT_HINT_LOGGED = new AtomicBoolean();
+
   /** Skip execution of this plugin. */
   @Parameter(defaultValue = "false", property = "junit-platform.skip")
   private boolean skip = false;
@@ -101,6 +123,25 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
   @Parameter(defaultValue = "60")
   private long executionProgress = 60;
 
+  /**
+   * Launch tests in the background and return control to Maven immediately.
+   *
+   * <p>Outstanding launches are awaited at the end of the session when this plugin is used as an
+   * extension, or explicitly by the {@code await} goal. A failed launch fails the build then. If
+   * neither is the case, the execution fails instead of leaving launches behind unawaited.
+   */
+  @Parameter(defaultValue = "false", property = "junit-platform.async")
+  private boolean async = false;
+
+  /**
+   * Record the test run with Java Flight Recorder and summarize hot methods per test class.
+   *
+   * <p>The recording and its summary are written to the target directory. Requires Java 11 or
+   * later, both for running Maven and the tests.
+   */
+  @Parameter(defaultValue = "false", property = "junit-platform.profile")
+  private boolean profile = false;
+
   /** Execution mode. */
   @Parameter(defaultValue = "DIRECT")
   private Executor executor = Executor.DIRECT;
@@ -111,6 +152,21 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
   /** Tweak options to fine-tune test execution. */
   @Parameter private Tweaks tweaks = new Tweaks();
 
+  /** Performance lane launching tagged tests after the main suite in a pinned JVM. */
+  @Parameter private PerformanceOptions performanceLane = new PerformanceOptions();
+
+  /** Regression gate comparing test durations against a baseline. */
+  @Parameter private DurationGate durationGate = new DurationGate();
+
+  /** Cache of test reports keyed by a fingerprint of all launch inputs. */
+  @Parameter private ResultCacheOptions resultCache = new ResultCacheOptions();
+
+  /** Flaky test statistics and quarantine lane options. */
+  @Parameter private FlakyTests flakyTests = new FlakyTests();
+
+  /** Budget mode selecting the most valuable test classes that fit a wall-clock budget. */
+  @Parameter private TimeBudget timeBudget = new TimeBudget();
+
   /** Test discovery options. */
   @Parameter private Selectors selectors = new Selectors();
 
@@ -163,18 +219,48 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
    */
   @Parameter private Set<String> classNamePatterns;
 
+  /** Class name pattern applied by the launcher if no custom pattern is configured. */
+  static final String DEFAULT_CLASS_NAME_PATTERN = "^(Test.*|.+[.$]Test.*|.*Tests?)$";
+
   /**
-   * Select class.
+   * Ant-style patterns of test class files to include, like {@code **&#47;*Test.java}.
    *
-   * <p>Provide a test to launch (useful in interactive mode).
+   * <p>If include or exclude patterns are configured and no custom selector is, the test output
+   * directories are scanned before launching and each matching class is selected explicitly. Nested
+   * classes are executed along with their enclosing class. Patterns enclosed in {@code %regex[...]}
+   * are regular expressions matched against class file paths.
+   */
+  @Parameter private List<String> includes = emptyList();
+
+  /** Ant-style patterns of test class files to exclude, like {@code **&#47;*IT.java}. */
+  @Parameter private List<String> excludes = emptyList();
+
+  /** Test classes selected by scanning for include and exclude patterns. */
+  private Set<String> scannedClasses;
+
+  /**
+   * Select classes and methods.
+   *
+   * <p>Provide tests to launch (useful in interactive mode), like {@code -Dtest=FooTests,Bar*#baz}.
+   * Names are resolved against an index of the test output directories and test jars: simple and
+   * fully qualified names of classes, nested classes and {@code *} and {@code ?} wildcards are
+   * supported. Custom selectors and include and exclude patterns are ignored.
    *
    * <h3>Console Launcher equivalent</h3>
    *
-   * {@code --select-class= <String>} if class can be resolved in outputTestDirectory or {@code
-   * --include-classname=.*\\.<String>} if it can't.
+   * {@code --select-class <String>} and {@code --select-method <String>} for each resolved name.
    */
   @Parameter(property = "test") // property must stay short
-  private String test; // todo: enable to not use fqn but just simple name of classes
+  private String test;
+
+  /** Classes and methods selected by resolving the interactive test parameter. */
+  private Selectors testSelectors;
+
+  /** Configuration of the quarantine lane, {@code null} if no test is quarantined. */
+  private Configuration quarantineConfiguration;
+
+  /** Set if the reports of the last launch were restored from the result cache. */
+  private boolean restoredFromCache;
 
   /**
    * Tags or tag expressions to include only tests whose tags match.
@@ -205,6 +291,9 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
   /** Versions detected by scanning the artifacts of the current project. */
   private Map<String, String> projectVersions;
 
+  /** Path of the {@code module-info.test} file, if present. */
+  private String moduleInfoTest;
+
   @Override
   public void setLog(Log log) {
     this.log = log;
@@ -244,7 +333,7 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     getLog().error(formatMessage(format, args));
   }
 
-  private static String formatMessage(String pattern, Object... args) {
+  static String formatMessage(String pattern, Object... args) {
     // fast-path
     if (args.length == 0) {
       return pattern;
@@ -259,12 +348,16 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
 
   @Override
   public void afterProjectsRead(MavenSession session) {
-    String group = "de.sormuras.junit";
-    String artifact = "junit-platform-maven-plugin";
+    loadedAsExtension = true;
+    List<MavenProject> testedProjects = new ArrayList<>();
     for (MavenProject project : session.getProjects()) {
-      findPlugin(project, group, artifact)
-          .ifPresent(plugin -> injectThisPlugin(session, project, plugin));
+      Optional<Plugin> plugin = findThisPlugin(project);
+      if (plugin.isPresent()) {
+        injectThisPlugin(session, project, plugin.get());
+        testedProjects.add(project);
+      }
     }
+    new ReactorScheduler(this, session).apply(testedProjects);
   }
 
   private void injectThisPlugin(MavenSession session, MavenProject project, Plugin thisPlugin) {
@@ -292,9 +385,76 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     new SurefireMigrationSupport(this, session).apply(surefirePlugin, junitPlugin);
   }
 
-  private Optional<Plugin> findPlugin(MavenProject project, String group, String artifact) {
-    List<Plugin> plugins = project.getModel().getBuild().getPlugins();
-    return plugins.stream()
+  /** Phases of Maven's default lifecycle, in execution order. */
+  private static final List<String> DEFAULT_LIFECYCLE_PHASES =
+      Arrays.asList(
+          "validate",
+          "initialize",
+          "generate-sources",
+          "process-sources",
+          "generate-resources",
+          "process-resources",
+          "compile",
+          "process-classes",
+          "generate-test-sources",
+          "process-test-sources",
+          "generate-test-resources",
+          "process-test-resources",
+          "test-compile",
+          "process-test-classes",
+          "test",
+          "prepare-package",
+          "package",
+          "pre-integration-test",
+          "integration-test",
+          "post-integration-test",
+          "verify",
+          "install",
+          "deploy");
+
+  /**
+   * Return {@code true} if the await goal is invoked directly or bound to a phase this build
+   * reaches in the current project or in a project built after it.
+   */
+  static boolean isAwaitScheduled(
+      List<String> goals, List<MavenProject> projects, MavenProject current) {
+    int reached = -1;
+    for (String goal : goals) {
+      if (goal.endsWith(":await")) {
+        return true;
+      }
+      reached = Math.max(reached, DEFAULT_LIFECYCLE_PHASES.indexOf(goal));
+    }
+    int index = projects.indexOf(current);
+    for (MavenProject project : projects.subList(Math.max(index, 0), projects.size())) {
+      Optional<Plugin> plugin = findThisPlugin(project);
+      if (!plugin.isPresent()) {
+        continue;
+      }
+      for (PluginExecution execution : plugin.get().getExecutions()) {
+        if (!execution.getGoals().contains("await")) {
+          continue;
+        }
+        String phase = execution.getPhase() != null ? execution.getPhase() : "verify";
+        int position = DEFAULT_LIFECYCLE_PHASES.indexOf(phase);
+        if (position >= 0 && position <= reached) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  static Optional<Plugin> findThisPlugin(MavenProject project) {
+    return findPlugin(project, "de.sormuras.junit", "junit-platform-maven-plugin");
+  }
+
+  private static Optional<Plugin> findPlugin(MavenProject project, String group, String artifact) {
+    Build build = project.getModel().getBuild();
+    if (build == null) {
+      return Optional.empty();
+    }
+    return build.getPlugins().stream()
         .filter(plugin -> group.equals(plugin.getGroupId()))
         .filter(plugin -> artifact.equals(plugin.getArtifactId()))
         .reduce(
@@ -307,14 +467,145 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
   public void execute() throws MojoExecutionException, MojoFailureException {
     debug("Executing JUnitPlatformMojo...");
 
+    if (!prepareExecution()) {
+      return;
+    }
+    info("Launching JUnit Platform {0}...", version(JUNIT_PLATFORM_VERSION));
+    if (executor == Executor.DIRECT) {
+      if (!javaOptions.engineForks.isEmpty()) {
+        warn(
+            "Engine forks {0} ignored: executor DIRECT runs all engines in this JVM",
+            javaOptions.engineForks);
+      }
+      if (javaOptions.forkCount > 1) {
+        warn(
+            "Fork count {0} ignored: executor DIRECT runs all tests in this JVM",
+            javaOptions.forkCount);
+      }
+    }
+    Path targetPath = targetDirectory.toPath();
+    MavenDriver driver = new MavenDriver(this);
+
+    if (test != null) {
+      testSelectors = resolveTest(test);
+      if (testSelectors.isEmpty()) {
+        if (tweaks.failIfNoTests) {
+          throw new MojoFailureException("No tests found matching: " + test);
+        }
+        info("No test class matches: {0}", test);
+        return;
+      }
+    }
+
+    ClassFilePatterns patterns = new ClassFilePatterns(includes, excludes);
+    if (selectors.isEmpty() && test == null && !patterns.isEmpty()) {
+      if (projectModules.getMode() != TestMode.CLASSIC) {
+        warn("Include and exclude patterns are ignored in modular test mode");
+      } else {
+        Set<Path> roots = new LinkedHashSet<>();
+        getTestOutputDirectories().forEach(directory -> roots.add(Paths.get(directory)));
+        scannedClasses = scanTestClasses(patterns, roots);
+        if (scannedClasses.isEmpty()) {
+          if (tweaks.failIfNoTests) {
+            throw new MojoFailureException("No tests found.");
+          }
+          info("No test class matches the include and exclude patterns.");
+          return;
+        }
+      }
+    }
+
+    if (timeBudget.seconds > 0 && selectors.isEmpty() && test == null) {
+      if (projectModules.getMode() != TestMode.CLASSIC) {
+        warn("Time budget is ignored in modular test mode");
+      } else {
+        scannedClasses = selectWithinBudget(targetPath);
+        if (scannedClasses.isEmpty()) {
+          if (tweaks.failIfNoTests) {
+            throw new MojoFailureException("No tests found.");
+          }
+          info("No test class fits the time budget.");
+          return;
+        }
+      }
+    }
+
+    if (flakyTests.enabled
+        && flakyTests.quarantine
+        && !versionIsEqualOrHigher(JUNIT_PLATFORM_VERSION, "1.7.0")) {
+      warn("Quarantine lane ignored: post-discovery filters require JUnit Platform 1.7");
+    }
+    Set<String> quarantined = isQuarantineEnabled() ? findQuarantinedTests(targetPath) : emptySet();
+    Map<String, Set<String>> paths = buildPathMap(driver, targetPath);
+    Set<String> filterTags =
+        performanceLane.isEnabled()
+            ? PerformanceExecutor.excludeTags(tags, performanceLane.tags)
+            : tags;
+    Configuration configuration =
+        createConfiguration(targetPath, paths, filterTags, moduleInfoTest);
+    if (getLog().isDebugEnabled()) {
+      debug("Isolator Path Layering");
+      configuration.basic().getPaths().forEach(this::debug);
+    }
+    Configuration laneConfiguration =
+        performanceLane.isEnabled()
+            ? createConfiguration(
+                targetPath.resolve(PerformanceExecutor.DIRECTORY_NAME),
+                paths,
+                performanceLane.tags,
+                moduleInfoTest)
+            : null;
+    quarantineConfiguration =
+        quarantined.isEmpty()
+            ? null
+            : createConfiguration(
+                targetPath.resolve(QuarantineExecutor.DIRECTORY_NAME),
+                paths,
+                filterTags,
+                moduleInfoTest);
+
+    if (async) {
+      if (!loadedAsExtension
+          && !isAwaitScheduled(mavenSession.getGoals(), mavenSession.getProjects(), mavenProject)) {
+        // background launches run on daemon threads, they'd die silently when Maven exits
+        throw new MojoExecutionException(
+            "Asynchronous launch requires this plugin to be used as an extension"
+                + " or the await goal to be invoked or bound to a phase this build reaches");
+      }
+      String id = mavenProject.getId();
+      if (execution != null) {
+        id += " (" + execution.getExecutionId() + ")";
+      }
+      AsyncExecutions.submit(id, () -> launchAll(driver, configuration, laneConfiguration));
+      info("Tests of {0} are launched in the background.", id);
+      return;
+    }
+
+    try {
+      checkResult(launchAll(driver, configuration, laneConfiguration));
+    } catch (MojoExecutionException | MojoFailureException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new AssertionError("Unexpected exception caught!", e);
+    }
+  }
+
+  /**
+   * Configure this mojo, inspect the project and create the target directory.
+   *
+   * <p>Shared by all goals launching a JVM on the test paths of the project.
+   *
+   * @return {@code false} if the execution is skipped
+   */
+  boolean prepareExecution() throws MojoExecutionException {
     if (skip) {
       info("JUnit Platform Plugin execution skipped.");
-      return;
+      return false;
     }
 
     if (mavenProject.getPackaging().equals("pom")) {
       info("JUnit Platform Plugin execution skipped: project uses 'pom' packaging");
-      return;
+      return false;
     }
 
     MojoHelper mojoHelper = new MojoHelper(this, mavenSession, execution);
@@ -326,10 +617,9 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     this.projectModules = new Modules(mainPath, testPath);
     this.projectVersions = Version.buildMap(this::artifactVersionOrNull);
 
-    String moduleInfoTest =
+    this.moduleInfoTest =
         findModuleInfoTest(mavenBuild.getTestSourceDirectory(), testPath.toString());
 
-    info("Launching JUnit Platform {0}...", version(JUNIT_PLATFORM_VERSION));
     if (getLog().isDebugEnabled()) {
       debug("Path");
       debug("  java.home = {0}", System.getProperty("java.home"));
@@ -362,9 +652,205 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
       throw new MojoExecutionException("Can't create target path: " + targetPath, e);
     }
 
-    MavenDriver driver = new MavenDriver(this);
+    // No custom selector configured?
+    if (selectors.isEmpty()) {
+      debug("No custom selector was configured, providing default one...");
+      if (getTestOutputDirectories().stream().map(Paths::get).allMatch(Files::notExists)) {
+        if (tweaks.skipOnMissingTestOutputDirectory) {
+          info("JUnit Platform Plugin execution skipped: test output directory does not exist.");
+          return false;
+        }
+        warn("Test output directory does not exist... this may lead to failures");
+      }
+    }
+    return true;
+  }
+
+  /** Build the path map or reuse the launch plan stored by a previous build with equal inputs. */
+  Map<String, Set<String>> buildPathMap(MavenDriver driver, Path targetPath)
+      throws MojoExecutionException {
+    if (!tweaks.cacheLaunchPlan
+        || tweaks.detectTestEngines
+        || projectModules.getMode() == TestMode.MODULAR_PATCHED_TEST_RUNTIME) {
+      return driver.buildPathMap(targetPath);
+    }
+    Path file = targetPath.resolve(LaunchPlan.FILE_NAME);
+    String key = LaunchPlan.hash(createLaunchPlanInputs(targetPath));
+    Optional<Map<String, Set<String>>> plan = LaunchPlan.load(file, key);
+    if (plan.isPresent()) {
+      info("Reusing launch plan {0}", file);
+      return plan.get();
+    }
+    Map<String, Set<String>> paths = driver.buildPathMap(targetPath);
+    LaunchPlan.store(file, key, paths);
+    debug("Launch plan stored in {0}", file);
+    return paths;
+  }
+
+  /** Collect everything the path map and the launcher extensions are derived from. */
+  private List<String> createLaunchPlanInputs(Path targetPath) throws MojoExecutionException {
+    List<String> inputs = new ArrayList<>();
+    try {
+      File plugin =
+          new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+      inputs.add(plugin + "@" + plugin.lastModified());
+    } catch (URISyntaxException | RuntimeException e) {
+      inputs.add("plugin@" + System.nanoTime()); // unknown plugin location: never reuse a plan
+    }
+    inputs.add(mavenProject.getId());
+    inputs.add(targetPath.toString());
+    inputs.add(executor + "," + isolation + "," + projectModules.getMode());
+    inputs.add(LaunchPlan.describe(tweaks));
+    inputs.add(LaunchPlan.describe(javaOptions));
+    inputs.add(LaunchPlan.describe(performanceLane));
+    inputs.add(LaunchPlan.describe(flakyTests));
+    // the launcher extensions jar isn't rewritten when a plan is reused
+    inputs.add(createLauncherExtensions(targetPath).describe());
+    Version.forEach(v -> inputs.add(v.getKey() + "=" + version(v)));
+    inputs.addAll(getInjectedTestDependencies());
+    inputs.addAll(getTestOutputDirectories());
+    try {
+      inputs.addAll(mavenProject.getCompileClasspathElements());
+      inputs.addAll(mavenProject.getRuntimeClasspathElements());
+      inputs.addAll(mavenProject.getTestClasspathElements());
+    } catch (DependencyResolutionRequiredException e) {
+      throw new MojoExecutionException("Resolution required!", e);
+    }
+    mavenProject.getArtifacts().forEach(artifact -> inputs.add(artifact.getId()));
+    return inputs;
+  }
+
+  /** Resolve names of the interactive test parameter to class and method selectors. */
+  private Selectors resolveTest(String test) throws MojoExecutionException {
+    long start = System.currentTimeMillis();
+    Set<Path> directories = new LinkedHashSet<>();
+    getTestOutputDirectories().forEach(directory -> directories.add(Paths.get(directory)));
+    Set<Path> jars = new LinkedHashSet<>();
+    for (Artifact artifact : mavenProject.getArtifacts()) {
+      boolean tests = "tests".equals(artifact.getClassifier());
+      if ((tests || "test-jar".equals(artifact.getType())) && artifact.getFile() != null) {
+        jars.add(artifact.getFile().toPath());
+      }
+    }
+    try {
+      TestIndex index = TestIndex.of(directories, jars);
+      Selectors selected = index.select(test, name -> warn("No test class matches: {0}", name));
+      long millis = System.currentTimeMillis() - start;
+      info(
+          "Selected {0} class(es) and {1} method(s) matching {2} in {3} ms",
+          selected.classes.size(), selected.methods.size(), test, millis);
+      return selected;
+    } catch (IOException e) {
+      throw new MojoExecutionException("Indexing test classes failed", e);
+    }
+  }
+
+  private Set<String> scanTestClasses(ClassFilePatterns patterns, Set<Path> roots)
+      throws MojoExecutionException {
+    long start = System.currentTimeMillis();
+    try {
+      Set<String> classes = patterns.scan(roots);
+      long millis = System.currentTimeMillis() - start;
+      info(
+          "Selected {0} test class(es) matching includes and excludes in {1} ms",
+          classes.size(), millis);
+      return classes;
+    } catch (IOException e) {
+      throw new MojoExecutionException("Scanning test output directories failed", e);
+    }
+  }
+
+  boolean isQuarantineEnabled() {
+    return flakyTests.enabled
+        && flakyTests.quarantine
+        && versionIsEqualOrHigher(JUNIT_PLATFORM_VERSION, "1.7.0");
+  }
+
+  /** Write the tests to quarantine, read from the recorded outcomes, to the target directory. */
+  private Set<String> findQuarantinedTests(Path targetPath) throws MojoExecutionException {
+    TestOutcomes outcomes = TestOutcomes.load(getTestOutcomesFile());
+    Set<String> quarantined =
+        outcomes.findFlaky(flakyTests.threshold, flakyTests.minimumRuns).keySet();
+    Path file = targetPath.resolve(QuarantineExecutor.FILE_NAME);
+    try {
+      TestOutcomes.writeKeys(file, quarantined);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Writing quarantined tests failed: " + file, e);
+    }
+    if (!quarantined.isEmpty()) {
+      info("Quarantined {0} flaky test(s), see {1}", quarantined.size(), file);
+    }
+    return quarantined;
+  }
+
+  private Path getTestOutcomesFile() {
+    return History.of(mavenSession).module(mavenProject).resolve(TestOutcomes.FILE_NAME);
+  }
+
+  /** Select test classes with the highest expected failure detection per second. */
+  private Set<String> selectWithinBudget(Path targetPath) throws MojoExecutionException {
+    ClassHistory history = ClassHistory.load(getClassHistoryFile());
+    List<Path> testRoots = new ArrayList<>();
+    getTestOutputDirectories().forEach(directory -> testRoots.add(Paths.get(directory)));
+    List<Path> mainRoots = singletonList(Paths.get(mavenBuild.getOutputDirectory()));
+    try {
+      Set<String> candidates = new LinkedHashSet<>();
+      if (scannedClasses != null) {
+        scannedClasses.forEach(name -> candidates.add(BudgetSelection.topLevel(name)));
+      } else {
+        Set<String> patterns =
+            classNamePatterns != null ? classNamePatterns : singleton(DEFAULT_CLASS_NAME_PATTERN);
+        List<Pattern> compiled = new ArrayList<>();
+        patterns.forEach(pattern -> compiled.add(Pattern.compile(pattern)));
+        for (Path root : testRoots) {
+          for (String name : ClassFiles.listClassNames(root)) {
+            if (!name.contains("$") && compiled.stream().anyMatch(p -> p.matcher(name).matches())) {
+              candidates.add(name);
+            }
+          }
+        }
+      }
+      Set<String> related =
+          BudgetSelection.findRelated(testRoots, mainRoots, history.getTimestamp());
+      BudgetSelection selection =
+          BudgetSelection.select(
+              candidates,
+              related,
+              history.getEntries(),
+              timeBudget.seconds * 1000,
+              timeBudget.unknownDuration);
+      info(
+          "Selected {0} of {1} test class(es) for a budget of {2} s, {3} related to changes",
+          selection.getSelected().size(),
+          candidates.size(),
+          timeBudget.seconds,
+          selection.getRelated());
+      debug("Expected duration of selected test classes: {0} ms", selection.getExpected());
+      Path deferred = targetPath.resolve(BudgetSelection.FILE_NAME);
+      selection.writeDeferred(deferred);
+      List<String> names = selection.getDeferred();
+      if (!names.isEmpty()) {
+        warn(
+            "Deferred {0} test class(es) expected to take {1} ms, see {2}",
+            names.size(), selection.getDeferredDuration(), deferred);
+        names
+            .subList(0, Math.min(timeBudget.reportSize, names.size()))
+            .forEach(n -> warn("  {0}", n));
+      }
+      return new LinkedHashSet<>(selection.getSelected());
+    } catch (IOException e) {
+      throw new MojoExecutionException("Selecting test classes within the time budget failed", e);
+    }
+  }
+
+  private Path getClassHistoryFile() {
+    return History.of(mavenSession).module(mavenProject).resolve(ClassHistory.FILE_NAME);
+  }
 
-    // Basic configuration...
+  /** Create the configuration of a single launch. */
+  Configuration createConfiguration(
+      Path targetPath, Map<String, Set<String>> paths, Set<String> filterTags, String moduleInfo) {
+    Selectors selectors = testSelectors != null ? testSelectors : this.selectors;
     ConfigurationBuilder configurationBuilder =
         new ConfigurationBuilder()
             .setDryRun(isDryRun())
@@ -372,11 +858,11 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
             .setDefaultAssertionStatus(tweaks.defaultAssertionStatus)
             .setPlatformClassLoader(tweaks.platformClassLoader)
             .setTargetDirectory(targetPath.toString())
-            .setTargetMainPath(mainPath.toString())
-            .setTargetTestPath(testPath.toString())
+            .setTargetMainPath(Paths.get(mavenBuild.getOutputDirectory()).toString())
+            .setTargetTestPath(Paths.get(mavenBuild.getTestOutputDirectory()).toString())
             .setWorkerIsolationRequired(tweaks.workerIsolationRequired)
-            .setPaths(driver.buildPathMap(targetPath))
-            .setModuleInfoTestPath(moduleInfoTest)
+            .setPaths(paths)
+            .setModuleInfoTestPath(moduleInfo)
             .discovery()
             // selectors
             .setSelectedDirectories(selectors.directories)
@@ -389,53 +875,201 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
             .setSelectedUris(selectors.uris)
             // filters
             .setFilterClassNamePatterns(classNamePatterns)
-            .setFilterTags(tags)
+            .setFilterTags(filterTags)
             // configuration parameters
             .setParameters(parameters)
             .end();
 
-    // No custom selector configured?
+    if (testSelectors != null) {
+      // classes are selected explicitly, don't filter them by any class name pattern
+      configurationBuilder.discovery().setFilterClassNamePatterns(singleton(".*"));
+    }
+
+    // No custom selector configured? Select the test output directories or the test module.
     if (selectors.isEmpty()) {
-      debug("No custom selector was configured, providing default one...");
-      if (Files.notExists(testPath)) {
-        if (tweaks.skipOnMissingTestOutputDirectory) {
-          info("JUnit Platform Plugin execution skipped: test output directory does not exist.");
-          return;
-        }
-        warn("Test output directory does not exist... this may lead to failures");
-      }
       TestMode mode = projectModules.getMode();
-      if (mode == TestMode.CLASSIC) {
-        Set<String> roots = singleton(mavenBuild.getTestOutputDirectory());
-        configurationBuilder.discovery().setSelectedClasspathRoots(roots);
+      if (scannedClasses != null) {
+        configurationBuilder.discovery().setSelectedClasses(scannedClasses);
+        if (classNamePatterns == null) {
+          // classes are selected explicitly, don't filter them by the default class name pattern
+          configurationBuilder.discovery().setFilterClassNamePatterns(singleton(".*"));
+        }
+      } else if (mode == TestMode.CLASSIC) {
+        configurationBuilder.discovery().setSelectedClasspathRoots(getTestOutputDirectories());
       } else {
         String module =
             mode == TestMode.MODULAR_PATCHED_TEST_RUNTIME
                 ? projectModules.getMainModuleName().orElseThrow(AssertionError::new)
                 : projectModules.getTestModuleName().orElseThrow(AssertionError::new);
-        Set<String> modules = singleton(module);
-        configurationBuilder.discovery().setSelectedModules(modules);
+        configurationBuilder.discovery().setSelectedModules(singleton(module));
       }
     }
+    return configurationBuilder.build();
+  }
 
-    Configuration configuration = configurationBuilder.build();
-    if (getLog().isDebugEnabled()) {
-      debug("Isolator Path Layering");
-      configuration.basic().getPaths().forEach(this::debug);
+  @Override
+  public void afterSessionEnd(MavenSession session) throws MavenExecutionException {
+    if (AsyncExecutions.isEmpty()) {
+      return;
+    }
+    try {
+      List<String> failures = AsyncExecutions.awaitAll(getLog());
+      if (!failures.isEmpty()) {
+        File pom = session.getTopLevelProject().getFile();
+        throw new MavenExecutionException("Background test launch failed: " + failures, pom);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MavenExecutionException("Awaiting background test launches interrupted", e);
+    }
+  }
+
+  static void checkResult(int result) throws MojoFailureException {
+    if (result == 2) {
+      throw new MojoFailureException("No tests found.");
+    }
+    if (result != 0) {
+      throw new MojoFailureException("RED ALERT!");
+    }
+  }
+
+  /** Launch the main suite and, if it succeeded, the performance lane, then merge reports. */
+  int launchAll(Driver driver, Configuration configuration, Configuration lane) throws Exception {
+    long start = System.currentTimeMillis();
+    restoredFromCache = false;
+    ExecutorService quarantine = null;
+    Future<Integer> quarantineResult = null;
+    if (quarantineConfiguration != null && !isDryRun()) {
+      Configuration quarantineLane = quarantineConfiguration;
+      info("Launching quarantine lane in parallel...");
+      quarantine = Executors.newSingleThreadExecutor();
+      quarantineResult =
+          quarantine.submit(() -> new QuarantineExecutor(this).evaluate(quarantineLane));
     }
+    int result;
+    try {
+      result = launch(driver, configuration);
+      if (result == 0 && lane != null) {
+        result = new PerformanceExecutor(this).evaluate(lane);
+      }
+      if (quarantineResult != null) {
+        int exitValue = quarantineResult.get();
+        Path reports = Paths.get(quarantineConfiguration.basic().getTargetDirectory());
+        if (exitValue == 0) {
+          info("Quarantine lane succeeded, reports written to {0}", reports);
+        } else {
+          warn(
+              "Quarantine lane exited with {0}, ignored, reports written to {1}",
+              exitValue, reports);
+        }
+      }
+    } finally {
+      if (quarantine != null) {
+        quarantine.shutdownNow();
+      }
+    }
+    recordTestOutcomes(start);
+    if (tweaks.mergeReports && !isDryRun()) {
+      new ReportMerger(this).merge(targetDirectory.toPath(), start);
+    }
+    return result;
+  }
 
+  /** Launch the test run described by the configuration and return its exit value. */
+  int launch(Driver driver, Configuration configuration) throws Exception {
+    long start = System.currentTimeMillis();
+    Path target = Paths.get(configuration.basic().getTargetDirectory());
+    ResultCache cache = resultCache.isEnabled() && !isDryRun() ? new ResultCache(this) : null;
+    String key = null;
+    if (cache != null) {
+      try {
+        key = cache.key(configuration);
+        debug("Result cache key: {0}", key);
+        if (cache.restore(key, target)) {
+          restoredFromCache = true;
+          return 0;
+        }
+      } catch (IOException | UncheckedIOException e) {
+        warn("Reading result cache failed: {0}", e.getMessage());
+      }
+    }
+    int result = execute(driver, configuration);
+    if (key != null && result == 0) {
+      try {
+        cache.store(key, target, start);
+      } catch (IOException | UncheckedIOException e) {
+        warn("Storing test reports in result cache failed: {0}", e.getMessage());
+      }
+    }
+    recordSuiteDuration(result, System.currentTimeMillis() - start);
+    recordClassHistory(result, start);
+    if (tweaks.recordResourceUsage && !isDryRun()) {
+      new ResourceUsageReport(this)
+          .summarize(targetDirectory.toPath(), start, tweaks.resourceUsageSummarySize);
+    }
+    if (tweaks.captureOutput && !isDryRun()) {
+      new CapturedOutput(this).replay(targetDirectory.toPath(), start);
+    }
+    if (profile && !isDryRun()) {
+      summarizeFlightRecordings(start);
+    }
+    if (durationGate.enabled && !isDryRun() && result >= 0) {
+      new DurationRegressions(this).check(result, start);
+    }
+    return result;
+  }
+
+  private void recordSuiteDuration(int result, long millis) {
+    if (isDryRun() || result < 0) {
+      return;
+    }
     try {
-      int result = execute(driver, configuration);
-      if (result == 2) {
-        throw new MojoFailureException("No tests found.");
+      History.of(mavenSession).storeSuiteDuration(mavenProject, millis);
+    } catch (UncheckedIOException e) {
+      warn("Recording test suite duration failed: {0}", e.getMessage());
+    }
+  }
+
+  private void recordTestOutcomes(long start) {
+    if (!flakyTests.enabled || isDryRun()) {
+      return;
+    }
+    Path file = getTestOutcomesFile();
+    try {
+      TestOutcomes outcomes = TestOutcomes.load(file);
+      Path reports = targetDirectory.toPath();
+      if (restoredFromCache) {
+        // restored reports are no new outcomes, only those of the quarantine lane are
+        reports = reports.resolve(QuarantineExecutor.DIRECTORY_NAME);
       }
-      if (result != 0) {
-        throw new MojoFailureException("RED ALERT!");
+      outcomes.record(reports, start, flakyTests.window);
+      outcomes.store(file);
+      Map<String, Double> flaky = outcomes.findFlaky(flakyTests.threshold, flakyTests.minimumRuns);
+      if (flaky.isEmpty()) {
+        return;
       }
-    } catch (MojoExecutionException | MojoFailureException e) {
-      throw e;
-    } catch (Exception e) {
-      throw new AssertionError("Unexpected exception caught!", e);
+      Path report = targetDirectory.toPath().resolve(TestOutcomes.FLAKY_FILE_NAME);
+      outcomes.writeFlaky(report, flaky);
+      warn("{0} flaky test(s) detected, see {1}", flaky.size(), report);
+      flaky.keySet().stream()
+          .limit(flakyTests.reportSize)
+          .forEach(name -> warn("  {0} {1}", outcomes.getOutcomes().get(name), name));
+    } catch (IOException | XMLStreamException | UncheckedIOException e) {
+      warn("Recording test outcomes failed: {0}", e.getMessage());
+    }
+  }
+
+  private void recordClassHistory(int result, long start) {
+    if (isDryRun() || result < 0) {
+      return;
+    }
+    Path file = getClassHistoryFile();
+    try {
+      ClassHistory history = ClassHistory.load(file);
+      history.record(targetDirectory.toPath(), start);
+      history.store(file);
+    } catch (IOException | XMLStreamException | UncheckedIOException e) {
+      warn("Recording test class history failed: {0}", e.getMessage());
     }
   }
 
@@ -449,11 +1083,69 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     throw new MojoExecutionException("Unsupported executor: " + executor);
   }
 
+  private void summarizeFlightRecordings(long start) throws IOException {
+    Set<String> testClassNames = new HashSet<>();
+    for (String directory : getTestOutputDirectories()) {
+      testClassNames.addAll(ClassFiles.listClassNames(Paths.get(directory)));
+    }
+    Path target = targetDirectory.toPath();
+    try (Stream<Path> paths = Files.walk(target)) {
+      for (Path recording :
+          paths
+              .filter(path -> path.getFileName().toString().equals(FlightRecording.FILE_NAME))
+              .sorted()
+              .collect(Collectors.toList())) {
+        if (!TestReports.isCurrent(target, recording, start, TestReports.LANE_DIRECTORIES)) {
+          continue;
+        }
+        new FlightRecordingSummary(this, testClassNames)
+            .summarize(recording, tweaks.profileSummarySize);
+      }
+    }
+  }
+
+  /**
+   * Hint at preloading the agent used by Mockito's inline mock maker into the Maven process.
+   *
+   * <p>An agent can't be preloaded into a running JVM: it is attached dynamically once per process.
+   * The hint is logged once per process, too.
+   */
+  private void hintAgentPreload(Configuration configuration) {
+    if (!javaOptions.preloadByteBuddyAgent || AGENT_HINT_LOGGED.get()) {
+      return;
+    }
+    Optional<Path> agent = JavaExecutor.findAgent(configuration.basic().getPaths());
+    List<String> arguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+    if (!agent.isPresent() || JavaExecutor.containsAgent(arguments)) {
+      return;
+    }
+    if (AGENT_HINT_LOGGED.compareAndSet(false, true)) {
+      info("Mockito's agent is attached dynamically, to preload it add the following line to");
+      info("  .mvn/jvm.config or MAVEN_OPTS: -javaagent:{0}", agent.get());
+    }
+  }
+
   private int executeDirect(Driver driver, Configuration configuration) throws Exception {
+    hintAgentPreload(configuration);
+    FlightRecording recording = profile && !isDryRun() ? startFlightRecording() : null;
     ExecutorService executor = Executors.newSingleThreadExecutor();
+    Path targetPath = Paths.get(configuration.basic().getTargetDirectory());
+    Files.deleteIfExists(targetPath.resolve(Progress.FILE_NAME));
     Future<Integer> future = executor.submit(() -> new Isolator(driver).evaluate(configuration));
     try {
-      return future.get(timeout, TimeUnit.SECONDS);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+      while (true) {
+        long remaining = deadline - System.nanoTime();
+        long progress = TimeUnit.SECONDS.toNanos(executionProgress);
+        try {
+          return future.get(Math.max(0, Math.min(remaining, progress)), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+          if (System.nanoTime() - deadline >= 0) {
+            throw e;
+          }
+          logProgress(targetPath);
+        }
+      }
     } catch (TimeoutException e) {
       warn("Global timeout of {0} second(s) reached.", timeout);
       throw new MojoFailureException("Global timeout reached.", e);
@@ -461,6 +1153,26 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
       throw new MojoExecutionException("Execution failed!", e);
     } finally {
       executor.shutdownNow();
+      if (recording != null) {
+        stopFlightRecording(recording);
+      }
+    }
+  }
+
+  private FlightRecording startFlightRecording() {
+    try {
+      return FlightRecording.start(FlightRecording.writeSettings(targetDirectory.toPath()));
+    } catch (IOException | ReflectiveOperationException | LinkageError e) {
+      warn("Starting flight recording failed, Java 11 or later is required: {0}", e);
+      return null;
+    }
+  }
+
+  private void stopFlightRecording(FlightRecording recording) {
+    try {
+      recording.stop(targetDirectory.toPath().resolve(FlightRecording.FILE_NAME));
+    } catch (ReflectiveOperationException e) {
+      warn("Stopping flight recording failed: {0}", e);
     }
   }
 
@@ -469,6 +1181,77 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     return executor.evaluate(configuration);
   }
 
+  /**
+   * Log the progress of the test run writing its reports to the given directory.
+   *
+   * @return {@code true} if a progress file was found and logged
+   */
+  boolean logProgress(Path targetPath) {
+    Optional<Progress> progress = Progress.read(targetPath.resolve(Progress.FILE_NAME));
+    if (!progress.isPresent()) {
+      return false;
+    }
+    OptionalLong expected = OptionalLong.empty();
+    if (mavenSession != null) {
+      expected = History.of(mavenSession).loadSuiteDuration(mavenProject);
+    }
+    progress.get().format(System.currentTimeMillis(), expected).forEach(this::info);
+    return true;
+  }
+
+  /** Configure the listeners to register with the launcher of the test run. */
+  LauncherExtensions createLauncherExtensions(Path targetPath) {
+    LauncherExtensions extensions = new LauncherExtensions();
+    if (tweaks.reportProgress) {
+      Path file = targetPath.resolve(Progress.FILE_NAME);
+      extensions.addListener("de.sormuras.junit.platform.maven.plugin.ProgressListener");
+      extensions.setProperty(ProgressListener.FILE_KEY, file.toString());
+    }
+    if (tweaks.captureOutput) {
+      Path failed = targetPath.resolve(CapturedOutput.FAILED_FILE_NAME);
+      extensions.addListener("de.sormuras.junit.platform.maven.plugin.CapturedOutputListener");
+      extensions.addClass("de.sormuras.junit.platform.maven.plugin.CapturingOutputStream");
+      extensions.setProperty(CapturedOutputListener.FAILED_FILE_KEY, failed.toString());
+      int limit = tweaks.capturedOutputBufferSize;
+      extensions.setProperty(CapturedOutputListener.LIMIT_KEY, Integer.toString(limit));
+      if (tweaks.archivePassedOutput) {
+        Path passed = targetPath.resolve(CapturedOutput.PASSED_FILE_NAME);
+        extensions.setProperty(CapturedOutputListener.PASSED_FILE_KEY, passed.toString());
+      }
+    }
+    if (tweaks.recordResourceUsage) {
+      Path report = targetPath.resolve(ResourceUsageReport.FILE_NAME);
+      extensions.addListener("de.sormuras.junit.platform.maven.plugin.ResourceUsageListener");
+      extensions.setProperty(ResourceUsageListener.FILE_KEY, report.toString());
+    }
+    if (profile) {
+      extensions.addListener("de.sormuras.junit.platform.maven.plugin.ProfilingListener");
+    }
+    if (performanceLane.isEnabled() && performanceLane.warmupRuns > 0) {
+      extensions.addClass(PerformanceLauncher.class.getName());
+    }
+    if (isQuarantineEnabled()) {
+      Path file = targetPath.resolve(QuarantineExecutor.FILE_NAME);
+      extensions.addPostDiscoveryFilter("de.sormuras.junit.platform.maven.plugin.QuarantineFilter");
+      extensions.setProperty(QuarantineFilter.FILE_KEY, file.toString());
+    }
+    if (executor == Executor.JAVA && javaOptions.forkCount > 1) {
+      extensions.addPostDiscoveryFilter(
+          "de.sormuras.junit.platform.maven.plugin.ForkPartitionFilter");
+    }
+    return extensions;
+  }
+
+  /** Return coordinates of additional artifacts to resolve into the test layer. */
+  List<String> getInjectedTestDependencies() {
+    return emptyList();
+  }
+
+  /** Return the directories containing compiled test classes. */
+  Set<String> getTestOutputDirectories() {
+    return singleton(mavenBuild.getTestOutputDirectory());
+  }
+
   String getTest() {
     return test;
   }
@@ -481,10 +1264,30 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     return javaOptions;
   }
 
+  PerformanceOptions getPerformanceOptions() {
+    return performanceLane;
+  }
+
+  ResultCacheOptions getResultCacheOptions() {
+    return resultCache;
+  }
+
+  FlakyTests getFlakyTests() {
+    return flakyTests;
+  }
+
+  DurationGate getDurationGate() {
+    return durationGate;
+  }
+
   Tweaks getTweaks() {
     return tweaks;
   }
 
+  String getModuleInfoTest() {
+    return moduleInfoTest;
+  }
+
   Modules getProjectModules() {
     return projectModules;
   }
@@ -493,6 +1296,11 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     return mavenProject;
   }
 
+  void setMavenProject(MavenProject project) {
+    this.mavenProject = project;
+    this.mavenBuild = project.getBuild();
+  }
+
   MavenSession getMavenSession() {
     return mavenSession;
   }
@@ -509,6 +1317,10 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     return mavenResolver;
   }
 
+  File getTargetDirectory() {
+    return targetDirectory;
+  }
+
   long getTimeout() {
     return timeout;
   }
@@ -521,10 +1333,18 @@ public class JUnitPlatformMojo extends AbstractMavenLifecycleParticipant impleme
     return executionProgress;
   }
 
+  boolean isAsync() {
+    return async;
+  }
+
   boolean isDryRun() {
     return dryRun;
   }
 
+  boolean isProfile() {
+    return profile;
+  }
+
   Isolation getIsolation() {
     return isolation;
   }
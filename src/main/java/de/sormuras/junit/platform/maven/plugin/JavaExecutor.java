@@ -20,21 +20,38 @@ import de.sormuras.junit.platform.isolator.TestMode;
 import de.sormuras.junit.platform.isolator.Version;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /** Forks an external Java process to start the JUnit Platform Console Launcher. */
 class JavaExecutor {
 
+  static final String ARGUMENT_FILE_NAME = "console-launcher.args";
+
+  /** Name of the fork running all test engines not listed in the engine forks. */
+  static final String REMAINING_ENGINES_FORK = "other-engines";
+
   private final JUnitPlatformMojo mojo;
   private final JavaOptions options;
   private final Modules modules;
@@ -47,22 +64,171 @@ class JavaExecutor {
 
   int evaluate(Configuration configuration) {
     Path target = Paths.get(configuration.basic().getTargetDirectory());
-    Path cmdPath = target.resolve("console-launcher.cmd.log");
-    Path errorPath = target.resolve("console-launcher.err.log");
-    Path outputPath = target.resolve("console-launcher.out.log");
+    Map<String, List<List<String>>> forks = createForks();
+    if (forks.isEmpty()) {
+      return evaluate(configuration, target, Collections.emptyList(), Collections.emptyList());
+    }
+    mojo.info("Forking {0} concurrent JVM(s): {1}", forks.size(), forks.keySet());
+    ExecutorService service = Executors.newFixedThreadPool(forks.size());
+    try {
+      Map<String, Future<Integer>> futures = new LinkedHashMap<>();
+      for (Map.Entry<String, List<List<String>>> fork : forks.entrySet()) {
+        Path path = target.resolve(fork.getKey());
+        List<String> javaOptions = fork.getValue().get(0);
+        List<String> filter = fork.getValue().get(1);
+        futures.put(
+            fork.getKey(),
+            service.submit(() -> evaluate(configuration, path, javaOptions, filter)));
+      }
+      List<Integer> exitValues = new ArrayList<>();
+      for (Map.Entry<String, Future<Integer>> future : futures.entrySet()) {
+        int exitValue = future.getValue().get();
+        mojo.debug("Fork {0} exited with {1}", future.getKey(), exitValue);
+        exitValues.add(exitValue);
+      }
+      return mergeExitValues(exitValues);
+    } catch (ExecutionException e) {
+      mojo.error("Executing fork failed: {0}", e.getCause());
+      return -1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      mojo.error("Executing forks interrupted: {0}", e);
+      return -1;
+    } finally {
+      service.shutdownNow();
+    }
+  }
+
+  /**
+   * Create concurrent forks, either one per configured test engine or a number of forks sharing the
+   * test classes.
+   *
+   * @return map of fork names to their additional Java options and launcher filter options
+   */
+  Map<String, List<List<String>>> createForks() {
+    List<String> engines = options.engineForks;
+    if (engines != null && !engines.isEmpty()) {
+      return createEngineForks(engines);
+    }
+    Map<String, List<List<String>>> forks = new LinkedHashMap<>();
+    int count = options.forkCount;
+    if (count > 1 && !mojo.versionIsEqualOrHigher(Version.JUNIT_PLATFORM_VERSION, "1.7.0")) {
+      mojo.warn("Fork count {0} ignored: post-discovery filters require JUnit Platform 1.7", count);
+      return forks;
+    }
+    for (int index = 0; count > 1 && index < count; index++) {
+      List<String> javaOptions =
+          Arrays.asList(
+              "-D" + ForkPartitionFilter.INDEX_KEY + "=" + index,
+              "-D" + ForkPartitionFilter.COUNT_KEY + "=" + count);
+      forks.put("fork-" + (index + 1), Arrays.asList(javaOptions, Collections.emptyList()));
+    }
+    return forks;
+  }
+
+  /**
+   * Create one fork per test engine and a remainder fork running all engines not listed.
+   *
+   * @return map of fork names to their additional Java options and launcher filter options
+   */
+  static Map<String, List<List<String>>> createEngineForks(List<String> engines) {
+    Map<String, List<List<String>>> forks = new LinkedHashMap<>();
+    List<String> remainder = new ArrayList<>();
+    for (String engine : engines) {
+      List<String> filter = Collections.singletonList("--include-engine=" + engine);
+      forks.put(engine, Arrays.asList(Collections.emptyList(), filter));
+      remainder.add("--exclude-engine=" + engine);
+    }
+    forks.put(REMAINING_ENGINES_FORK, Arrays.asList(Collections.emptyList(), remainder));
+    return forks;
+  }
+
+  /**
+   * Merge exit values of concurrent forks into a single one.
+   *
+   * <p>Any value other than {@code 0} and {@code 2} (no tests found) is returned as-is. {@code 2}
+   * is only returned if no fork found any test.
+   */
+  static int mergeExitValues(List<Integer> exitValues) {
+    boolean testsFound = false;
+    for (int exitValue : exitValues) {
+      if (exitValue != 0 && exitValue != 2) {
+        return exitValue;
+      }
+      testsFound |= exitValue == 0;
+    }
+    return testsFound || exitValues.isEmpty() ? 0 : 2;
+  }
+
+  private int evaluate(
+      Configuration configuration, Path target, List<String> javaOptions, List<String> filter) {
+    List<String> cmd = createCommandLine(configuration, target, filter);
+    cmd.addAll(1, javaOptions); // right after the java executable
+    return execute(cmd, target, "console-launcher");
+  }
+
+  /** Assemble the command line starting the JUnit Platform Console Launcher. */
+  List<String> createCommandLine(Configuration configuration, Path target, List<String> filter) {
+    // "java[.exe]"
+    List<String> cmd = new ArrayList<>();
+    cmd.add(mojo.getJavaExecutable());
+    addJavaOptions(cmd, configuration, target);
+    addLauncherOptions(cmd, configuration, target);
+    cmd.addAll(filter);
+    boolean modular =
+        modules.getMainModuleReference().isPresent()
+            || modules.getTestModuleReference().isPresent();
+    if (options.runtimeImage && modular && !mojo.isDryRun()) {
+      useRuntimeImage(cmd, configuration);
+    }
+    return cmd;
+  }
+
+  // Replace the java executable with the one of a runtime image linked for the module path
+  private void useRuntimeImage(List<String> cmd, Configuration configuration) {
+    // agent, debugger and flight recording options are dropped from the module resolution probe
+    List<String> additionalModules = new ArrayList<>(RuntimeImage.findRequiredModules(cmd));
+    List<String> inputs = new ArrayList<>();
+    inputs.add(createAddModulesArgument(configuration));
+    inputs.addAll(options.additionalOptions);
+    Path directory =
+        History.of(mojo.getMavenSession())
+            .getDirectory()
+            .resolveSibling(RuntimeImage.DIRECTORY_NAME);
+    new RuntimeImage(mojo, directory)
+        .find(cmd, createPathArgument(configuration), additionalModules, inputs)
+        .ifPresent(java -> cmd.set(0, java));
+  }
+
+  /**
+   * Start the command line as an external process and wait for it to complete.
+   *
+   * @param cmd the command line to execute, starting with the {@code java} executable
+   * @param target the directory to store the command line and captured log files in
+   * @param name the prefix of the log file names
+   * @return the exit value of the process, or a negative value if it could not be executed
+   */
+  int execute(List<String> cmd, Path target, String name) {
+    Path cmdPath = target.resolve(name + ".cmd.log");
+    boolean compress = options.compressLogs;
+    Path errorPath = ProcessLog.resolve(target, name + ".err.log", compress);
+    Path outputPath = ProcessLog.resolve(target, name + ".out.log", compress);
 
     // Prepare the process builder
-    ProcessBuilder builder = new ProcessBuilder();
+    ProcessBuilder builder = new ProcessBuilder(cmd);
     builder.directory(mojo.getMavenProject().getBasedir()); // todo: config?
-    List<String> cmd = builder.command();
 
     boolean inheritIO = mojo.getJavaOptions().inheritIO;
     boolean captureIO = !inheritIO;
+    // compressed or bounded logs are written by pump threads, others by the operating system
+    boolean pumpIO = captureIO && (compress || options.maxLogSize > 0);
     if (inheritIO) {
       builder.inheritIO();
     } else {
-      builder.redirectError(errorPath.toFile());
-      builder.redirectOutput(outputPath.toFile());
+      if (!pumpIO) {
+        builder.redirectError(errorPath.toFile());
+        builder.redirectOutput(outputPath.toFile());
+      }
       builder.redirectInput(ProcessBuilder.Redirect.INHERIT);
     }
 
@@ -70,16 +236,12 @@ class JavaExecutor {
       builder.environment().putAll(options.additionalEnvironment);
     }
 
-    // "java[.exe]"
-    cmd.add(mojo.getJavaExecutable());
-    addJavaOptions(cmd, configuration);
-    addLauncherOptions(cmd, configuration);
-
     // Prepare target directory...
     try {
       Files.createDirectories(target);
+      Files.deleteIfExists(target.resolve(Progress.FILE_NAME));
       Files.write(cmdPath, cmd);
-      if (captureIO) {
+      if (captureIO && !pumpIO) {
         if (Files.notExists(errorPath)) {
           Files.createFile(errorPath);
         }
@@ -106,6 +268,20 @@ class JavaExecutor {
       Process process = builder.start();
       // Java 11 debug("Process started: #%d %s", process.pid(), process.info());
       mojo.debug("Process started: {0}", process);
+      ProcessLog outputLog = null;
+      ProcessLog errorLog = null;
+      List<Thread> pumps = new ArrayList<>();
+      if (pumpIO) {
+        long maxSize = options.maxLogSize;
+        outputLog = new ProcessLog(process.getInputStream(), outputPath, compress, maxSize);
+        errorLog = new ProcessLog(process.getErrorStream(), errorPath, compress, maxSize);
+        pumps.add(new Thread(outputLog, name + "-output-log"));
+        pumps.add(new Thread(errorLog, name + "-error-log"));
+        for (Thread pump : pumps) {
+          pump.setDaemon(true);
+          pump.start();
+        }
+      }
       long progressTimeout = mojo.getExecutionProgress();
       long globalTimeout = mojo.getTimeout();
       long elapsedTime = 0L;
@@ -115,10 +291,16 @@ class JavaExecutor {
           progressTimeout = globalTimeout - elapsedTime;
         }
         completed = process.waitFor(progressTimeout, TimeUnit.SECONDS);
-        mojo.info(
-            "Output Log: {0,number,integer} bytes, Error Log: {1,number,integer} bytes",
-            Files.exists(outputPath) ? Files.size(outputPath) : 0L,
-            Files.exists(errorPath) ? Files.size(errorPath) : 0L);
+        if (completed || !mojo.logProgress(target)) {
+          mojo.info(
+              "Output Log: {0,number,integer} bytes, Error Log: {1,number,integer} bytes",
+              outputLog != null
+                  ? outputLog.getBytes()
+                  : Files.exists(outputPath) ? Files.size(outputPath) : 0L,
+              errorLog != null
+                  ? errorLog.getBytes()
+                  : Files.exists(errorPath) ? Files.size(errorPath) : 0L);
+        }
         elapsedTime += progressTimeout;
       }
       if (!completed) {
@@ -139,22 +321,17 @@ class JavaExecutor {
         return -2;
       }
       int exitValue = process.exitValue();
-      if (captureIO) {
-        String encoding = mojo.getCharset();
-        if (encoding == null) {
-          encoding = System.getProperty("native.encoding"); // Populated on Java 18 and later
-        }
-        Charset charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
-        try {
-          try (Stream<String> stdoutput = Files.lines(outputPath, charset);
-              Stream<String> erroutput = Files.lines(errorPath, charset)) {
-            stdoutput.forEach(exitValue == 0 ? mojo::info : mojo::error);
-            erroutput.forEach(exitValue == 0 ? mojo::warn : mojo::error);
-          }
-        } catch (IOException e) {
-          mojo.warn("Reading output/error logs failed: {0}", e);
+      for (Thread pump : pumps) {
+        pump.join();
+      }
+      for (ProcessLog log : Arrays.asList(outputLog, errorLog)) {
+        if (log != null && log.getFailure().isPresent()) {
+          mojo.warn("Writing {0} failed: {1}", log.getFile(), log.getFailure().get());
         }
       }
+      if (captureIO) {
+        replay(outputPath, errorPath, exitValue);
+      }
       return exitValue;
     } catch (IOException | InterruptedException e) {
       mojo.error("Executing process failed: {0}", e);
@@ -162,8 +339,29 @@ class JavaExecutor {
     }
   }
 
+  /** Replay captured output and error logs line by line to the Maven log. */
+  void replay(Path outputPath, Path errorPath, int exitValue) {
+    String encoding = mojo.getCharset();
+    if (encoding == null) {
+      encoding = System.getProperty("native.encoding"); // Populated on Java 18 and later
+    }
+    Charset charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
+    try {
+      // concurrent forks replay their logs one after another
+      synchronized (mojo) {
+        try (Stream<String> stdoutput = ProcessLog.lines(outputPath, charset);
+            Stream<String> erroutput = ProcessLog.lines(errorPath, charset)) {
+          stdoutput.forEach(exitValue == 0 ? mojo::info : mojo::error);
+          erroutput.forEach(exitValue == 0 ? mojo::warn : mojo::error);
+        }
+      }
+    } catch (IOException e) {
+      mojo.warn("Reading output/error logs failed: {0}", e);
+    }
+  }
+
   // Supply standard options for Java foundation tool
-  private void addJavaOptions(List<String> cmd, Configuration configuration) {
+  private void addJavaOptions(List<String> cmd, Configuration configuration, Path target) {
     List<String> overrides = options.overrideJavaOptions;
     if (overrides != Collections.EMPTY_LIST) {
       cmd.addAll(overrides);
@@ -182,31 +380,173 @@ class JavaExecutor {
     if (!options.encoding.isEmpty()) {
       cmd.add("-Dfile.encoding=" + options.encoding);
     }
+    // concurrent forks write their listener files to their own target directory
+    if (mojo.getTweaks().reportProgress) {
+      cmd.add("-D" + ProgressListener.FILE_KEY + "=" + target.resolve(Progress.FILE_NAME));
+    }
+    if (mojo.getTweaks().captureOutput) {
+      Path failed = target.resolve(CapturedOutput.FAILED_FILE_NAME);
+      cmd.add("-D" + CapturedOutputListener.FAILED_FILE_KEY + "=" + failed);
+      if (mojo.getTweaks().archivePassedOutput) {
+        Path passed = target.resolve(CapturedOutput.PASSED_FILE_NAME);
+        cmd.add("-D" + CapturedOutputListener.PASSED_FILE_KEY + "=" + passed);
+      }
+    }
+    if (mojo.getTweaks().recordResourceUsage) {
+      Path usage = target.resolve(ResourceUsageReport.FILE_NAME);
+      cmd.add("-D" + ResourceUsageListener.FILE_KEY + "=" + usage);
+    }
     if (!"false".equalsIgnoreCase(options.debug)) {
       cmd.add(
           "-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address="
               + (Boolean.parseBoolean(options.debug) /* if bool */ ? "5005" : options.debug));
     }
+    if (options.preloadByteBuddyAgent && !containsAgent(cmd)) {
+      findAgent(configuration.basic().getPaths())
+          .ifPresent(agent -> cmd.add("-javaagent:" + agent));
+    }
+    if (mojo.isProfile() && !mojo.isDryRun()) {
+      try {
+        Path settings = FlightRecording.writeSettings(target);
+        cmd.add(
+            FlightRecording.createStartOption(target.resolve(FlightRecording.FILE_NAME), settings));
+      } catch (IOException e) {
+        mojo.warn("Writing flight recording settings failed: {0}", e);
+      }
+    }
     if (mainModule.isPresent() || testModule.isPresent()) {
-      cmd.add("--module-path");
-      cmd.add(createPathArgument(configuration));
+      addPathOption(cmd, "--module-path", configuration, target);
       cmd.add("--add-modules");
-      cmd.add(createAddModulesArgument());
+      cmd.add(createAddModulesArgument(configuration));
       if (mainModule.isPresent() && !testModule.isPresent()) {
         new JavaPatcher(mojo, configuration).patch(cmd);
       }
+      addMainArguments(cmd, true);
+    } else {
+      // https://github.com/sormuras/junit-platform-maven-plugin/issues/28
+      addPathOption(cmd, "-classpath", configuration, target);
+      addMainArguments(cmd, false);
+    }
+  }
+
+  /**
+   * Find the agent jar to preload for Mockito's inline mock maker.
+   *
+   * <p>Since version 5, {@code mockito-core} is an agent itself and preferred: Mockito warns about
+   * any other agent being attached. Older versions use Byte Buddy's agent.
+   */
+  static Optional<Path> findAgent(Map<String, Set<String>> paths) {
+    Path byteBuddyAgent = null;
+    for (Set<String> layer : paths.values()) {
+      for (String element : layer) {
+        Path path = Paths.get(element);
+        String name = path.getFileName().toString();
+        if (!name.endsWith(".jar")) {
+          continue;
+        }
+        // only read manifests of jar files named like one of the agents
+        if (name.startsWith("mockito-core-") && isAgent(path)) {
+          return Optional.of(path);
+        }
+        if (name.startsWith("byte-buddy-agent-") && byteBuddyAgent == null && isAgent(path)) {
+          byteBuddyAgent = path;
+        }
+      }
+    }
+    return Optional.ofNullable(byteBuddyAgent);
+  }
+
+  /** Return {@code true} if the manifest of the given jar file declares a premain class. */
+  static boolean isAgent(Path jar) {
+    if (!Files.isRegularFile(jar)) {
+      return false;
+    }
+    try (JarFile file = new JarFile(jar.toFile())) {
+      Manifest manifest = file.getManifest();
+      return manifest != null && manifest.getMainAttributes().getValue("Premain-Class") != null;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Return {@code true} if the given options already load one of the agents to preload. */
+  static boolean containsAgent(List<String> options) {
+    for (String option : options) {
+      if (option.startsWith("-javaagent:")
+          && (option.contains("mockito-core") || option.contains("byte-buddy-agent"))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Append the path option, moved into an argument file if the java executable supports it
+  private void addPathOption(
+      List<String> cmd, String option, Configuration configuration, Path target) {
+    List<String> arguments = Arrays.asList(option, createPathArgument(configuration));
+    if (!options.argumentFile || !supportsArgumentFiles(Paths.get(cmd.get(0)))) {
+      cmd.addAll(arguments);
+      return;
+    }
+    Path file = target.resolve(ARGUMENT_FILE_NAME);
+    try {
+      writeArgumentFile(file, arguments);
+      cmd.add("@" + file);
+    } catch (IOException e) {
+      mojo.warn("Writing argument file failed, passing path on command line: {0}", e);
+      cmd.addAll(arguments);
+    }
+  }
+
+  /** Return {@code true} if the given java executable is version 9 or later. */
+  static boolean supportsArgumentFiles(Path java) {
+    return readJavaVersion(java).filter(version -> !version.startsWith("1.")).isPresent();
+  }
+
+  /** Read the version of the given java executable from the {@code release} file of its home. */
+  static Optional<String> readJavaVersion(Path java) {
+    Path bin = java.toAbsolutePath().getParent();
+    if (bin == null || bin.getParent() == null) {
+      return Optional.empty();
+    }
+    Path release = bin.getParent().resolve("release");
+    if (!Files.isRegularFile(release)) {
+      return Optional.empty();
+    }
+    try (Stream<String> lines = Files.lines(release)) {
+      return lines
+          .filter(line -> line.startsWith("JAVA_VERSION="))
+          .map(line -> line.substring(13).replace("\"", "").trim())
+          .filter(version -> !version.isEmpty())
+          .findFirst();
+    } catch (IOException | UncheckedIOException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** Write each argument quoted on its own line, backslashes and quotes are escaped. */
+  static void writeArgumentFile(Path file, List<String> arguments) throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (String argument : arguments) {
+      lines.add('"' + argument.replace("\\", "\\\\").replace("\"", "\\\"") + '"');
+    }
+    Files.createDirectories(file.getParent());
+    Files.write(file, lines, Charset.defaultCharset());
+  }
+
+  // Append the main module or main class to launch
+  void addMainArguments(List<String> cmd, boolean modular) {
+    if (modular) {
       cmd.add("--module");
       cmd.add("org.junit.platform.console");
     } else {
-      cmd.add("-classpath"); // https://github.com/sormuras/junit-platform-maven-plugin/issues/28
-      cmd.add(createPathArgument(configuration));
       cmd.add("org.junit.platform.console.ConsoleLauncher");
     }
   }
 
   // Append console launcher options
   // See https://junit.org/junit5/docs/current/user-guide/#running-tests-console-launcher-options
-  private void addLauncherOptions(List<String> cmd, Configuration configuration) {
+  private void addLauncherOptions(List<String> cmd, Configuration configuration, Path target) {
     List<String> overrides = options.overrideLauncherOptions;
     if (overrides != Collections.EMPTY_LIST) {
       cmd.addAll(overrides);
@@ -232,38 +572,27 @@ class JavaExecutor {
     cmd.add("--details-theme");
     cmd.add(mojo.getTweaks().detailsTheme);
     cmd.add("--reports-dir");
-    cmd.add(basic.getTargetDirectory());
+    cmd.add(target.toString());
     dsc.getFilterTags().forEach(tag -> cmd.add(createTagArgument("include", tag)));
-    if (mojo.getTest() != null) { // interactive mode first
-      if (mojo.getTest().contains("(") || mojo.getTest().contains("#")) {
-        cmd.add("--select-method=" + mojo.getTest());
-      } else if (Files.exists(
-          Paths.get(mojo.getMavenProject().getBuild().getTestOutputDirectory())
-              .resolve(mojo.getTest().replace('.', '/') + ".class"))) {
-        cmd.add("--select-class=" + mojo.getTest());
-      } else {
-        cmd.add(
-            "--scan-class-path"); // ideally we would use --select-directory but it is buggin in 1.7
-        cmd.add("--include-classname=.*\\." + mojo.getTest());
-      }
-    } else if (dsc.getFilterClassNamePatterns() != null) { // else explicit config
+    if (dsc.getFilterClassNamePatterns() != null) {
       dsc.getFilterClassNamePatterns().forEach(it -> cmd.add("--include-classname=" + it));
     }
     dsc.getParameters().forEach((key, value) -> cmd.add(createConfigArgument(key, value)));
 
     Optional<Object> mainModule = modules.getMainModuleReference();
     Optional<Object> testModule = modules.getTestModuleReference();
-    if (mojo.getTest() == null) {
-      if (testModule.isPresent()) {
+    if (!dsc.getSelectedClasses().isEmpty() || !dsc.getSelectedMethods().isEmpty()) {
+      dsc.getSelectedClasses().forEach(name -> cmd.add("--select-class=" + name));
+      dsc.getSelectedMethods().forEach(name -> cmd.add("--select-method=" + name));
+    } else if (testModule.isPresent()) {
+      cmd.add("--select-module");
+      cmd.add(modules.getTestModuleName().orElseThrow(AssertionError::new));
+    } else {
+      if (mainModule.isPresent()) {
         cmd.add("--select-module");
-        cmd.add(modules.getTestModuleName().orElseThrow(AssertionError::new));
+        cmd.add(modules.getMainModuleName().orElseThrow(AssertionError::new));
       } else {
-        if (mainModule.isPresent()) {
-          cmd.add("--select-module");
-          cmd.add(modules.getMainModuleName().orElseThrow(AssertionError::new));
-        } else {
-          cmd.add("--scan-class-path");
-        }
+        cmd.add("--scan-class-path");
       }
     }
     if (options.additionalLauncherOptions != null && !options.additionalLauncherOptions.isEmpty()) {
@@ -271,15 +600,27 @@ class JavaExecutor {
     }
   }
 
-  private String createAddModulesArgument() {
+  String createAddModulesArgument(Configuration configuration) {
     String value = options.addModulesArgument;
     if (value != null && !value.isEmpty()) {
       return value;
     }
-    if (modules.getMode() == TestMode.MODULAR_PATCHED_TEST_RUNTIME) {
-      return modules.getMainModuleName().orElseThrow(AssertionError::new);
+    String root =
+        modules.getMode() == TestMode.MODULAR_PATCHED_TEST_RUNTIME
+            ? modules.getMainModuleName().orElseThrow(AssertionError::new)
+            : modules.getTestModuleName().orElseThrow(AssertionError::new);
+    // automatic modules providing services are only resolved if they are root modules
+    boolean extensions =
+        configuration.basic().getPaths().values().stream()
+            .flatMap(Collection::stream)
+            .anyMatch(path -> path.endsWith(LauncherExtensions.JAR_NAME));
+    if (extensions) {
+      root += ',' + LauncherExtensions.MODULE_NAME + ",jdk.management";
+    }
+    if (mojo.isProfile()) {
+      root += ",jdk.jfr";
     }
-    return modules.getTestModuleName().orElseThrow(AssertionError::new);
+    return root;
   }
 
   private static String createConfigArgument(String key, String value) {
@@ -290,7 +631,7 @@ class JavaExecutor {
     return "--" + filter + "-tag=" + tag;
   }
 
-  private String createPathArgument(Configuration configuration) {
+  String createPathArgument(Configuration configuration) {
     final boolean dropMainClasses =
         modules.getMainModuleName().isPresent()
             && modules.getTestModuleName().isPresent()
@@ -39,12 +39,49 @@ public class JavaOptions {
   /** Play nice with calling process. */
   boolean inheritIO = false;
 
+  /** Write the output and error logs gzip-compressed, as {@code *.log.gz} files. */
+  boolean compressLogs = false;
+
+  /**
+   * Maximum number of bytes retained per output and error log, {@code 0} for unbounded.
+   *
+   * <p>The first and the last half are retained, bytes in between are replaced by a note. Smaller
+   * sizes than {@code 2} are raised to that minimum.
+   */
+  long maxLogSize = 0;
+
   /**
    * Enable remote debugging on the JVM, can be set to true (port 5005), a port value or false
    * (disabled).
    */
   String debug = "false";
 
+  /**
+   * Pass the module path or class path via an argument file, {@code console-launcher.args} in the
+   * target directory, to stay clear of command line length limits.
+   *
+   * <p>Only applied if the {@code java} executable is version 9 or later.
+   */
+  boolean argumentFile = true;
+
+  /**
+   * Launch modular projects with the {@code java} executable of a minimal runtime image.
+   *
+   * <p>The image is linked by {@code jlink} from the system modules the fork requires and cached in
+   * {@code junit-platform/runtime-images} next to the test history, keyed by a hash of the {@code
+   * java} executable and the module path. Ignored for projects launched on the class path.
+   */
+  boolean runtimeImage = false;
+
+  /**
+   * Preload the instrumentation agent used by Mockito's inline mock maker via {@code -javaagent}.
+   *
+   * <p>If {@code mockito-core}, version 5 or later, or {@code byte-buddy-agent} is found in the
+   * path layers, it is passed as agent to each fork. This saves the dynamic attach of the agent at
+   * runtime and the warning newer JDKs log about it.
+   */
+  boolean preloadByteBuddyAgent = true;
+
   /** Override <strong>all</strong> Java command line options. */
   List<String> overrideJavaOptions = emptyList();
 
@@ -62,4 +99,24 @@ public class JavaOptions {
 
   /** Argument for the {@code --add-modules} options: like {@code ALL-MODULE-PATH,ALL-DEFAULT}. */
   String addModulesArgument = "";
+
+  /**
+   * Test engine ids, like {@code junit-jupiter} and {@code junit-vintage}, each launched in its own
+   * concurrently running JVM.
+   *
+   * <p>Every fork is restricted to its engine via {@code --include-engine} and writes its reports
+   * and logs to a subdirectory named after the engine id. All engines not listed run in an
+   * additional fork named {@code other-engines}. Exit values of all forks are merged.
+   */
+  List<String> engineForks = emptyList();
+
+  /**
+   * Number of concurrently running JVMs sharing the test classes, ignored if engine forks are
+   * configured.
+   *
+   * <p>Each test class is assigned to a fork by the hash code of its name. Every fork writes its
+   * reports and logs to a subdirectory named {@code fork-<n>}. Exit values of all forks are merged.
+   * Requires JUnit Platform 1.7 or later.
+   */
+  int forkCount = 1;
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON parser.
+ *
+ * <p>Objects are parsed into {@link Map}s, arrays into {@link List}s, numbers into {@link Double}s,
+ * strings into {@link String}s and literals into {@link Boolean}s or {@code null}.
+ */
+final class Json {
+
+  static Object parse(String text) {
+    Json json = new Json(text);
+    Object value = json.value();
+    json.skipWhitespace();
+    if (json.index < text.length()) {
+      throw json.error("Unexpected trailing content");
+    }
+    return value;
+  }
+
+  private final String text;
+  private int index;
+
+  private Json(String text) {
+    this.text = text;
+  }
+
+  private Object value() {
+    skipWhitespace();
+    if (index >= text.length()) {
+      throw error("Unexpected end of input");
+    }
+    char c = text.charAt(index);
+    switch (c) {
+      case '{':
+        return object();
+      case '[':
+        return array();
+      case '"':
+        return string();
+      case 't':
+        return literal("true", Boolean.TRUE);
+      case 'f':
+        return literal("false", Boolean.FALSE);
+      case 'n':
+        return literal("null", null);
+      default:
+        return number();
+    }
+  }
+
+  private Map<String, Object> object() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    index++; // '{'
+    skipWhitespace();
+    if (peek() == '}') {
+      index++;
+      return map;
+    }
+    while (true) {
+      skipWhitespace();
+      if (peek() != '"') {
+        throw error("Expected string key");
+      }
+      String key = string();
+      skipWhitespace();
+      expect(':');
+      map.put(key, value());
+      skipWhitespace();
+      if (peek() == ',') {
+        index++;
+        continue;
+      }
+      expect('}');
+      return map;
+    }
+  }
+
+  private List<Object> array() {
+    List<Object> list = new ArrayList<>();
+    index++; // '['
+    skipWhitespace();
+    if (peek() == ']') {
+      index++;
+      return list;
+    }
+    while (true) {
+      list.add(value());
+      skipWhitespace();
+      if (peek() == ',') {
+        index++;
+        continue;
+      }
+      expect(']');
+      return list;
+    }
+  }
+
+  private String string() {
+    StringBuilder builder = new StringBuilder();
+    index++; // '"'
+    while (index < text.length()) {
+      char c = text.charAt(index++);
+      if (c == '"') {
+        return builder.toString();
+      }
+      if (c != '\\') {
+        builder.append(c);
+        continue;
+      }
+      if (index >= text.length()) {
+        break;
+      }
+      char escaped = text.charAt(index++);
+      switch (escaped) {
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          if (index + 4 > text.length()) {
+            throw error("Invalid unicode escape");
+          }
+          builder.append((char) Integer.parseInt(text.substring(index, index + 4), 16));
+          index += 4;
+          break;
+        default:
+          builder.append(escaped);
+      }
+    }
+    throw error("Unterminated string");
+  }
+
+  private Double number() {
+    int start = index;
+    while (index < text.length() && "+-0123456789.eE".indexOf(text.charAt(index)) >= 0) {
+      index++;
+    }
+    String number = text.substring(start, index);
+    if (number.isEmpty()) {
+      throw error("Unexpected character");
+    }
+    try {
+      return Double.valueOf(number);
+    } catch (NumberFormatException e) {
+      throw error("Invalid number: " + number);
+    }
+  }
+
+  private Object literal(String literal, Object value) {
+    if (!text.startsWith(literal, index)) {
+      throw error("Unexpected literal");
+    }
+    index += literal.length();
+    return value;
+  }
+
+  private void expect(char expected) {
+    if (peek() != expected) {
+      throw error("Expected '" + expected + "'");
+    }
+    index++;
+  }
+
+  private char peek() {
+    return index < text.length() ? text.charAt(index) : '\0';
+  }
+
+  private void skipWhitespace() {
+    while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+      index++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at index " + index);
+  }
+}
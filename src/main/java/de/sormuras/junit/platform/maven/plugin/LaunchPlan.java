@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Persisted path layering of a launch, keyed by a hash of its inputs.
+ *
+ * <p>Building the path map resolves the launcher, console and test engine artifacts. Warm builds
+ * with unchanged inputs reuse the stored map instead, as long as all of its jar files still exist.
+ */
+class LaunchPlan {
+
+  static final String FILE_NAME = "launch-plan.properties";
+
+  /** Return the hex-encoded SHA-256 hash of the given inputs. */
+  static String hash(Collection<String> inputs) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String input : inputs) {
+        digest.update(String.valueOf(input).getBytes(UTF_8));
+        digest.update((byte) 0);
+      }
+      return hex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is supported by every Java platform", e);
+    }
+  }
+
+  /** Return the given bytes as a hex-encoded string. */
+  static String hex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /** Describe all instance fields of the given options object, like {@code name=value}. */
+  static String describe(Object options) {
+    StringBuilder builder = new StringBuilder(options.getClass().getName());
+    for (Field field : options.getClass().getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers())) {
+        continue;
+      }
+      try {
+        field.setAccessible(true);
+        builder.append(',').append(field.getName()).append('=').append(field.get(options));
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        builder.append(',').append(field.getName()).append("=?");
+      }
+    }
+    return builder.toString();
+  }
+
+  /** Load the path map stored for the given key, if present and all its jar files exist. */
+  static Optional<Map<String, Set<String>>> load(Path file, String key) {
+    Properties properties = History.load(file);
+    if (!key.equals(properties.getProperty("key"))) {
+      return Optional.empty();
+    }
+    Map<String, Set<String>> paths = new LinkedHashMap<>();
+    for (String layer : properties.getProperty("layers", "").split(",")) {
+      if (layer.isEmpty()) {
+        continue;
+      }
+      String elements = properties.getProperty("layer." + layer, "");
+      Set<String> set = new LinkedHashSet<>();
+      for (String element : elements.split(File.pathSeparator)) {
+        if (element.isEmpty()) {
+          continue;
+        }
+        // output directories may be missing, resolved artifacts must not
+        if (element.endsWith(".jar") && Files.notExists(Paths.get(element))) {
+          return Optional.empty();
+        }
+        set.add(element);
+      }
+      paths.put(layer, set);
+    }
+    return paths.isEmpty() ? Optional.empty() : Optional.of(paths);
+  }
+
+  /** Store the path map under the given key. */
+  static void store(Path file, String key, Map<String, Set<String>> paths) {
+    Properties properties = new Properties();
+    properties.setProperty("key", key);
+    properties.setProperty("layers", String.join(",", paths.keySet()));
+    paths.forEach(
+        (layer, set) ->
+            properties.setProperty("layer." + layer, String.join(File.pathSeparator, set)));
+    History.store(file, properties);
+  }
+
+  private LaunchPlan() {}
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Jar file with launcher extensions registered via the {@link java.util.ServiceLoader} mechanism.
+ *
+ * <p>Listener classes are copied from this plugin into a jar file that is put on the launcher path.
+ * The listeners are thereby loaded by the launcher's class loader of the test run, in both executor
+ * modes. Configuration is passed as a properties resource next to the listener classes.
+ *
+ * <p>Listeners are referenced by name only: the JUnit Platform Launcher API is not available in the
+ * plugin's class realm. Each listener must be a single class file without member or anonymous
+ * classes that only depends on the Java SE and JUnit Platform Launcher APIs. Post-discovery filters
+ * are registered likewise, other classes, like main classes, can be added without being registered
+ * as a service. All of them are subject to the same constraints.
+ */
+class LauncherExtensions {
+
+  /** Name of the jar file written to the target directory. */
+  static final String JAR_NAME = "junit-platform-maven-plugin-extensions.jar";
+
+  /** Name of the automatic module, used when the launcher runs on the module path. */
+  static final String MODULE_NAME = "de.sormuras.junit.platform.maven.plugin.extensions";
+
+  /** Name of the properties resource, relative to the package of the listener classes. */
+  static final String PROPERTIES = "launcher-extensions.properties";
+
+  private static final String LISTENER_SERVICE =
+      "META-INF/services/org.junit.platform.launcher.TestExecutionListener";
+
+  private static final String FILTER_SERVICE =
+      "META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter";
+
+  private final List<String> listeners = new ArrayList<>();
+  private final List<String> filters = new ArrayList<>();
+  private final List<String> classes = new ArrayList<>();
+  private final Properties properties = new Properties();
+
+  LauncherExtensions addListener(String listener) {
+    listeners.add(listener);
+    return this;
+  }
+
+  LauncherExtensions addPostDiscoveryFilter(String filter) {
+    filters.add(filter);
+    return this;
+  }
+
+  LauncherExtensions addClass(String type) {
+    classes.add(type);
+    return this;
+  }
+
+  LauncherExtensions setProperty(String key, String value) {
+    properties.setProperty(key, value);
+    return this;
+  }
+
+  boolean isEmpty() {
+    return listeners.isEmpty() && filters.isEmpty() && classes.isEmpty();
+  }
+
+  /** Describe everything the jar file is written from, e.g. to detect a stale jar file. */
+  String describe() {
+    return "listeners="
+        + listeners
+        + ",filters="
+        + filters
+        + ",classes="
+        + classes
+        + ",properties="
+        + new TreeMap<>(properties);
+  }
+
+  /** Write the jar file to the given directory and return its path. */
+  Path write(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    Path jar = directory.resolve(JAR_NAME);
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().putValue("Automatic-Module-Name", MODULE_NAME);
+    try (JarOutputStream stream = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+      StringBuilder services = new StringBuilder();
+      for (String listener : listeners) {
+        copyClass(listener, stream);
+        services.append(listener).append('\n');
+      }
+      for (String type : classes) {
+        copyClass(type, stream);
+      }
+      stream.putNextEntry(new JarEntry(LISTENER_SERVICE));
+      stream.write(services.toString().getBytes(UTF_8));
+      stream.closeEntry();
+      if (!filters.isEmpty()) {
+        StringBuilder filterServices = new StringBuilder();
+        for (String filter : filters) {
+          copyClass(filter, stream);
+          filterServices.append(filter).append('\n');
+        }
+        stream.putNextEntry(new JarEntry(FILTER_SERVICE));
+        stream.write(filterServices.toString().getBytes(UTF_8));
+        stream.closeEntry();
+      }
+      String packagePath = getClass().getPackage().getName().replace('.', '/');
+      stream.putNextEntry(new JarEntry(packagePath + '/' + PROPERTIES));
+      properties.store(stream, null);
+      stream.closeEntry();
+    }
+    return jar;
+  }
+
+  /** Copy the class file of the given class into the jar. */
+  private static void copyClass(String type, JarOutputStream stream) throws IOException {
+    String name = type.replace('.', '/') + ".class";
+    stream.putNextEntry(new JarEntry(name));
+    try (InputStream source = LauncherExtensions.class.getClassLoader().getResourceAsStream(name)) {
+      if (source == null) {
+        throw new IOException("Class file not found: " + name);
+      }
+      copy(source, stream);
+    }
+    stream.closeEntry();
+  }
+
+  private static void copy(InputStream source, OutputStream target) throws IOException {
+    byte[] bytes = new byte[8192];
+    for (int read = source.read(bytes); read != -1; read = source.read(bytes)) {
+      target.write(bytes, 0, read);
+    }
+  }
+}
@@ -37,6 +37,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -65,6 +66,17 @@ import org.eclipse.aether.resolution.DependencyRequest;
 
 class MavenDriver implements Driver {
 
+  /** Constant pool entry prefix of all JUnit Jupiter types. */
+  private static final String JUPITER_MARKER = "org/junit/jupiter/";
+
+  /** Constant pool entries indicating JUnit 4 or JUnit 3 tests run by the Vintage engine. */
+  private static final List<String> VINTAGE_MARKERS =
+      Arrays.asList(
+          "Lorg/junit/Test;",
+          "org/junit/runner/RunWith",
+          "junit/framework/TestCase",
+          "junit/framework/TestSuite");
+
   private final JUnitPlatformMojo mojo;
   private final List<RemoteRepository> repositories;
   private final RepositorySystem repositorySystem;
@@ -166,6 +178,16 @@ class MavenDriver implements Driver {
     addAll(tweaks.additionalTestPathElements, testPaths);
     addAll(tweaks.additionalLauncherPathElements, launcherPaths);
 
+    // Register launcher extensions...
+    LauncherExtensions extensions = mojo.createLauncherExtensions(targetPath);
+    if (!extensions.isEmpty()) {
+      try {
+        launcherPaths.add(extensions.write(targetPath).toString());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Writing launcher extensions failed: " + targetPath, e);
+      }
+    }
+
     // Resolve additional and missing dependencies...
     try {
       // Tweaks first...
@@ -175,6 +197,9 @@ class MavenDriver implements Driver {
       for (String coordinates : tweaks.additionalLauncherDependencies) {
         launcherPaths.addAll(resolve(coordinates));
       }
+      for (String coordinates : mojo.getInjectedTestDependencies()) {
+        testPaths.addAll(resolve(coordinates));
+      }
 
       // JUnit Platform Launcher, Console, and well-known TestEngine implementations
       if (missing(JUNIT_PLATFORM_LAUNCHER)) {
@@ -185,16 +210,24 @@ class MavenDriver implements Driver {
           launcherPaths.addAll(resolve(JUNIT_PLATFORM_REPORTING));
         }
       }
-      if (mojo.getExecutor().isInjectConsole() && missing(JUNIT_PLATFORM_CONSOLE)) {
+      // the performance and quarantine lanes are always launched via the console launcher
+      boolean console =
+          mojo.getExecutor().isInjectConsole()
+              || mojo.getPerformanceOptions().isEnabled()
+              || mojo.isQuarantineEnabled();
+      if (console && missing(JUNIT_PLATFORM_CONSOLE)) {
         launcherPaths.addAll(resolve(JUNIT_PLATFORM_CONSOLE));
       }
-      if (contains(JUNIT_JUPITER_API) && missing(JUNIT_JUPITER_ENGINE)) {
+      Set<String> markers = detectTestEngineMarkers();
+      boolean jupiter = contains(JUNIT_JUPITER_API) && markers.contains(JUPITER_MARKER);
+      if (jupiter && missing(JUNIT_JUPITER_ENGINE)) {
         launcherPaths.addAll(resolve(JUNIT_JUPITER_ENGINE));
       }
-      if (contains(JUNIT_JUPITER_API) && tweaks.moveTestEnginesToLauncherClassLoader) {
+      if (jupiter && tweaks.moveTestEnginesToLauncherClassLoader) {
         launcherPaths.addAll(resolve(JUNIT_JUPITER_ENGINE));
       }
-      if (contains("junit:junit") && missing(JUNIT_VINTAGE_ENGINE)) {
+      boolean vintage = VINTAGE_MARKERS.stream().anyMatch(markers::contains);
+      if (contains("junit:junit") && vintage && missing(JUNIT_VINTAGE_ENGINE)) {
         launcherPaths.addAll(resolve(JUNIT_VINTAGE_ENGINE));
       }
       // Isolator + Worker
@@ -247,6 +280,37 @@ class MavenDriver implements Driver {
     return paths;
   }
 
+  /**
+   * Scan test classes for references to well-known test framework types.
+   *
+   * <p>If detection is disabled, all markers are returned: engines are injected based on the
+   * presence of their API artifacts only.
+   */
+  private Set<String> detectTestEngineMarkers() {
+    Set<String> markers = new LinkedHashSet<>();
+    markers.add(JUPITER_MARKER);
+    markers.addAll(VINTAGE_MARKERS);
+    if (!mojo.getTweaks().detectTestEngines) {
+      return markers;
+    }
+    Set<Path> roots = new LinkedHashSet<>();
+    mojo.getTestOutputDirectories().forEach(directory -> roots.add(Paths.get(directory)));
+    try {
+      Set<String> found = ClassFiles.findReferences(roots, markers);
+      debug("Test engine markers found in {0}: {1}", roots, found);
+      if (!found.contains(JUPITER_MARKER)) {
+        debug("No test class references JUnit Jupiter, skipping junit-jupiter-engine");
+      }
+      if (VINTAGE_MARKERS.stream().noneMatch(found::contains)) {
+        debug("No test class references JUnit 3 or 4, skipping junit-vintage-engine");
+      }
+      return found;
+    } catch (IOException e) {
+      warn("Detecting test engines failed, injecting all: {0}", e.getMessage());
+      return markers;
+    }
+  }
+
   private boolean missing(GroupArtifact groupArtifact) {
     return !contains(groupArtifact);
   }
@@ -47,27 +47,33 @@ class MojoHelper {
               final String key = "${junit-platform." + markerName + '.' + field.getName() + "}";
               String value = evaluateProperty(key);
               if (value != null) {
-                final Class<?> type = field.getType();
-                if (String.class == type) {
-                  set(field, dto, value);
-                } else if (boolean.class == type) {
-                  set(field, dto, Boolean.parseBoolean(value));
-                } else if (List.class == type) { // List<String>
-                  set(field, dto, asList(value.split(",")));
-                } else if (Map.class == type) { // Map<String, String>
-                  set(
-                      field,
-                      dto,
-                      Stream.of(value.split(","))
-                          .map(it -> it.split("="))
-                          .collect(toMap(it -> it[0], it -> it[1])));
-                } else {
-                  throw new IllegalArgumentException("Unsupported type: " + type);
-                }
+                set(field, dto, convert(field.getType(), value));
               }
             });
   }
 
+  /** Convert the value of a user property to the type of a configuration field. */
+  static Object convert(Class<?> type, String value) {
+    if (String.class == type) {
+      return value;
+    } else if (boolean.class == type) {
+      return Boolean.parseBoolean(value);
+    } else if (int.class == type) {
+      return Integer.parseInt(value.trim());
+    } else if (long.class == type) {
+      return Long.parseLong(value.trim());
+    } else if (double.class == type) {
+      return Double.parseDouble(value.trim());
+    } else if (List.class == type) { // List<String>
+      return asList(value.split(","));
+    } else if (Map.class == type) { // Map<String, String>
+      return Stream.of(value.split(","))
+          .map(it -> it.split("="))
+          .collect(toMap(it -> it[0], it -> it[1]));
+    }
+    throw new IllegalArgumentException("Unsupported type: " + type);
+  }
+
   String evaluateProperty(String key) {
     try {
       return (String) evaluator.evaluate(key, String.class);
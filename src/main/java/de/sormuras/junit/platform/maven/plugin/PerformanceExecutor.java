@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Forks a single JVM with pinned settings to launch the tests of the performance lane.
+ *
+ * <p>Tests tagged with one of the lane's tags are excluded from the main suite and launched after
+ * it in their own fork: fixed heap size, pinned JIT compiler and garbage collector options,
+ * optional warmup runs and an optional CPU affinity. Reports and logs are written to the {@code
+ * performance} subdirectory of the target directory.
+ */
+class PerformanceExecutor extends JavaExecutor {
+
+  static final String DIRECTORY_NAME = "performance";
+
+  /** Combine the tag expressions of the main suite with the exclusion of the lane's tags. */
+  static Set<String> excludeTags(Set<String> tags, Set<String> laneTags) {
+    String exclusion = "!(" + String.join(" | ", laneTags) + ")";
+    Set<String> expressions = new LinkedHashSet<>();
+    if (tags == null || tags.isEmpty()) {
+      expressions.add(exclusion);
+      return expressions;
+    }
+    for (String tag : tags) {
+      expressions.add("(" + tag + ") & " + exclusion);
+    }
+    return expressions;
+  }
+
+  private final JUnitPlatformMojo mojo;
+  private final PerformanceOptions options;
+
+  PerformanceExecutor(JUnitPlatformMojo mojo) {
+    super(mojo);
+    this.mojo = mojo;
+    this.options = mojo.getPerformanceOptions();
+  }
+
+  @Override
+  int evaluate(Configuration configuration) {
+    Path target = Paths.get(configuration.basic().getTargetDirectory());
+    mojo.info("Launching performance lane for tags {0}...", options.tags);
+    List<String> cmd = new ArrayList<>();
+    if (!options.cpuAffinity.trim().isEmpty()) {
+      if (isLinux()) {
+        cmd.add("taskset");
+        cmd.add("-c");
+        cmd.add(options.cpuAffinity.trim());
+      } else {
+        mojo.warn("CPU affinity is only supported on Linux, ignoring: {0}", options.cpuAffinity);
+      }
+    }
+    cmd.addAll(createCommandLine(configuration, target, Collections.emptyList()));
+    int exitValue = execute(cmd, target, "performance-lane");
+    mojo.info("Performance lane reports written to {0}", target);
+    return exitValue;
+  }
+
+  @Override
+  void addMainArguments(List<String> cmd, boolean modular) {
+    if (!options.heap.trim().isEmpty()) {
+      cmd.add("-Xms" + options.heap.trim());
+      cmd.add("-Xmx" + options.heap.trim());
+    }
+    cmd.addAll(options.pinnedOptions);
+    if (options.warmupRuns <= 0) {
+      super.addMainArguments(cmd, modular);
+      return;
+    }
+    cmd.add("-D" + PerformanceLauncher.WARMUP_RUNS_KEY + "=" + options.warmupRuns);
+    if (modular) {
+      cmd.add("--module");
+      cmd.add(LauncherExtensions.MODULE_NAME + '/' + PerformanceLauncher.class.getName());
+    } else {
+      cmd.add(PerformanceLauncher.class.getName());
+    }
+  }
+
+  @Override
+  String createAddModulesArgument(Configuration configuration) {
+    String modules = super.createAddModulesArgument(configuration);
+    // the console module is no longer resolved as the main module
+    return options.warmupRuns > 0 ? modules + ",org.junit.platform.console" : modules;
+  }
+
+  private static boolean isLinux() {
+    return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux");
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Main class of the performance lane: runs the console launcher for warmup before the measured run.
+ *
+ * <p>Warmup runs execute the same tests in the same JVM with their output discarded, so that the
+ * measured run starts with loaded classes and compiled code. The console launcher is accessed
+ * reflectively, its API differs between versions.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ */
+public final class PerformanceLauncher {
+
+  static final String WARMUP_RUNS_KEY = "junit-platform.performance.warmups";
+
+  public static void main(String... args) throws Exception {
+    Class<?> console = Class.forName("org.junit.platform.console.ConsoleLauncher");
+    int warmups = Integer.getInteger(WARMUP_RUNS_KEY, 0);
+    for (int i = 0; i < warmups; i++) {
+      warmup(console, args);
+    }
+    console.getMethod("main", String[].class).invoke(null, (Object) args);
+  }
+
+  private static void warmup(Class<?> console, String[] args) throws Exception {
+    for (Method method : console.getMethods()) {
+      boolean candidate = method.getName().equals("run") || method.getName().equals("execute");
+      if (!candidate
+          || !Modifier.isStatic(method.getModifiers())
+          || method.getParameterCount() != 3) {
+        continue;
+      }
+      Class<?> type = method.getParameterTypes()[0];
+      if (type == PrintWriter.class) {
+        PrintWriter sink = new PrintWriter(new StringWriter());
+        method.invoke(null, sink, sink, args);
+        return;
+      }
+      if (type == PrintStream.class) {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+        method.invoke(null, sink, sink, args);
+        return;
+      }
+    }
+    throw new IllegalStateException("No launch method found in " + console);
+  }
+
+  private PerformanceLauncher() {}
+}
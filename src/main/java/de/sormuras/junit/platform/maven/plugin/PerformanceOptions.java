@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.util.Collections.emptySet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/** Options of the performance lane, consumed by the {@link PerformanceExecutor}. */
+@SuppressWarnings("WeakerAccess")
+public class PerformanceOptions {
+
+  /**
+   * Tags of tests excluded from the main suite and launched in the performance lane afterwards.
+   *
+   * <p>An empty set disables the performance lane.
+   */
+  Set<String> tags = emptySet();
+
+  /** Initial and maximum heap size of the performance lane's JVM. */
+  String heap = "512m";
+
+  /** JIT compiler and garbage collector options pinned for reproducible timings. */
+  List<String> pinnedOptions =
+      Arrays.asList("-XX:+UseSerialGC", "-XX:CICompilerCount=2", "-XX:+AlwaysPreTouch");
+
+  /** Number of discarded runs of the performance tests in the same JVM before the measured one. */
+  int warmupRuns = 0;
+
+  /** List of CPUs passed to {@code taskset -c} on Linux, like {@code 2,3}. Empty disables it. */
+  String cpuAffinity = "";
+
+  boolean isEnabled() {
+    return tags != null && !tags.isEmpty();
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copies an output stream of a process into a log file, optionally gzip-compressed and bounded in
+ * size.
+ *
+ * <p>A bounded log retains the first and the last half of its maximum size, bytes in between are
+ * replaced by a single line noting their number. The tail is buffered in memory until the stream is
+ * closed, its buffer grows with the log up to half of the maximum size.
+ */
+class ProcessLog implements Runnable {
+
+  /** Return the path of the log file, appending {@code .gz} if compressed. */
+  static Path resolve(Path target, String name, boolean compress) {
+    return target.resolve(compress ? name + ".gz" : name);
+  }
+
+  /** Stream all lines of the given log file, decompressing it on the fly if needed. */
+  static Stream<String> lines(Path file, Charset charset) throws IOException {
+    if (!file.getFileName().toString().endsWith(".gz")) {
+      return Files.lines(file, charset);
+    }
+    InputStream stream = new GZIPInputStream(Files.newInputStream(file));
+    BufferedReader reader = new BufferedReader(new InputStreamReader(stream, charset));
+    return reader
+        .lines()
+        .onClose(
+            () -> {
+              try {
+                reader.close();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+  }
+
+  private final InputStream source;
+  private final Path file;
+  private final boolean compress;
+  private final long headSize;
+  private final int tailCapacity;
+  private byte[] tail = new byte[0];
+  private final AtomicLong bytes = new AtomicLong();
+  private long tailed;
+  private volatile Exception failure;
+
+  /**
+   * Create a process log.
+   *
+   * @param source the stream to copy, usually the output or error stream of a process
+   * @param file the log file to write
+   * @param compress write the log file gzip-compressed
+   * @param maxSize maximum number of bytes to retain, at least {@code 2}, {@code 0} for unbounded
+   */
+  ProcessLog(InputStream source, Path file, boolean compress, long maxSize) {
+    if (maxSize > 0) {
+      maxSize = Math.max(2, maxSize); // retain at least one byte of head and tail each
+    }
+    this.source = source;
+    this.file = file;
+    this.compress = compress;
+    this.headSize = maxSize > 0 ? maxSize - maxSize / 2 : Long.MAX_VALUE;
+    this.tailCapacity = (int) Math.min(maxSize / 2, Integer.MAX_VALUE - 8);
+  }
+
+  /** Return the number of bytes copied from the source stream so far. */
+  long getBytes() {
+    return bytes.get();
+  }
+
+  Path getFile() {
+    return file;
+  }
+
+  /** Return the exception that stopped copying the source stream, if any. */
+  Optional<Exception> getFailure() {
+    return Optional.ofNullable(failure);
+  }
+
+  /** Copy the source stream into the log file, recording any failure instead of throwing it. */
+  @Override
+  public void run() {
+    try (InputStream in = source;
+        OutputStream out = open()) {
+      byte[] buffer = new byte[8192];
+      long head = 0;
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        bytes.addAndGet(read);
+        int direct = (int) Math.min(read, headSize - head);
+        out.write(buffer, 0, direct);
+        head += direct;
+        append(buffer, direct, read - direct);
+      }
+      long retained = Math.min(tailed, tail.length);
+      if (tailed > retained) {
+        String note = "\n[... " + (tailed - retained) + " bytes omitted ...]\n";
+        out.write(note.getBytes(US_ASCII));
+      }
+      if (tailed <= tail.length) {
+        out.write(tail, 0, (int) tailed);
+      } else {
+        int start = (int) (tailed % tail.length);
+        out.write(tail, start, tail.length - start);
+        out.write(tail, 0, start);
+      }
+    } catch (IOException | RuntimeException e) {
+      failure = e;
+    }
+  }
+
+  /** Append bytes to the ring buffer holding the tail, overwriting the oldest bytes. */
+  private void append(byte[] buffer, int offset, int length) {
+    grow(Math.min(tailed + length, tailCapacity));
+    if (length > tail.length) {
+      offset += length - tail.length;
+      tailed += length - tail.length;
+      length = tail.length;
+    }
+    while (length > 0) {
+      int position = (int) (tailed % tail.length);
+      int count = Math.min(length, tail.length - position);
+      System.arraycopy(buffer, offset, tail, position, count);
+      offset += count;
+      length -= count;
+      tailed += count;
+    }
+  }
+
+  /**
+   * Grow the tail buffer to hold at least the given number of bytes, at most its capacity.
+   *
+   * <p>The buffer is allocated on demand: logs much smaller than the maximum size don't occupy the
+   * memory of a full tail. It only wraps around once grown to its capacity, until then its bytes
+   * are in order and are copied as is.
+   */
+  private void grow(long required) {
+    if (required <= tail.length) {
+      return;
+    }
+    long doubled = Math.max(8192, 2L * tail.length);
+    tail = Arrays.copyOf(tail, (int) Math.min(tailCapacity, Math.max(required, doubled)));
+  }
+
+  private OutputStream open() throws IOException {
+    OutputStream stream = Files.newOutputStream(file);
+    return compress ? new GZIPOutputStream(stream, 8192) : stream;
+  }
+}
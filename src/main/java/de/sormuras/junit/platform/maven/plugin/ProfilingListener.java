@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * Emits a Java Flight Recorder event for each executed test class.
+ *
+ * <p>The event type is created at runtime via {@code jdk.jfr.EventFactory} and accessed
+ * reflectively: the plugin is compiled for Java 8. On runtimes without that API, this listener does
+ * nothing.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ */
+public class ProfilingListener implements TestExecutionListener {
+
+  static final String EVENT_NAME = "junit.TestClassExecution";
+
+  private final Map<String, Object> started = new ConcurrentHashMap<>();
+  private Object factory;
+  private Method newEvent;
+  private Method begin;
+  private Method end;
+  private Method set;
+  private Method commit;
+
+  public ProfilingListener() {
+    try {
+      Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+      Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+      Constructor<?> annotation = annotationElement.getConstructor(Class.class, Object.class);
+      Constructor<?> value = valueDescriptor.getConstructor(Class.class, String.class);
+      List<Object> annotations = new ArrayList<>();
+      annotations.add(annotation.newInstance(Class.forName("jdk.jfr.Name"), EVENT_NAME));
+      annotations.add(annotation.newInstance(Class.forName("jdk.jfr.Label"), "Test Class"));
+      annotations.add(
+          annotation.newInstance(Class.forName("jdk.jfr.Category"), new String[] {"JUnit"}));
+      annotations.add(annotation.newInstance(Class.forName("jdk.jfr.StackTrace"), false));
+      List<Object> fields = new ArrayList<>();
+      fields.add(value.newInstance(String.class, "testClass"));
+      Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+      Class<?> event = Class.forName("jdk.jfr.Event");
+      this.factory =
+          eventFactory
+              .getMethod("create", List.class, List.class)
+              .invoke(null, annotations, fields);
+      this.newEvent = eventFactory.getMethod("newEvent");
+      this.begin = event.getMethod("begin");
+      this.end = event.getMethod("end");
+      this.set = event.getMethod("set", int.class, Object.class);
+      this.commit = event.getMethod("commit");
+    } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+      this.factory = null; // no flight recorder available
+    }
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier identifier) {
+    String className = className(identifier);
+    if (factory == null || className == null) {
+      return;
+    }
+    try {
+      Object event = newEvent.invoke(factory);
+      set.invoke(event, 0, className);
+      begin.invoke(event);
+      started.put(identifier.getUniqueId(), event);
+    } catch (ReflectiveOperationException e) {
+      factory = null;
+    }
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+    Object event = started.remove(identifier.getUniqueId());
+    if (event == null) {
+      return;
+    }
+    try {
+      end.invoke(event);
+      commit.invoke(event);
+    } catch (ReflectiveOperationException e) {
+      factory = null;
+    }
+  }
+
+  private static String className(TestIdentifier identifier) {
+    Optional<TestSource> source = identifier.getSource();
+    if (source.isPresent() && source.get() instanceof ClassSource) {
+      return ((ClassSource) source.get()).getClassName();
+    }
+    return null;
+  }
+}
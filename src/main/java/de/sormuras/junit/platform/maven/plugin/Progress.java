@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/** Snapshot of the progress file written by the {@link ProgressListener}. */
+class Progress {
+
+  static final String FILE_NAME = "progress.properties";
+
+  /** Maximum number of running test classes to log. */
+  private static final int RUNNING_LIMIT = 5;
+
+  /** Read the progress file, empty if it doesn't exist (yet) or can't be parsed. */
+  static Optional<Progress> read(Path file) {
+    Properties properties = History.load(file);
+    if (properties.getProperty("tests.found") == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(new Progress(properties));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Estimate the remaining duration of a test run in milliseconds.
+   *
+   * <p>The expected duration of the suite, smoothed over previous runs, is preferred. When it's
+   * unknown or already exceeded, the remaining tests are extrapolated from the completed ones.
+   */
+  static OptionalLong estimateRemaining(
+      long elapsed, long completed, long found, OptionalLong expected) {
+    if (expected.isPresent() && expected.getAsLong() > elapsed) {
+      return OptionalLong.of(expected.getAsLong() - elapsed);
+    }
+    if (completed > 0 && found >= completed) {
+      return OptionalLong.of(elapsed * (found - completed) / completed);
+    }
+    return OptionalLong.empty();
+  }
+
+  /** Format milliseconds as {@code 1h 02m 03s}, omitting leading zero units. */
+  static String formatDuration(long millis) {
+    long seconds = Math.max(0, millis) / 1000;
+    long hours = seconds / 3600;
+    long minutes = seconds / 60 % 60;
+    if (hours > 0) {
+      return String.format("%dh %02dm %02ds", hours, minutes, seconds % 60);
+    }
+    if (minutes > 0) {
+      return String.format("%dm %02ds", minutes, seconds % 60);
+    }
+    return seconds + "s";
+  }
+
+  final long startedAt;
+  final boolean finished;
+  final long found;
+  final long started;
+  final long succeeded;
+  final long failed;
+  final long aborted;
+  final long skipped;
+
+  /** Start time of each running test class. */
+  final Map<String, Long> running = new TreeMap<>();
+
+  private Progress(Properties properties) {
+    this.startedAt = Long.parseLong(properties.getProperty("started.at", "0"));
+    this.finished = Boolean.parseBoolean(properties.getProperty("finished"));
+    this.found = Long.parseLong(properties.getProperty("tests.found"));
+    this.started = Long.parseLong(properties.getProperty("tests.started", "0"));
+    this.succeeded = Long.parseLong(properties.getProperty("tests.succeeded", "0"));
+    this.failed = Long.parseLong(properties.getProperty("tests.failed", "0"));
+    this.aborted = Long.parseLong(properties.getProperty("tests.aborted", "0"));
+    this.skipped = Long.parseLong(properties.getProperty("tests.skipped", "0"));
+    for (String key : properties.stringPropertyNames()) {
+      if (key.startsWith("running.")) {
+        running.put(key.substring(8), Long.parseLong(properties.getProperty(key)));
+      }
+    }
+  }
+
+  long completed() {
+    return succeeded + failed + aborted + skipped;
+  }
+
+  /** Return the lines describing this progress at the given time. */
+  List<String> format(long now, OptionalLong expected) {
+    long elapsed = now - startedAt;
+    OptionalLong remaining = estimateRemaining(elapsed, completed(), found, expected);
+    List<String> lines = new ArrayList<>();
+    lines.add(
+        String.format(
+            "Progress: %d of %d test(s) completed, %d succeeded, %d failed, %d aborted,"
+                + " %d skipped -- elapsed %s, ETA %s",
+            completed(),
+            found,
+            succeeded,
+            failed,
+            aborted,
+            skipped,
+            formatDuration(elapsed),
+            remaining.isPresent() ? formatDuration(remaining.getAsLong()) : "unknown"));
+    running.entrySet().stream()
+        .sorted(Map.Entry.comparingByValue())
+        .limit(RUNNING_LIMIT)
+        .forEach(
+            entry ->
+                lines.add(
+                    String.format(
+                        "  running %s for %s",
+                        entry.getKey(), formatDuration(now - entry.getValue()))));
+    if (running.size() > RUNNING_LIMIT) {
+      lines.add(String.format("  ... and %d more", running.size() - RUNNING_LIMIT));
+    }
+    return lines;
+  }
+}
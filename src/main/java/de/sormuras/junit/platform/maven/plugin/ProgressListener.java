@@ -0,0 +1,203 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Periodically writes test counts and running test classes to a progress file.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ *
+ * <p>The file is a properties file, replaced atomically by a background thread at most once per
+ * second and when the test plan finished. Forked JVMs may override its location via a system
+ * property of the same key.
+ */
+public class ProgressListener implements TestExecutionListener {
+
+  static final String FILE_KEY = "junit-platform.progress.file";
+
+  private static final long INTERVAL_MILLIS = 1000;
+
+  private final Path file;
+  private final Map<String, String> running = new LinkedHashMap<>();
+  private final Map<String, Long> runningSince = new LinkedHashMap<>();
+  private ScheduledExecutorService writer;
+  private TestPlan testPlan;
+  private boolean dirty;
+  private long planStarted;
+  private long found;
+  private long started;
+  private long succeeded;
+  private long failed;
+  private long aborted;
+  private long skipped;
+
+  public ProgressListener() {
+    Properties properties = new Properties();
+    try (InputStream stream = getClass().getResourceAsStream(LauncherExtensions.PROPERTIES)) {
+      if (stream != null) {
+        properties.load(stream);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Loading launcher extension properties failed", e);
+    }
+    String name = System.getProperty(FILE_KEY, properties.getProperty(FILE_KEY));
+    this.file = name == null ? null : Paths.get(name);
+  }
+
+  @Override
+  public synchronized void testPlanExecutionStarted(TestPlan testPlan) {
+    this.testPlan = testPlan;
+    this.planStarted = System.currentTimeMillis();
+    this.found = testPlan.countTestIdentifiers(TestIdentifier::isTest);
+    this.started = succeeded = failed = aborted = skipped = 0;
+    running.clear();
+    runningSince.clear();
+    write(false);
+    if (file != null && writer == null) {
+      writer =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "junit-platform-progress");
+                thread.setDaemon(true);
+                return thread;
+              });
+      writer.scheduleWithFixedDelay(this::flush, INTERVAL_MILLIS, INTERVAL_MILLIS, MILLISECONDS);
+    }
+  }
+
+  @Override
+  public synchronized void executionSkipped(TestIdentifier identifier, String reason) {
+    if (identifier.isTest()) {
+      skipped++;
+    } else if (testPlan != null) {
+      skipped +=
+          testPlan.getDescendants(identifier).stream().filter(TestIdentifier::isTest).count();
+    }
+    update();
+  }
+
+  @Override
+  public synchronized void executionStarted(TestIdentifier identifier) {
+    if (identifier.isTest()) {
+      started++;
+    }
+    Optional<TestSource> source = identifier.getSource();
+    if (source.isPresent() && source.get() instanceof ClassSource) {
+      running.put(identifier.getUniqueId(), ((ClassSource) source.get()).getClassName());
+      runningSince.put(identifier.getUniqueId(), System.currentTimeMillis());
+    }
+    update();
+  }
+
+  @Override
+  public synchronized void executionFinished(
+      TestIdentifier identifier, TestExecutionResult result) {
+    if (identifier.isTest()) {
+      // no switch on the enum: it would compile into a synthetic member class
+      if (result.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+        succeeded++;
+      } else if (result.getStatus() == TestExecutionResult.Status.ABORTED) {
+        aborted++;
+      } else {
+        failed++;
+      }
+    }
+    running.remove(identifier.getUniqueId());
+    runningSince.remove(identifier.getUniqueId());
+    update();
+  }
+
+  @Override
+  public synchronized void testPlanExecutionFinished(TestPlan testPlan) {
+    if (writer != null) {
+      writer.shutdownNow();
+      writer = null;
+    }
+    running.clear();
+    runningSince.clear();
+    write(true);
+  }
+
+  private void update() {
+    dirty = true;
+  }
+
+  private synchronized void flush() {
+    if (dirty) {
+      write(false);
+    }
+  }
+
+  private void write(boolean finished) {
+    if (file == null) {
+      return;
+    }
+    dirty = false;
+    Properties properties = new Properties();
+    properties.setProperty("updated", Long.toString(System.currentTimeMillis()));
+    properties.setProperty("started.at", Long.toString(planStarted));
+    properties.setProperty("finished", Boolean.toString(finished));
+    properties.setProperty("tests.found", Long.toString(found));
+    properties.setProperty("tests.started", Long.toString(started));
+    properties.setProperty("tests.succeeded", Long.toString(succeeded));
+    properties.setProperty("tests.failed", Long.toString(failed));
+    properties.setProperty("tests.aborted", Long.toString(aborted));
+    properties.setProperty("tests.skipped", Long.toString(skipped));
+    for (Map.Entry<String, String> entry : running.entrySet()) {
+      long since = runningSince.get(entry.getKey());
+      properties.setProperty("running." + entry.getValue(), Long.toString(since));
+    }
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (OutputStream stream = Files.newOutputStream(temporary)) {
+        properties.store(stream, null);
+      }
+      try {
+        Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file, REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      // progress is informational only, don't fail the test run
+    }
+  }
+}
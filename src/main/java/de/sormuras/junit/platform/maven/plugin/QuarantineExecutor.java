@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Forks a single JVM to launch the quarantined flaky tests.
+ *
+ * <p>The lane discovers the same tests as the main suite, its {@link QuarantineFilter} includes
+ * only the quarantined ones. It runs in parallel to the main suite and its exit value never fails
+ * the build. Reports and logs are written to the {@code quarantine} subdirectory of the target
+ * directory.
+ */
+class QuarantineExecutor extends JavaExecutor {
+
+  static final String DIRECTORY_NAME = "quarantine";
+
+  /** Name of the file listing quarantined tests, written to the target directory. */
+  static final String FILE_NAME = "quarantined-tests.txt";
+
+  QuarantineExecutor(JUnitPlatformMojo mojo) {
+    super(mojo);
+  }
+
+  @Override
+  int evaluate(Configuration configuration) {
+    Path target = Paths.get(configuration.basic().getTargetDirectory());
+    List<String> cmd = createCommandLine(configuration, target, Collections.emptyList());
+    return execute(cmd, target, "quarantine-lane");
+  }
+
+  @Override
+  void addMainArguments(List<String> cmd, boolean modular) {
+    cmd.add("-D" + QuarantineFilter.LANE_KEY + "=true");
+    super.addMainArguments(cmd, modular);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Separates quarantined tests from the main suite.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ *
+ * <p>Quarantined tests are read from a file listing one {@code className#methodName} per line. The
+ * main suite excludes them, the quarantine lane, flagged by a system property, includes only them.
+ * Test descriptors without a method source are always included, containers left empty are pruned by
+ * the launcher.
+ */
+public class QuarantineFilter implements PostDiscoveryFilter {
+
+  static final String FILE_KEY = "junit-platform.quarantine.file";
+
+  static final String LANE_KEY = "junit-platform.quarantine.lane";
+
+  private final Set<String> quarantined;
+  private final boolean lane;
+
+  public QuarantineFilter() {
+    Properties properties = new Properties();
+    try (InputStream stream = getClass().getResourceAsStream(LauncherExtensions.PROPERTIES)) {
+      if (stream != null) {
+        properties.load(stream);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Loading launcher extension properties failed", e);
+    }
+    String name = System.getProperty(FILE_KEY, properties.getProperty(FILE_KEY));
+    Set<String> keys = Collections.emptySet();
+    if (name != null) {
+      Path file = Paths.get(name);
+      try {
+        keys = Files.exists(file) ? new HashSet<>(Files.readAllLines(file, UTF_8)) : keys;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Reading quarantined tests failed: " + file, e);
+      }
+    }
+    this.quarantined = keys;
+    this.lane = Boolean.getBoolean(LANE_KEY);
+  }
+
+  QuarantineFilter(Set<String> quarantined, boolean lane) {
+    this.quarantined = quarantined;
+    this.lane = lane;
+  }
+
+  @Override
+  public FilterResult apply(TestDescriptor descriptor) {
+    Optional<TestSource> source = descriptor.getSource();
+    if (!source.isPresent() || !(source.get() instanceof MethodSource)) {
+      return FilterResult.included("no method source");
+    }
+    MethodSource method = (MethodSource) source.get();
+    boolean quarantine = quarantined.contains(method.getClassName() + '#' + method.getMethodName());
+    return FilterResult.includedIf(
+        quarantine == lane,
+        () -> quarantine ? "quarantined" : "not quarantined",
+        () -> quarantine ? "quarantined" : "not quarantined");
+  }
+}
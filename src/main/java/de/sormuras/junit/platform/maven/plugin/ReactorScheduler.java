@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Longest-suite-first ordering of reactor projects.
+ *
+ * <p>Maven schedules independent projects of a parallel build in the order of {@link
+ * MavenSession#getProjects()}, which is re-read after all lifecycle participants ran. Sorting
+ * projects by their remaining critical path length, i.e. their own historical test duration plus
+ * the longest chain of downstream test durations, lets the longest suites start first.
+ */
+class ReactorScheduler {
+
+  private final JUnitPlatformMojo mojo;
+  private final MavenSession session;
+
+  ReactorScheduler(JUnitPlatformMojo mojo, MavenSession session) {
+    this.mojo = mojo;
+    this.session = session;
+  }
+
+  void apply(Collection<MavenProject> testedProjects) {
+    String scheduling = System.getProperty("junit-platform.reactor.scheduling", "true");
+    if (!Boolean.parseBoolean(scheduling) || testedProjects.isEmpty()) {
+      return;
+    }
+    ProjectDependencyGraph graph = session.getProjectDependencyGraph();
+    if (graph == null) {
+      return;
+    }
+    History history = History.of(session);
+    Map<MavenProject, Long> durations = new HashMap<>();
+    for (MavenProject project : testedProjects) {
+      OptionalLong duration = history.loadSuiteDuration(project);
+      if (duration.isPresent()) {
+        durations.put(project, duration.getAsLong());
+      }
+    }
+    if (durations.isEmpty()) {
+      mojo.debug("No test duration history found in {0}", history.getDirectory());
+      return;
+    }
+
+    List<MavenProject> projects = session.getProjects();
+    Map<MavenProject, Long> remaining = computeRemaining(projects, graph, durations);
+    logCriticalPath(projects, graph, durations, remaining);
+
+    if (session.getRequest().getDegreeOfConcurrency() <= 1) {
+      return;
+    }
+    // Stable sort keeps the topological order for projects with equal remaining durations
+    List<MavenProject> sorted = new ArrayList<>(projects);
+    sorted.sort(Comparator.comparing(remaining::get, Comparator.reverseOrder()));
+    if (!sorted.equals(projects)) {
+      mojo.debug("Reordered reactor projects longest-suite-first: {0}", names(sorted));
+      session.setProjects(sorted);
+    }
+  }
+
+  /** Compute remaining critical path length per project, visiting downstream projects first. */
+  static Map<MavenProject, Long> computeRemaining(
+      List<MavenProject> projects,
+      ProjectDependencyGraph graph,
+      Map<MavenProject, Long> durations) {
+    Map<MavenProject, Long> remaining = new HashMap<>();
+    for (int i = projects.size() - 1; i >= 0; i--) {
+      MavenProject project = projects.get(i);
+      long downstream = 0;
+      for (MavenProject next : graph.getDownstreamProjects(project, false)) {
+        downstream = Math.max(downstream, remaining.getOrDefault(next, 0L));
+      }
+      remaining.put(project, durations.getOrDefault(project, 0L) + downstream);
+    }
+    return remaining;
+  }
+
+  private void logCriticalPath(
+      List<MavenProject> projects,
+      ProjectDependencyGraph graph,
+      Map<MavenProject, Long> durations,
+      Map<MavenProject, Long> remaining) {
+    MavenProject head = null;
+    for (MavenProject project : projects) {
+      if (graph.getUpstreamProjects(project, false).isEmpty()
+          && (head == null || remaining.get(project) > remaining.get(head))) {
+        head = project;
+      }
+    }
+    if (head == null) {
+      return;
+    }
+    long total = remaining.get(head);
+    List<MavenProject> path = new ArrayList<>();
+    for (MavenProject current = head; current != null; ) {
+      path.add(current);
+      MavenProject next = null;
+      for (MavenProject candidate : graph.getDownstreamProjects(current, false)) {
+        if (next == null || remaining.get(candidate) > remaining.get(next)) {
+          next = candidate;
+        }
+      }
+      current = next;
+    }
+    List<MavenProject> tested =
+        path.stream().filter(durations::containsKey).collect(Collectors.toList());
+    MavenProject longest = tested.stream().max(Comparator.comparing(durations::get)).orElse(head);
+    mojo.info(
+        "Critical test path ({0,number,integer} ms): {1}",
+        total,
+        tested.stream()
+            .map(p -> p.getArtifactId() + " (" + durations.get(p) + " ms)")
+            .collect(Collectors.joining(" -> ")));
+    mojo.info("Longest test suite on critical path: {0}", longest.getArtifactId());
+  }
+
+  private static String names(List<MavenProject> projects) {
+    return projects.stream().map(MavenProject::getArtifactId).collect(Collectors.joining(", "));
+  }
+}
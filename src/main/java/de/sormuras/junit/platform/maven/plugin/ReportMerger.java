@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Merges the legacy XML reports of all forks into a single report and writes a summary.
+ *
+ * <p>Reports are streamed twice: the first pass counts test cases for the totals of the root
+ * element, the second pass copies each {@code <testsuite>} element as is. Memory consumption is
+ * therefore independent of the number and the size of the reports. Reports truncated by a killed
+ * fork are copied up to the point of truncation, open elements are closed and the report is listed
+ * as partial.
+ */
+class ReportMerger {
+
+  static final String XML_NAME = "merged-report.xml";
+
+  static final String JSON_NAME = "merged-report-summary.json";
+
+  /** Totals of the merged reports. */
+  static final class Summary {
+    final List<Path> reports = new ArrayList<>();
+    final List<Path> partial = new ArrayList<>();
+    final int[] counts = new int[TestReports.Status.values().length];
+    double time;
+
+    int tests() {
+      int tests = 0;
+      for (int count : counts) {
+        tests += count;
+      }
+      return tests;
+    }
+
+    int count(TestReports.Status status) {
+      return counts[status.ordinal()];
+    }
+
+    String toJson() {
+      StringBuilder json = new StringBuilder("{\n");
+      json.append("  \"tests\": ").append(tests()).append(",\n");
+      json.append("  \"passed\": ").append(count(TestReports.Status.PASSED)).append(",\n");
+      json.append("  \"skipped\": ").append(count(TestReports.Status.SKIPPED)).append(",\n");
+      json.append("  \"failures\": ").append(count(TestReports.Status.FAILED)).append(",\n");
+      json.append("  \"errors\": ").append(count(TestReports.Status.ERROR)).append(",\n");
+      json.append("  \"time\": ").append(String.format(Locale.ROOT, "%.3f", time)).append(",\n");
+      json.append("  \"reports\": ").append(reports.size()).append(",\n");
+      json.append("  \"partial\": [");
+      for (int i = 0; i < partial.size(); i++) {
+        json.append(i == 0 ? "" : ", ").append('"');
+        json.append(partial.get(i).toString().replace("\\", "\\\\").replace("\"", "\\\""));
+        json.append('"');
+      }
+      return json.append("]\n}\n").toString();
+    }
+  }
+
+  private final JUnitPlatformMojo mojo;
+
+  ReportMerger(JUnitPlatformMojo mojo) {
+    this.mojo = mojo;
+  }
+
+  /**
+   * Find the reports to merge.
+   *
+   * <p>Reports of the quarantine lane are skipped: their failures don't fail the build, consumers
+   * of the merged report would count them as regular failures.
+   */
+  static List<Path> find(Path directory, long start) throws IOException {
+    return TestReports.find(
+        directory, start, Collections.singletonList(QuarantineExecutor.DIRECTORY_NAME));
+  }
+
+  /**
+   * Merge all reports found below the given directory into files stored in that directory.
+   *
+   * <p>Reports written before the given start time are stale, like those of forks or lanes of a
+   * previous configuration, and are skipped.
+   */
+  void merge(Path directory, long start) throws IOException, XMLStreamException {
+    List<Path> reports = find(directory, start);
+    if (reports.isEmpty()) {
+      mojo.debug("No test reports to merge found in {0}", directory);
+      return;
+    }
+    Summary summary = merge(reports, directory.resolve(XML_NAME));
+    Files.write(directory.resolve(JSON_NAME), summary.toJson().getBytes(UTF_8));
+    mojo.info(
+        "Merged {0} report(s): {1} test(s), {2} failed, {3} error(s), {4} skipped",
+        summary.reports.size(),
+        summary.tests(),
+        summary.count(TestReports.Status.FAILED),
+        summary.count(TestReports.Status.ERROR),
+        summary.count(TestReports.Status.SKIPPED));
+    for (Path report : summary.partial) {
+      mojo.warn("Merged partial report {0}, its fork was probably killed", report);
+    }
+  }
+
+  /** Merge the given reports into the given file and return the totals. */
+  static Summary merge(List<Path> reports, Path file) throws IOException, XMLStreamException {
+    Summary summary = new Summary();
+    for (Path report : reports) {
+      summary.reports.add(report);
+      try {
+        TestReports.read(
+            report,
+            testCase -> {
+              summary.counts[testCase.status.ordinal()]++;
+              summary.time += testCase.time;
+            });
+      } catch (XMLStreamException e) {
+        summary.partial.add(report);
+      }
+    }
+    try (OutputStream stream = Files.newOutputStream(file)) {
+      XMLStreamWriter writer =
+          XMLOutputFactory.newInstance().createXMLStreamWriter(stream, "UTF-8");
+      writer.writeStartDocument("UTF-8", "1.0");
+      writer.writeCharacters("\n");
+      writer.writeStartElement("testsuites");
+      writer.writeAttribute("tests", Integer.toString(summary.tests()));
+      writer.writeAttribute("skipped", Integer.toString(summary.count(TestReports.Status.SKIPPED)));
+      writer.writeAttribute("failures", Integer.toString(summary.count(TestReports.Status.FAILED)));
+      writer.writeAttribute("errors", Integer.toString(summary.count(TestReports.Status.ERROR)));
+      writer.writeAttribute("time", String.format(Locale.ROOT, "%.3f", summary.time));
+      for (Path report : reports) {
+        writer.writeCharacters("\n");
+        copy(report, writer);
+      }
+      writer.writeCharacters("\n");
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.close();
+    }
+    return summary;
+  }
+
+  /** Copy all elements below the root element of the report, or the root if it's a suite. */
+  private static void copy(Path report, XMLStreamWriter writer)
+      throws IOException, XMLStreamException {
+    int depth = 0; // number of elements opened by the writer
+    int level = 0; // element level of the reader
+    boolean skipRoot = false;
+    XMLStreamReader reader = null;
+    try (InputStream stream = Files.newInputStream(report)) {
+      try {
+        reader = TestReports.createInputFactory().createXMLStreamReader(stream);
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            level++;
+            if (level == 1 && "testsuites".equals(reader.getLocalName())) {
+              skipRoot = true;
+              continue;
+            }
+            writer.writeStartElement(reader.getLocalName());
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+              writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+            depth++;
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            level--;
+            if (level == 0 && skipRoot) {
+              continue;
+            }
+            writer.writeEndElement();
+            depth--;
+          } else if (depth == 0) {
+            continue; // whitespace and comments outside of copied elements
+          } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+            writer.writeCharacters(reader.getText());
+          } else if (event == XMLStreamConstants.CDATA) {
+            writer.writeCData(reader.getText());
+          } else if (event == XMLStreamConstants.COMMENT) {
+            writer.writeComment(reader.getText());
+          }
+        }
+      } catch (XMLStreamException e) {
+        for (; depth > 0; depth--) {
+          writer.writeEndElement();
+        }
+        writer.writeComment(" Partial report, truncated: " + report.getFileName() + " ");
+      } finally {
+        if (reader != null) {
+          reader.close();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Records CPU time, allocated bytes and garbage collections per test and per test class.
+ *
+ * <p>Copied into the launcher extensions jar, see {@link LauncherExtensions}.
+ *
+ * <p>CPU time and allocated bytes are measured on the thread executing a test. The garbage
+ * collection count is a JVM-wide counter: tests running concurrently share their collections.
+ */
+public class ResourceUsageListener implements TestExecutionListener {
+
+  static final String FILE_KEY = "resource-usage.file";
+
+  static final String HEADER = "kind,wall_ns,cpu_ns,allocated_bytes,gc_count,name";
+
+  // indexes of the sampled counters
+  private static final int THREAD = 0;
+  private static final int WALL = 1;
+  private static final int CPU = 2;
+  private static final int ALLOCATED = 3;
+  private static final int COLLECTIONS = 4;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final Map<String, long[]> started = new ConcurrentHashMap<>();
+  private final Queue<String> lines = new ConcurrentLinkedQueue<>();
+  private final Path file;
+
+  public ResourceUsageListener() {
+    Properties properties = new Properties();
+    try (InputStream stream = getClass().getResourceAsStream(LauncherExtensions.PROPERTIES)) {
+      if (stream != null) {
+        properties.load(stream);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Loading launcher extension properties failed", e);
+    }
+    String name = System.getProperty(FILE_KEY, properties.getProperty(FILE_KEY));
+    this.file = name == null ? null : Paths.get(name);
+    if (file != null && threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+      threads.setThreadCpuTimeEnabled(true);
+    }
+  }
+
+  @Override
+  public void testPlanExecutionStarted(TestPlan testPlan) {
+    started.clear();
+    lines.clear();
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier identifier) {
+    if (file != null && kind(identifier) != null) {
+      started.put(identifier.getUniqueId(), sample());
+    }
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+    long[] start = started.remove(identifier.getUniqueId());
+    if (start == null) {
+      return;
+    }
+    long[] end = sample();
+    boolean sameThread = start[THREAD] == end[THREAD];
+    lines.add(
+        String.join(
+            ",",
+            kind(identifier),
+            Long.toString(end[WALL] - start[WALL]),
+            Long.toString(delta(start, end, CPU, sameThread)),
+            Long.toString(delta(start, end, ALLOCATED, sameThread)),
+            Long.toString(end[COLLECTIONS] - start[COLLECTIONS]),
+            name(identifier).replace('\n', ' ').replace('\r', ' ')));
+  }
+
+  private static long delta(long[] start, long[] end, int index, boolean sameThread) {
+    return sameThread && start[index] >= 0 ? end[index] - start[index] : -1;
+  }
+
+  @Override
+  public void testPlanExecutionFinished(TestPlan testPlan) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (String line : lines) {
+          writer.write(line);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Writing resource usage report failed: " + file, e);
+    }
+  }
+
+  private static String kind(TestIdentifier identifier) {
+    if (identifier.isTest()) {
+      return "TEST";
+    }
+    Optional<TestSource> source = identifier.getSource();
+    if (source.isPresent() && source.get() instanceof ClassSource) {
+      return "CLASS";
+    }
+    return null;
+  }
+
+  private static String name(TestIdentifier identifier) {
+    Optional<TestSource> source = identifier.getSource();
+    if (source.isPresent() && source.get() instanceof MethodSource) {
+      MethodSource method = (MethodSource) source.get();
+      String name = method.getClassName() + '#' + method.getMethodName();
+      return identifier.isTest() && identifier.getDisplayName().endsWith("]")
+          ? name + ' ' + identifier.getDisplayName() // parameterized invocation
+          : name;
+    }
+    if (source.isPresent() && source.get() instanceof ClassSource) {
+      return ((ClassSource) source.get()).getClassName();
+    }
+    return identifier.getUniqueId();
+  }
+
+  /** Snapshot the resource counters: thread id, wall, cpu, allocated and collection count. */
+  private long[] sample() {
+    long[] sample = new long[5];
+    sample[THREAD] = Thread.currentThread().getId();
+    sample[WALL] = System.nanoTime();
+    sample[CPU] =
+        threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    sample[ALLOCATED] = -1;
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) threads;
+      if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+        sample[ALLOCATED] = sun.getThreadAllocatedBytes(sample[THREAD]);
+      }
+    }
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sample[COLLECTIONS] += Math.max(0, collector.getCollectionCount());
+    }
+    return sample;
+  }
+}
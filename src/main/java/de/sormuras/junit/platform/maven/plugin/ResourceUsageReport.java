@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the reports written by the {@link ResourceUsageListener} and logs the heaviest entries.
+ *
+ * <p>Each fork writes its own report to its target directory, all reports of the current launch are
+ * merged.
+ */
+class ResourceUsageReport {
+
+  static final String FILE_NAME = "resource-usage.csv";
+
+  /** Single line of the report. */
+  static final class Entry {
+    final String kind;
+    final long wall;
+    final long cpu;
+    final long allocated;
+    final long collections;
+    final String name;
+
+    Entry(String kind, long wall, long cpu, long allocated, long collections, String name) {
+      this.kind = kind;
+      this.wall = wall;
+      this.cpu = cpu;
+      this.allocated = allocated;
+      this.collections = collections;
+      this.name = name;
+    }
+
+    boolean isTest() {
+      return "TEST".equals(kind);
+    }
+  }
+
+  static List<Entry> read(Path file) throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      String line = reader.readLine(); // skip header
+      while ((line = reader.readLine()) != null) {
+        String[] values = line.split(",", 6);
+        if (values.length < 6) {
+          continue;
+        }
+        try {
+          entries.add(
+              new Entry(
+                  values[0],
+                  Long.parseLong(values[1]),
+                  Long.parseLong(values[2]),
+                  Long.parseLong(values[3]),
+                  Long.parseLong(values[4]),
+                  values[5]));
+        } catch (NumberFormatException e) {
+          // skip malformed line
+        }
+      }
+    }
+    return entries;
+  }
+
+  /** Find all reports written since the start of the current launch, lanes excluded. */
+  static List<Path> find(Path directory, long start) throws IOException {
+    if (Files.notExists(directory)) {
+      return new ArrayList<>();
+    }
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(directory)) {
+      files =
+          paths
+              .filter(path -> path.getFileName().toString().equals(FILE_NAME))
+              .sorted()
+              .collect(Collectors.toList());
+    }
+    List<Path> current = new ArrayList<>();
+    for (Path file : files) {
+      if (TestReports.isCurrent(directory, file, start, TestReports.LANE_DIRECTORIES)) {
+        current.add(file);
+      }
+    }
+    return current;
+  }
+
+  static List<Entry> top(List<Entry> entries, ToLongFunction<Entry> metric, int limit) {
+    return entries.stream()
+        .filter(entry -> metric.applyAsLong(entry) > 0)
+        .sorted(Comparator.comparingLong(metric).reversed())
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  private final JUnitPlatformMojo mojo;
+
+  ResourceUsageReport(JUnitPlatformMojo mojo) {
+    this.mojo = mojo;
+  }
+
+  void summarize(Path directory, long start, int limit) {
+    if (limit <= 0) {
+      return;
+    }
+    List<Path> files;
+    List<Entry> entries = new ArrayList<>();
+    try {
+      files = find(directory, start);
+      for (Path file : files) {
+        entries.addAll(read(file));
+      }
+    } catch (IOException e) {
+      mojo.warn("Reading resource usage report failed: {0}", e);
+      return;
+    }
+    if (files.isEmpty()) {
+      return;
+    }
+    List<Entry> tests = entries.stream().filter(Entry::isTest).collect(Collectors.toList());
+    List<Entry> classes = entries.stream().filter(e -> !e.isTest()).collect(Collectors.toList());
+    files.forEach(file -> mojo.info("Resource usage report written to {0}", file));
+    log("Top {0} test(s) by CPU time", top(tests, e -> e.cpu, limit));
+    log("Top {0} test(s) by allocated bytes", top(tests, e -> e.allocated, limit));
+    log("Top {0} test class(es) by CPU time", top(classes, e -> e.cpu, limit));
+  }
+
+  private void log(String caption, List<Entry> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    mojo.info(caption, entries.size());
+    for (Entry entry : entries) {
+      mojo.info(
+          "  {0,number,0.0} ms cpu | {1,number,0.0} MB allocated | {2} gc | {3}",
+          entry.cpu / 1e6, entry.allocated / 1e6, entry.collections, entry.name);
+    }
+  }
+}
@@ -0,0 +1,442 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Content-addressed cache of test reports, see {@link ResultCacheOptions}.
+ *
+ * <p>The key of a launch is a hash of its configuration, the content of every element of its path
+ * layers, the executor and its options, and the Java version. Paths below the project's base
+ * directory and the local repository are relocated, so build machines with different workspaces
+ * share keys. Jar files are fingerprinted by the names and contents of their entries, ignoring
+ * entry timestamps of jars written by the build itself.
+ *
+ * <p>Only reports of successful launches are stored. Each entry is a directory named by its key,
+ * written to a temporary sibling and renamed into place, so concurrent builds never see partial
+ * entries. Entries get the permissions of the cache directory, so builds of other users sharing it
+ * may read them. Each restore replaces a marker file tracking the last use of an entry: unlike
+ * changing the modification time of a file, that doesn't require owning the entry.
+ */
+class ResultCache {
+
+  static final String ENTRY_FILE_NAME = "entry.properties";
+
+  static final String REPORTS_DIRECTORY_NAME = "reports";
+
+  static final String LAST_USED_FILE_NAME = "last-used";
+
+  /** Number of report files stored in an entry, validated before they are restored. */
+  static final String REPORTS_KEY = "reports";
+
+  private static final Set<PosixFilePermission> EXECUTE_PERMISSIONS =
+      EnumSet.of(
+          PosixFilePermission.OWNER_EXECUTE,
+          PosixFilePermission.GROUP_EXECUTE,
+          PosixFilePermission.OTHERS_EXECUTE);
+
+  /** Fingerprints of jar files, keyed by their path, size and modification time. */
+  private static final Map<String, String> JAR_FINGERPRINTS = new ConcurrentHashMap<>();
+
+  /** Return the hex-encoded SHA-256 hash of the content of the given file or directory. */
+  static String fingerprint(Path path) throws IOException {
+    if (Files.isDirectory(path)) {
+      MessageDigest digest = newDigest();
+      try (Stream<Path> stream = Files.walk(path)) {
+        for (Path file :
+            stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+          digest.update(
+              path.relativize(file).toString().replace(File.separatorChar, '/').getBytes(UTF_8));
+          digest.update((byte) 0);
+          try (InputStream input = Files.newInputStream(file)) {
+            update(digest, input);
+          }
+        }
+      }
+      return LaunchPlan.hex(digest.digest());
+    }
+    if (Files.notExists(path)) {
+      return "missing";
+    }
+    if (!path.getFileName().toString().endsWith(".jar")) {
+      MessageDigest digest = newDigest();
+      try (InputStream input = Files.newInputStream(path)) {
+        update(digest, input);
+      }
+      return LaunchPlan.hex(digest.digest());
+    }
+    String key = path + "@" + Files.size(path) + "@" + Files.getLastModifiedTime(path);
+    String cached = JAR_FINGERPRINTS.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    MessageDigest digest = newDigest();
+    try (ZipFile zip = new ZipFile(path.toFile())) {
+      List<ZipEntry> entries = new ArrayList<>();
+      Enumeration<? extends ZipEntry> enumeration = zip.entries();
+      while (enumeration.hasMoreElements()) {
+        entries.add(enumeration.nextElement());
+      }
+      entries.sort(Comparator.comparing(ZipEntry::getName));
+      for (ZipEntry entry : entries) {
+        digest.update(entry.getName().getBytes(UTF_8));
+        digest.update((byte) 0);
+        try (InputStream input = zip.getInputStream(entry)) {
+          update(digest, input);
+        }
+      }
+    }
+    String fingerprint = LaunchPlan.hex(digest.digest());
+    JAR_FINGERPRINTS.put(key, fingerprint);
+    return fingerprint;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is supported by every Java platform", e);
+    }
+  }
+
+  private static void update(MessageDigest digest, InputStream input) throws IOException {
+    byte[] buffer = new byte[8192];
+    try (DigestInputStream stream = new DigestInputStream(input, digest)) {
+      while (stream.read(buffer) != -1) {
+        // digest is updated while reading
+      }
+    }
+  }
+
+  /** Replace the given prefixes, longest first, with their placeholders. */
+  static String relocate(String value, Map<String, String> prefixes) {
+    List<String> keys = new ArrayList<>(prefixes.keySet());
+    keys.sort(Comparator.comparingInt(String::length).reversed());
+    String relocated = value;
+    for (String key : keys) {
+      relocated = relocated.replace(key, prefixes.get(key));
+    }
+    return relocated;
+  }
+
+  /**
+   * Evict least recently used entries until all entries fit into the given number of bytes.
+   *
+   * @return number of evicted entries
+   */
+  static int evict(Path directory, long maxBytes) throws IOException {
+    Map<Path, Long> sizes = new LinkedHashMap<>();
+    List<Path> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (Path entry : stream) {
+        if (Files.isRegularFile(entry.resolve(ENTRY_FILE_NAME))) {
+          entries.add(entry);
+          sizes.put(entry, size(entry));
+        }
+      }
+    }
+    entries.sort(Comparator.comparing(ResultCache::lastUsed));
+    long total = sizes.values().stream().mapToLong(Long::longValue).sum();
+    int evicted = 0;
+    for (Path entry : entries) {
+      if (total <= maxBytes) {
+        break;
+      }
+      delete(entry);
+      total -= sizes.get(entry);
+      evicted++;
+    }
+    return evicted;
+  }
+
+  private static FileTime lastUsed(Path entry) {
+    FileTime lastUsed = FileTime.fromMillis(0);
+    for (String name : new String[] {ENTRY_FILE_NAME, LAST_USED_FILE_NAME}) {
+      try {
+        FileTime time = Files.getLastModifiedTime(entry.resolve(name));
+        lastUsed = time.compareTo(lastUsed) > 0 ? time : lastUsed;
+      } catch (IOException e) {
+        // never used or not yet stored
+      }
+    }
+    return lastUsed;
+  }
+
+  /** Replace the marker file of the given entry, its modification time is the last use. */
+  static void touch(Path entry) throws IOException {
+    Path marker = entry.resolve(LAST_USED_FILE_NAME);
+    Files.deleteIfExists(marker);
+    try {
+      Files.createFile(marker);
+    } catch (FileAlreadyExistsException e) {
+      // touched concurrently by another build
+    }
+  }
+
+  /** Check that all report files listed by the properties file of the entry are present. */
+  static boolean isValid(Path entry) throws IOException {
+    Path file = entry.resolve(ENTRY_FILE_NAME);
+    String expected = History.load(file).getProperty(REPORTS_KEY);
+    if (expected == null) {
+      return false;
+    }
+    Path reports = entry.resolve(REPORTS_DIRECTORY_NAME);
+    if (Files.notExists(reports)) {
+      return "0".equals(expected);
+    }
+    try (Stream<Path> stream = Files.walk(reports)) {
+      return Long.toString(stream.filter(Files::isRegularFile).count()).equals(expected);
+    }
+  }
+
+  /**
+   * Grant the permissions of the cache directory, at least read access for everybody, to all files
+   * of an entry: temporary directories are only accessible by their owner.
+   */
+  static void share(Path directory, Path entry) throws IOException {
+    PosixFileAttributeView view = Files.getFileAttributeView(entry, PosixFileAttributeView.class);
+    if (view == null) {
+      return;
+    }
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-xr-x");
+    permissions.addAll(Files.getPosixFilePermissions(directory));
+    try (Stream<Path> stream = Files.walk(entry)) {
+      for (Path path : stream.collect(Collectors.toList())) {
+        Set<PosixFilePermission> granted = EnumSet.copyOf(permissions);
+        if (!Files.isDirectory(path)) {
+          granted.removeAll(EXECUTE_PERMISSIONS);
+        }
+        Files.setPosixFilePermissions(path, granted);
+      }
+    }
+  }
+
+  private static long size(Path directory) throws IOException {
+    try (Stream<Path> stream = Files.walk(directory)) {
+      long size = 0;
+      for (Path file : stream.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        size += Files.size(file);
+      }
+      return size;
+    }
+  }
+
+  private static void delete(Path directory) throws IOException {
+    if (Files.notExists(directory)) {
+      return;
+    }
+    try (Stream<Path> stream = Files.walk(directory)) {
+      for (Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  /** Copy all regular files below the source directory accepted by the filter. */
+  private static List<Path> copy(Path source, Path target, Predicate<Path> filter)
+      throws IOException {
+    List<Path> copied = new ArrayList<>();
+    if (Files.notExists(source)) {
+      return copied;
+    }
+    try (Stream<Path> stream = Files.walk(source)) {
+      for (Path file : stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+        Path relative = source.relativize(file);
+        if (!filter.test(relative)) {
+          continue;
+        }
+        Path copy = target.resolve(relative.toString());
+        Files.createDirectories(copy.getParent());
+        Files.copy(file, copy, REPLACE_EXISTING);
+        copied.add(relative);
+      }
+    }
+    return copied;
+  }
+
+  private final JUnitPlatformMojo mojo;
+  private final Path directory;
+
+  ResultCache(JUnitPlatformMojo mojo) {
+    this.mojo = mojo;
+    Path base = mojo.getMavenProject().getBasedir().toPath();
+    this.directory = base.resolve(mojo.getResultCacheOptions().directory.trim()).normalize();
+  }
+
+  Path getDirectory() {
+    return directory;
+  }
+
+  /** Compute the key of the launch described by the given configuration. */
+  String key(Configuration configuration) throws IOException {
+    Map<String, String> prefixes = new LinkedHashMap<>();
+    prefixes.put(mojo.getMavenProject().getBasedir().toPath().toString(), "${basedir}");
+    String repository = mojo.getMavenSession().getLocalRepository().getBasedir();
+    prefixes.put(Paths.get(repository).toAbsolutePath().toString(), "${repository}");
+    List<String> inputs = new ArrayList<>();
+    inputs.add(relocate(LaunchPlan.describe(configuration.basic()), prefixes));
+    inputs.add(relocate(LaunchPlan.describe(configuration.discovery()), prefixes));
+    inputs.add(relocate(LaunchPlan.describe(configuration.launcher()), prefixes));
+    for (Set<String> paths : configuration.basic().getPaths().values()) {
+      for (String path : paths) {
+        if (path.endsWith(LauncherExtensions.JAR_NAME)) {
+          // rewritten by each launch, derived from the plugin and its options
+          inputs.add(relocate(path, prefixes));
+          continue;
+        }
+        inputs.add(relocate(path, prefixes) + "=" + fingerprint(Paths.get(path)));
+      }
+    }
+    try {
+      URI plugin = getClass().getProtectionDomain().getCodeSource().getLocation().toURI();
+      inputs.add(fingerprint(Paths.get(plugin)));
+    } catch (URISyntaxException | RuntimeException e) {
+      inputs.add("plugin@" + System.nanoTime()); // unknown plugin location: never hit the cache
+    }
+    inputs.add(mojo.getExecutor().name());
+    inputs.add(relocate(LaunchPlan.describe(mojo.getJavaOptions()), prefixes));
+    inputs.add(relocate(LaunchPlan.describe(mojo.getTweaks()), prefixes));
+    inputs.add(LaunchPlan.describe(mojo.getFlakyTests()));
+    if (mojo.isQuarantineEnabled()) {
+      // tests excluded from the main suite by the quarantine filter
+      Path target = Paths.get(configuration.basic().getTargetDirectory());
+      inputs.add(fingerprint(target.resolve(QuarantineExecutor.FILE_NAME)));
+    }
+    if (mojo.getExecutor() == Executor.JAVA) {
+      Path java = Paths.get(mojo.getJavaExecutable());
+      inputs.add(JavaExecutor.readJavaVersion(java).orElse(java.toString()));
+    } else {
+      inputs.add(System.getProperty("java.version"));
+    }
+    return LaunchPlan.hash(inputs);
+  }
+
+  /** Copy the reports stored for the given key into the target directory, if present and valid. */
+  boolean restore(String key, Path target) throws IOException {
+    Path entry = directory.resolve(key);
+    if (Files.notExists(entry.resolve(ENTRY_FILE_NAME))) {
+      return false;
+    }
+    if (!isValid(entry)) {
+      mojo.warn("Ignoring incomplete result cache entry {0}", entry);
+      try {
+        delete(entry);
+      } catch (IOException e) {
+        mojo.debug("Deleting result cache entry {0} failed: {1}", entry, e);
+      }
+      return false;
+    }
+    List<Path> restored = copy(entry.resolve(REPORTS_DIRECTORY_NAME), target, relative -> true);
+    try {
+      touch(entry);
+    } catch (IOException e) {
+      mojo.debug("Marking result cache entry {0} as used failed: {1}", entry, e);
+    }
+    mojo.info("Restored {0} report file(s) from result cache entry {1}", restored.size(), entry);
+    return true;
+  }
+
+  /** Store report files written to the target directory since the given time for the key. */
+  void store(String key, Path target, long start) throws IOException {
+    Files.createDirectories(directory);
+    Path entry = directory.resolve(key);
+    if (Files.exists(entry)) {
+      return;
+    }
+    long since = start - start % 1000; // some file systems store modification times in seconds
+    Path temporary = Files.createTempDirectory(directory, "." + key.substring(0, 16));
+    try {
+      List<Path> copied =
+          copy(
+              target,
+              temporary.resolve(REPORTS_DIRECTORY_NAME),
+              relative -> isReport(target, relative, since));
+      Properties properties = new Properties();
+      properties.setProperty("project", mojo.getMavenProject().getId());
+      properties.setProperty("created", Long.toString(System.currentTimeMillis()));
+      properties.setProperty(REPORTS_KEY, Integer.toString(copied.size()));
+      History.store(temporary.resolve(ENTRY_FILE_NAME), properties);
+      share(directory, temporary);
+      try {
+        Files.move(temporary, entry);
+      } catch (FileAlreadyExistsException e) {
+        // stored concurrently by another build
+      }
+    } finally {
+      delete(temporary);
+    }
+    mojo.debug("Stored test reports in result cache entry {0}", entry);
+    long maxBytes = mojo.getResultCacheOptions().maxSize * 1024 * 1024;
+    int evicted = evict(directory, maxBytes);
+    if (evicted > 0) {
+      mojo.debug("Evicted {0} least recently used result cache entries", evicted);
+    }
+  }
+
+  /** Accept files of this launch, excluding files of the lanes and launch inputs. */
+  private static boolean isReport(Path target, Path relative, long since) {
+    String first = relative.getName(0).toString();
+    if (relative.getNameCount() > 1
+        && (first.equals(PerformanceExecutor.DIRECTORY_NAME)
+            || first.equals(QuarantineExecutor.DIRECTORY_NAME))) {
+      return false;
+    }
+    String name = relative.getFileName().toString();
+    if (name.equals(LauncherExtensions.JAR_NAME) || name.equals(JavaExecutor.ARGUMENT_FILE_NAME)) {
+      return false;
+    }
+    try {
+      return Files.getLastModifiedTime(target.resolve(relative)).toMillis() >= since;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
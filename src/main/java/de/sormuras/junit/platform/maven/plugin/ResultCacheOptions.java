@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+/** Options of the cache storing test reports keyed by a fingerprint of all launch inputs. */
+@SuppressWarnings("WeakerAccess")
+public class ResultCacheOptions {
+
+  /**
+   * Cache directory, on a local or a network file system shared by several build machines.
+   *
+   * <p>Relative paths are resolved against the project's base directory, an empty path disables the
+   * cache.
+   */
+  String directory = "";
+
+  /** Maximum size of all cache entries in megabytes, least recently used entries are evicted. */
+  long maxSize = 1024;
+
+  boolean isEnabled() {
+    return directory != null && !directory.trim().isEmpty();
+  }
+}
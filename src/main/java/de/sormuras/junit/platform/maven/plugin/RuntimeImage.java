@@ -0,0 +1,343 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Minimal Java runtime image linked by {@code jlink} for forks of modular projects.
+ *
+ * <p>The image contains the system modules the boot layer of the fork requires, as reported by
+ * {@code java --show-module-resolution}, and a default class data sharing archive. Images are
+ * cached in a directory shared by all builds, keyed by a hash of the java executable and the module
+ * path.
+ */
+class RuntimeImage {
+
+  static final String DIRECTORY_NAME = "runtime-images";
+
+  /** Service providers of the JDK linked if the full runtime would bind them. */
+  static final Set<String> BOUND_MODULES =
+      new HashSet<>(
+          Arrays.asList(
+              "jdk.charsets", "jdk.crypto.ec", "jdk.localedata", "jdk.random", "jdk.zipfs"));
+
+  /** Maximum number of images kept in the shared directory, least recently used ones go first. */
+  static final int MAXIMUM_IMAGES = 8;
+
+  /** Prefixes of options loading agents, attaching a debugger or starting a flight recording. */
+  static final List<String> PROBE_EXCLUDED_OPTIONS =
+      Arrays.asList(
+          "-javaagent:",
+          "-agentlib:",
+          "-agentpath:",
+          "-Xrunjdwp",
+          "-Xdebug",
+          "-XX:StartFlightRecording",
+          "-XX:FlightRecorderOptions");
+
+  private final JUnitPlatformMojo mojo;
+  private final Path directory;
+
+  RuntimeImage(JUnitPlatformMojo mojo, Path directory) {
+    this.mojo = mojo;
+    this.directory = directory;
+  }
+
+  /**
+   * Return the java executable of the image for the given command line, linking it if needed.
+   *
+   * @param cmd command line starting with the java executable of a full runtime
+   * @param modulePath module path of the command line
+   * @param additionalModules system modules to link in addition to the resolved ones
+   * @param inputs options affecting module resolution, like the {@code --add-modules} argument
+   * @return java executable of the image, empty if linking it failed
+   */
+  Optional<String> find(
+      List<String> cmd,
+      String modulePath,
+      Collection<String> additionalModules,
+      Collection<String> inputs) {
+    Path java = Paths.get(cmd.get(0));
+    Optional<String> version = JavaExecutor.readJavaVersion(java);
+    if (!version.isPresent() || version.get().startsWith("1.")) {
+      mojo.warn("Linking a runtime image requires Java 9 or later, using {0}", java);
+      return Optional.empty();
+    }
+    List<String> key = new ArrayList<>();
+    key.add(java.toString());
+    key.add(version.get());
+    key.addAll(new TreeSet<>(additionalModules));
+    key.addAll(inputs);
+    for (String element : modulePath.split(File.pathSeparator)) {
+      key.add(fingerprint(Paths.get(element)));
+    }
+    Path image = directory.resolve(LaunchPlan.hash(key).substring(0, 16));
+    Path imageJava = image.resolve("bin").resolve(java.getFileName());
+    if (Files.isExecutable(imageJava)) {
+      mojo.debug("Reusing runtime image {0}", image);
+      try {
+        Files.setLastModifiedTime(image, FileTime.fromMillis(System.currentTimeMillis()));
+      } catch (IOException e) {
+        mojo.debug("Marking runtime image as used failed: {0}", e.getMessage());
+      }
+      return Optional.of(imageJava.toString());
+    }
+    try {
+      long start = System.currentTimeMillis();
+      List<String> probe = new ArrayList<>();
+      probe.add(java.toString());
+      probe.add("--dry-run");
+      probe.add("--show-module-resolution");
+      probe.addAll(createProbeOptions(cmd.subList(1, cmd.size())));
+      Set<String> modules = parseSystemModules(run(probe));
+      modules.addAll(additionalModules);
+      link(java, modules, image);
+      Files.setLastModifiedTime(image, FileTime.fromMillis(System.currentTimeMillis()));
+      long millis = System.currentTimeMillis() - start;
+      mojo.info("Linked runtime image {0} with {1} in {2} ms", image, modules, millis);
+      int evicted = evict(directory, MAXIMUM_IMAGES);
+      if (evicted > 0) {
+        mojo.debug("Evicted {0} least recently used runtime image(s)", evicted);
+      }
+      return Optional.of(imageJava.toString());
+    } catch (IOException e) {
+      mojo.warn("Linking runtime image failed, using {0}: {1}", java, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Return the options of the fork without those that don't affect module resolution but would keep
+   * the probe from exiting, like a debugger agent waiting for a connection.
+   */
+  static List<String> createProbeOptions(List<String> options) {
+    List<String> probe = new ArrayList<>();
+    for (String option : options) {
+      if (PROBE_EXCLUDED_OPTIONS.stream().noneMatch(option::startsWith)) {
+        probe.add(option);
+      }
+    }
+    return probe;
+  }
+
+  /**
+   * Return the system modules required by options dropped from the probe.
+   *
+   * <p>Java agents need {@code java.instrument}, the debugger agent {@code jdk.jdwp.agent} and
+   * flight recordings {@code jdk.jfr}: the fork fails to start if these aren't linked.
+   */
+  static Set<String> findRequiredModules(List<String> options) {
+    Set<String> modules = new TreeSet<>();
+    for (String option : options) {
+      if (option.startsWith("-javaagent:") || option.startsWith("-agentpath:")) {
+        modules.add("java.instrument");
+      }
+      if (option.startsWith("-agentlib:jdwp") || option.startsWith("-Xrunjdwp")) {
+        modules.add("jdk.jdwp.agent");
+      }
+      if (option.startsWith("-XX:StartFlightRecording")
+          || option.startsWith("-XX:FlightRecorderOptions")) {
+        modules.add("jdk.jfr");
+      }
+    }
+    return modules;
+  }
+
+  /**
+   * Delete the least recently used images of the given directory exceeding the maximum number.
+   *
+   * @return number of images deleted
+   */
+  static int evict(Path directory, int maximum) throws IOException {
+    List<Path> images = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (Path image : stream) {
+        if (Files.isDirectory(image) && !image.getFileName().toString().endsWith(".tmp")) {
+          images.add(image);
+        }
+      }
+    }
+    images.sort(Comparator.comparing(RuntimeImage::lastUsed).reversed());
+    int evicted = 0;
+    for (Path image : images.subList(Math.min(maximum, images.size()), images.size())) {
+      delete(image);
+      evicted++;
+    }
+    return evicted;
+  }
+
+  private static FileTime lastUsed(Path image) {
+    try {
+      return Files.getLastModifiedTime(image);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  /**
+   * Parse system modules from the output of {@code --show-module-resolution}.
+   *
+   * <p>Only roots and modules they require are returned: modules resolved by binding services are
+   * dropped, except well-known {@link #BOUND_MODULES} that tests commonly rely on.
+   */
+  static Set<String> parseSystemModules(List<String> lines) {
+    Map<String, Set<String>> requires = new HashMap<>();
+    Set<String> system = new HashSet<>();
+    Deque<String> pending = new ArrayDeque<>();
+    for (String line : lines) {
+      String[] tokens = line.trim().split("\\s+");
+      if (tokens.length >= 3 && tokens[0].equals("root")) {
+        pending.add(tokens[1]);
+        if (tokens[2].startsWith("jrt:/")) {
+          system.add(tokens[1]);
+        }
+      } else if (tokens.length >= 4 && tokens[1].equals("requires")) {
+        requires.computeIfAbsent(tokens[0], key -> new LinkedHashSet<>()).add(tokens[2]);
+        if (tokens[3].startsWith("jrt:/")) {
+          system.add(tokens[2]);
+        }
+      } else if (tokens.length >= 4 && tokens[1].equals("binds")) {
+        if (tokens[3].startsWith("jrt:/") && BOUND_MODULES.contains(tokens[2])) {
+          pending.add(tokens[2]);
+          system.add(tokens[2]);
+        }
+      }
+    }
+    Set<String> resolved = new TreeSet<>();
+    while (!pending.isEmpty()) {
+      String module = pending.pop();
+      if (resolved.add(module)) {
+        pending.addAll(requires.getOrDefault(module, Collections.emptySet()));
+      }
+    }
+    resolved.retainAll(system);
+    resolved.add("java.base");
+    return resolved;
+  }
+
+  /** Link the image into a temporary directory and move it into place. */
+  private void link(Path java, Set<String> modules, Path image) throws IOException {
+    String name = java.getFileName().toString();
+    Path jlink = java.resolveSibling(name.replace("java", "jlink"));
+    Files.createDirectories(directory);
+    Path temporary = directory.resolve(image.getFileName() + "-" + System.nanoTime() + ".tmp");
+    run(
+        Arrays.asList(
+            jlink.toString(),
+            "--add-modules",
+            String.join(",", modules),
+            "--output",
+            temporary.toString(),
+            "--no-header-files",
+            "--no-man-pages"));
+    // images don't contain the default archive of the full runtime, dump it for fast startup
+    try {
+      run(Arrays.asList(temporary.resolve("bin").resolve(name).toString(), "-Xshare:dump"));
+    } catch (IOException e) {
+      mojo.debug("Dumping class data sharing archive failed: {0}", e.getMessage());
+    }
+    try {
+      Files.move(temporary, image, ATOMIC_MOVE);
+    } catch (IOException e) {
+      // another build linked the same image concurrently
+      delete(temporary);
+      if (!Files.isDirectory(image)) {
+        throw e;
+      }
+    }
+  }
+
+  /** Return a string that changes if the module declared by the given path element changes. */
+  private static String fingerprint(Path element) {
+    try {
+      if (Files.isDirectory(element)) {
+        Path descriptor = element.resolve("module-info.class");
+        if (Files.notExists(descriptor)) {
+          return element.toString();
+        }
+        return element + "=" + new String(Files.readAllBytes(descriptor), ISO_8859_1);
+      }
+      if (element.getFileName().toString().equals(LauncherExtensions.JAR_NAME)) {
+        return element.toString(); // rewritten by every build, never requires system modules
+      }
+      return element + "@" + Files.size(element) + "@" + Files.getLastModifiedTime(element);
+    } catch (IOException e) {
+      return element + "@" + System.nanoTime(); // unreadable element: link a new image
+    }
+  }
+
+  private static List<String> run(List<String> command) throws IOException {
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    List<String> lines = new ArrayList<>();
+    Charset charset = Charset.defaultCharset();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(process.getInputStream(), charset))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    try {
+      int exitValue = process.waitFor();
+      if (exitValue != 0) {
+        String output =
+            String.join(" ", lines.subList(Math.max(0, lines.size() - 3), lines.size()));
+        throw new IOException(command.get(0) + " exited with " + exitValue + ": " + output);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for " + command.get(0), e);
+    }
+    return lines;
+  }
+
+  private static void delete(Path directory) throws IOException {
+    if (Files.notExists(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
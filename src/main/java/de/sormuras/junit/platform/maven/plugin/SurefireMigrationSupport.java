@@ -16,6 +16,13 @@ package de.sormuras.junit.platform.maven.plugin;
 
 import static java.util.Optional.ofNullable;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
@@ -80,6 +87,10 @@ class SurefireMigrationSupport {
               return null;
             });
 
+    migrateForks(surefireConfiguration, junitPlugin);
+    migrateParallelExecution(surefireConfiguration, junitPlugin);
+    migrateTestSelection(surefireConfiguration, junitPlugin);
+
     final String debug = System.getProperty("maven.surefire.debug");
     if (debug != null) {
       Xpp3Dom targetConfig = enforceConfiguration(junitPlugin);
@@ -96,6 +107,188 @@ class SurefireMigrationSupport {
     // surefirePlugin.getExecutions().forEach(execution -> {});
   }
 
+  /** Migrate {@code forkCount} to the executor and fork count, {@code argLine} to Java options. */
+  void migrateForks(Xpp3Dom surefire, Plugin junitPlugin) {
+    String forkCount = getValue(surefire, "forkCount");
+    if (forkCount != null) {
+      Xpp3Dom targetConfig = enforceConfiguration(junitPlugin);
+      int count = parseForkCount(forkCount, Runtime.getRuntime().availableProcessors());
+      if (count == 0) {
+        setIfAbsent(targetConfig, "executor", "DIRECT");
+      }
+      if (count > 1) {
+        setIfAbsent(targetConfig, "executor", "JAVA");
+        setIfAbsent(getOrCreateChild(targetConfig, "javaOptions"), "forkCount", "" + count);
+      }
+    }
+    if ("false".equals(getValue(surefire, "reuseForks"))) {
+      mojo.debug("Surefire reuseForks=false not migrated, each fork executes all of its classes");
+    }
+    String argLine = getValue(surefire, "argLine");
+    if (argLine != null) {
+      Xpp3Dom targetConfig = enforceConfiguration(junitPlugin);
+      Xpp3Dom javaOptions = getOrCreateChild(targetConfig, "javaOptions");
+      Xpp3Dom additionalOptions = getOrCreateChild(javaOptions, "additionalOptions");
+      for (String argument : splitArgLine(argLine)) {
+        Xpp3Dom option = new Xpp3Dom("additionalOption");
+        option.setValue(argument);
+        additionalOptions.addChild(option);
+      }
+    }
+  }
+
+  /** Migrate {@code parallel} and its thread counts to Jupiter's parallel execution parameters. */
+  void migrateParallelExecution(Xpp3Dom surefire, Plugin junitPlugin) {
+    String parallel = getValue(surefire, "parallel");
+    if (parallel == null || parallel.equals("none")) {
+      return;
+    }
+    String threadCount = getValue(surefire, "threadCount");
+    boolean perCore = !"false".equals(getValue(surefire, "perCoreThreadCount"));
+    Xpp3Dom parameters = getOrCreateChild(enforceConfiguration(junitPlugin), "parameters");
+    createParallelParameters(parallel, threadCount, perCore)
+        .forEach((key, value) -> setIfAbsent(parameters, key, value));
+  }
+
+  /** Migrate {@code includes} and {@code excludes} patterns, {@code groups} to tag expressions. */
+  void migrateTestSelection(Xpp3Dom surefire, Plugin junitPlugin) {
+    for (String name : new String[] {"includes", "excludes"}) {
+      Xpp3Dom patterns = surefire.getChild(name);
+      if (patterns == null || patterns.getChildCount() == 0) {
+        continue;
+      }
+      Xpp3Dom targetConfig = enforceConfiguration(junitPlugin);
+      if (targetConfig.getChild(name) == null) {
+        targetConfig.addChild(new Xpp3Dom(patterns));
+      }
+    }
+    String groups = getValue(surefire, "groups");
+    String excludedGroups = getValue(surefire, "excludedGroups");
+    if (groups == null && excludedGroups == null) {
+      return;
+    }
+    Xpp3Dom targetConfig = enforceConfiguration(junitPlugin);
+    if (targetConfig.getChild("tags") != null) {
+      return;
+    }
+    Xpp3Dom tags = new Xpp3Dom("tags");
+    for (String expression : createTagExpressions(groups, excludedGroups)) {
+      Xpp3Dom tag = new Xpp3Dom("tag");
+      tag.setValue(expression);
+      tags.addChild(tag);
+    }
+    targetConfig.addChild(tags);
+  }
+
+  /** Combine Surefire's comma-separated groups and excluded groups into tag expressions. */
+  static Set<String> createTagExpressions(String groups, String excludedGroups) {
+    Set<String> tags = new LinkedHashSet<>(split(groups));
+    List<String> excluded = split(excludedGroups);
+    if (excluded.isEmpty()) {
+      return tags;
+    }
+    return PerformanceExecutor.excludeTags(tags, new LinkedHashSet<>(excluded));
+  }
+
+  private static List<String> split(String csv) {
+    List<String> values = new ArrayList<>();
+    if (csv != null) {
+      for (String value : csv.split(",")) {
+        if (!value.trim().isEmpty()) {
+          values.add(value.trim());
+        }
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Parse Surefire's fork count, a plain number or a multiple of the CPU cores, like {@code 1.5C}.
+   */
+  static int parseForkCount(String forkCount, int processors) {
+    String count = forkCount.trim();
+    if (count.endsWith("C") || count.endsWith("c")) {
+      double factor = Double.parseDouble(count.substring(0, count.length() - 1));
+      return Math.max(1, (int) (factor * processors));
+    }
+    return Integer.parseInt(count);
+  }
+
+  /** Split an {@code argLine} into arguments, replacing late {@code @{...}} property references. */
+  static List<String> splitArgLine(String argLine) {
+    String line = argLine.replaceAll("@\\{([^}]+)}", "\\$\\{$1}");
+    List<String> arguments = new ArrayList<>();
+    StringBuilder argument = new StringBuilder();
+    char quote = 0;
+    for (char c : line.toCharArray()) {
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        } else {
+          argument.append(c);
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+      } else if (Character.isWhitespace(c)) {
+        if (argument.length() > 0) {
+          arguments.add(argument.toString());
+          argument.setLength(0);
+        }
+      } else {
+        argument.append(c);
+      }
+    }
+    if (argument.length() > 0) {
+      arguments.add(argument.toString());
+    }
+    return arguments;
+  }
+
+  /**
+   * Map Surefire's {@code parallel} mode to Jupiter's parallel execution parameters.
+   *
+   * <p>Thread counts per core use the dynamic strategy with the thread count as factor, absolute
+   * thread counts use the fixed strategy.
+   */
+  static Map<String, String> createParallelParameters(
+      String parallel, String threadCount, boolean perCore) {
+    String mode = parallel.toLowerCase(Locale.ROOT);
+    boolean classes = mode.contains("classes") || mode.contains("suites");
+    boolean methods = mode.contains("methods");
+    if (mode.equals("both") || mode.equals("all")) {
+      classes = methods = true;
+    }
+    String prefix = "junit.jupiter.execution.parallel.";
+    Map<String, String> parameters = new LinkedHashMap<>();
+    parameters.put(prefix + "enabled", "true");
+    parameters.put(prefix + "mode.default", methods ? "concurrent" : "same_thread");
+    parameters.put(prefix + "mode.classes.default", classes ? "concurrent" : "same_thread");
+    if (threadCount != null) {
+      if (perCore) {
+        parameters.put(prefix + "config.strategy", "dynamic");
+        parameters.put(prefix + "config.dynamic.factor", threadCount.trim());
+      } else {
+        parameters.put(prefix + "config.strategy", "fixed");
+        parameters.put(prefix + "config.fixed.parallelism", threadCount.trim());
+      }
+    }
+    return parameters;
+  }
+
+  private static String getValue(Xpp3Dom parent, String name) {
+    Xpp3Dom child = parent.getChild(name);
+    if (child == null || child.getValue() == null || child.getValue().trim().isEmpty()) {
+      return null;
+    }
+    return child.getValue().trim();
+  }
+
+  private static void setIfAbsent(Xpp3Dom parent, String name, String value) {
+    if (parent.getChild(name) == null) {
+      getOrCreateChild(parent, name).setValue(value);
+    }
+  }
+
   private void setSkip(Plugin junitPlugin, String value) {
     final Xpp3Dom skip = getOrCreateChild(enforceConfiguration(junitPlugin), "skip");
     skip.setValue(value);
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of binary class names found in test output directories and test jars.
+ *
+ * <p>Resolves the interactive {@code test} parameter to precise class and method selectors. Only
+ * file names are listed, no class is loaded. Listings of jar files are cached for the lifetime of
+ * the Maven process, keyed by their path, size and modification time.
+ */
+class TestIndex {
+
+  private static final Map<String, List<String>> JAR_LISTINGS = new ConcurrentHashMap<>();
+
+  /** Create an index of all classes found below the given directories and in the given jars. */
+  static TestIndex of(Collection<Path> directories, Collection<Path> jars) throws IOException {
+    Set<String> names = new TreeSet<>();
+    for (Path directory : directories) {
+      names.addAll(ClassFiles.listClassNames(directory));
+    }
+    for (Path jar : jars) {
+      names.addAll(listClassNames(jar));
+    }
+    return new TestIndex(names);
+  }
+
+  /** List binary names of all classes in the given jar file, excluding versioned entries. */
+  static List<String> listClassNames(Path jar) throws IOException {
+    if (!Files.isRegularFile(jar)) {
+      return Collections.emptyList();
+    }
+    String key = jar + "@" + Files.size(jar) + "@" + Files.getLastModifiedTime(jar);
+    List<String> cached = JAR_LISTINGS.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    List<String> names = new ArrayList<>();
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zip.entries();
+      while (entries.hasMoreElements()) {
+        String entry = entries.nextElement().getName();
+        if (!entry.endsWith(".class") || entry.startsWith("META-INF/")) {
+          continue;
+        }
+        String name = ClassFiles.toClassName(Paths.get(entry));
+        if (!name.endsWith("module-info") && !name.endsWith("package-info")) {
+          names.add(name);
+        }
+      }
+    }
+    List<String> listing = Collections.unmodifiableList(names);
+    JAR_LISTINGS.put(key, listing);
+    return listing;
+  }
+
+  private final Set<String> names;
+
+  TestIndex(Collection<String> names) {
+    this.names = new TreeSet<>(names);
+  }
+
+  /**
+   * Resolve a comma-separated list of test names to class and method selectors.
+   *
+   * <p>Each name is either a simple or a fully qualified class name, optionally of a nested class,
+   * and may contain {@code *} and {@code ?} wildcards. Names without a dot match the simple name of
+   * a class. A name may be followed by {@code #method} or {@code #method(parameterTypes)}, several
+   * methods are separated by {@code +}. Methods containing wildcards select the whole class.
+   *
+   * @param test comma-separated list of names, like {@code FooTests,Bar*#baz}
+   * @param unmatched consumer of names that don't match any class
+   * @return selectors of all matched classes and methods
+   */
+  Selectors select(String test, Consumer<String> unmatched) {
+    Set<String> classes = new LinkedHashSet<>();
+    Set<String> methods = new LinkedHashSet<>();
+    for (String token : split(test, ',')) {
+      String name = token.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      String method = null;
+      int hash = name.indexOf('#');
+      if (hash >= 0) {
+        method = name.substring(hash + 1);
+        name = name.substring(0, hash);
+      } else if (name.contains("(")) {
+        methods.add(name); // fully qualified method name, passed as-is
+        continue;
+      }
+      List<String> matches = find(name);
+      if (matches.isEmpty()) {
+        unmatched.accept(token.trim());
+        continue;
+      }
+      if (method == null || method.isEmpty() || method.contains("*") || method.contains("?")) {
+        classes.addAll(matches);
+        continue;
+      }
+      for (String match : matches) {
+        for (String single : split(method, '+')) {
+          methods.add(match + '#' + single.trim());
+        }
+      }
+    }
+    Selectors selectors = new Selectors();
+    selectors.classes = classes;
+    selectors.methods = methods;
+    return selectors;
+  }
+
+  /** Split the value at each separator outside of parentheses, like those of parameter types. */
+  static List<String> split(String value, char separator) {
+    List<String> parts = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth = Math.max(0, depth - 1);
+      } else if (c == separator && depth == 0) {
+        parts.add(value.substring(start, i));
+        start = i + 1;
+      }
+    }
+    parts.add(value.substring(start));
+    return parts;
+  }
+
+  /** Find classes matching the given name, nested classes of matched classes are dropped. */
+  List<String> find(String name) {
+    String normalized = name.replace('/', '.');
+    for (String suffix : new String[] {".java", ".class"}) {
+      if (normalized.endsWith(suffix)) {
+        normalized = normalized.substring(0, normalized.length() - suffix.length());
+      }
+    }
+    boolean qualified = normalized.contains(".");
+    Pattern pattern = Pattern.compile(toRegex(normalized));
+    List<String> matches =
+        names.stream()
+            .filter(
+                candidate ->
+                    pattern.matcher(qualified ? candidate : simple(candidate)).matches()
+                        || !qualified && pattern.matcher(innermost(candidate)).matches())
+            .collect(Collectors.toList());
+    Set<String> matched = new TreeSet<>(matches);
+    matches.removeIf(
+        candidate ->
+            matched.contains(topLevel(candidate)) && !candidate.equals(topLevel(candidate)));
+    return matches;
+  }
+
+  /** Translate a name with {@code *} and {@code ?} wildcards to a regular expression. */
+  static String toRegex(String name) {
+    StringBuilder regex = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
+    for (char c : name.toCharArray()) {
+      if (c == '*' || c == '?') {
+        if (literal.length() > 0) {
+          regex.append(Pattern.quote(literal.toString()));
+          literal.setLength(0);
+        }
+        regex.append(c == '*' ? ".*" : ".");
+      } else {
+        literal.append(c);
+      }
+    }
+    if (literal.length() > 0) {
+      regex.append(Pattern.quote(literal.toString()));
+    }
+    return regex.toString();
+  }
+
+  private static String simple(String name) {
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
+  private static String innermost(String name) {
+    return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+  }
+
+  private static String topLevel(String name) {
+    int dollar = name.indexOf('$');
+    return dollar < 0 ? name : name.substring(0, dollar);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Persisted pass and fail outcomes of single tests, see {@link FlakyTests}.
+ *
+ * <p>Each test is stored as {@code className#methodName=outcomes} in a properties file of the
+ * module's history directory, with one character per recorded run, oldest first: {@code P} for
+ * passed and {@code F} for failed. Invocations of parameterized and dynamic tests are merged into
+ * the outcome of their method, skipped tests aren't recorded.
+ */
+class TestOutcomes {
+
+  static final String FILE_NAME = "test-outcomes.properties";
+
+  static final String FLAKY_FILE_NAME = "flaky-tests.txt";
+
+  /** Return the key of the method the given test case belongs to. */
+  static String key(TestReports.TestCase testCase) {
+    String name = testCase.name == null ? "" : testCase.name;
+    int parenthesis = name.indexOf('(');
+    return testCase.className + '#' + (parenthesis < 0 ? name : name.substring(0, parenthesis));
+  }
+
+  /** Return the rate of outcome flips between consecutive runs. */
+  static double score(String outcomes) {
+    if (outcomes.length() < 2) {
+      return 0;
+    }
+    int flips = 0;
+    for (int i = 1; i < outcomes.length(); i++) {
+      if (outcomes.charAt(i) != outcomes.charAt(i - 1)) {
+        flips++;
+      }
+    }
+    return flips / (double) (outcomes.length() - 1);
+  }
+
+  static TestOutcomes load(Path file) {
+    TestOutcomes outcomes = new TestOutcomes();
+    Properties properties = History.load(file);
+    for (String name : properties.stringPropertyNames()) {
+      outcomes.outcomes.put(name, properties.getProperty(name));
+    }
+    return outcomes;
+  }
+
+  private final Map<String, String> outcomes = new TreeMap<>();
+
+  Map<String, String> getOutcomes() {
+    return outcomes;
+  }
+
+  /** Append the outcome of a run to each test, keeping the given number of recent outcomes. */
+  void record(Map<String, Boolean> passed, int window) {
+    for (Map.Entry<String, Boolean> entry : passed.entrySet()) {
+      String previous = outcomes.getOrDefault(entry.getKey(), "");
+      String merged = previous + (entry.getValue() ? 'P' : 'F');
+      int size = Math.max(1, window);
+      outcomes.put(entry.getKey(), merged.substring(Math.max(0, merged.length() - size)));
+    }
+  }
+
+  /** Read reports below the directory written since the given time and record their outcomes. */
+  void record(Path directory, long start, int window) throws IOException, XMLStreamException {
+    Map<String, Boolean> passed = new TreeMap<>();
+    long since = start - start % 1000; // some file systems store modification times in seconds
+    for (Path report : TestReports.find(directory)) {
+      if (Files.getLastModifiedTime(report).toMillis() < since) {
+        continue; // stale report of a previous run
+      }
+      TestReports.read(
+          report,
+          testCase -> {
+            if (testCase.status != TestReports.Status.SKIPPED) {
+              passed.merge(key(testCase), !testCase.isFailure(), Boolean::logicalAnd);
+            }
+          });
+    }
+    record(passed, window);
+  }
+
+  /** Find tests with enough recorded runs scoring above the threshold, flakiest first. */
+  Map<String, Double> findFlaky(double threshold, int minimumRuns) {
+    Map<String, Double> scores = new TreeMap<>();
+    for (Map.Entry<String, String> entry : outcomes.entrySet()) {
+      if (entry.getValue().length() >= Math.max(2, minimumRuns)) {
+        double score = score(entry.getValue());
+        if (score > threshold) {
+          scores.put(entry.getKey(), score);
+        }
+      }
+    }
+    List<String> names = new ArrayList<>(scores.keySet());
+    names.sort(Comparator.comparing((String name) -> scores.get(name)).reversed());
+    Map<String, Double> flaky = new LinkedHashMap<>();
+    names.forEach(name -> flaky.put(name, scores.get(name)));
+    return flaky;
+  }
+
+  void store(Path file) {
+    Properties properties = new Properties();
+    properties.putAll(outcomes);
+    History.store(file, properties);
+  }
+
+  /** Write flaky tests with their score and recorded outcomes to the given file. */
+  void writeFlaky(Path file, Map<String, Double> flaky) throws IOException {
+    Files.createDirectories(file.getParent());
+    try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+      for (Map.Entry<String, Double> entry : flaky.entrySet()) {
+        String outcomes = this.outcomes.get(entry.getKey());
+        writer.write(
+            String.format(Locale.ROOT, "%.2f %s %s", entry.getValue(), outcomes, entry.getKey()));
+        writer.newLine();
+      }
+    }
+  }
+
+  /** Write test keys to the given file, one per line. */
+  static void writeKeys(Path file, Collection<String> keys) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, keys, UTF_8);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/** Streaming reader for {@code TEST-*.xml} files written by the legacy XML report generator. */
+class TestReports {
+
+  /** Subdirectories of the target directory written by lanes launched besides the main suite. */
+  static final List<String> LANE_DIRECTORIES =
+      Arrays.asList(PerformanceExecutor.DIRECTORY_NAME, QuarantineExecutor.DIRECTORY_NAME);
+
+  /** Test case outcome. */
+  enum Status {
+    PASSED,
+    SKIPPED,
+    FAILED,
+    ERROR
+  }
+
+  /** Single {@code <testcase>} element. */
+  static final class TestCase {
+    final String className;
+    final String name;
+    final double time;
+    final Status status;
+
+    TestCase(String className, String name, double time, Status status) {
+      this.className = className;
+      this.name = name;
+      this.time = time;
+      this.status = status;
+    }
+
+    /** Return the name of the top-level class, i.e. without any nested class names. */
+    String topLevelClassName() {
+      int dollar = className.indexOf('$');
+      return dollar < 0 ? className : className.substring(0, dollar);
+    }
+
+    boolean isFailure() {
+      return status == Status.FAILED || status == Status.ERROR;
+    }
+  }
+
+  /** Find all report files in the given directory and its subdirectories. */
+  static List<Path> find(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      return paths
+          .filter(Files::isRegularFile)
+          .filter(path -> path.getFileName().toString().startsWith("TEST-"))
+          .filter(path -> path.getFileName().toString().endsWith(".xml"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Find report files below the given directory written since the given start time.
+   *
+   * <p>Reports in the named subdirectories, like those of lanes launched besides the main suite,
+   * are skipped. So are stale reports of previous runs, e.g. of forks no longer configured.
+   */
+  static List<Path> find(Path directory, long start, Collection<String> skipped)
+      throws IOException {
+    List<Path> reports = new ArrayList<>();
+    for (Path report : find(directory)) {
+      if (isCurrent(directory, report, start, skipped)) {
+        reports.add(report);
+      }
+    }
+    return reports;
+  }
+
+  /**
+   * Return {@code true} if the file below the given directory was written since the given start
+   * time and isn't located in one of the named subdirectories.
+   */
+  static boolean isCurrent(Path directory, Path file, long start, Collection<String> skipped)
+      throws IOException {
+    Path relative = directory.relativize(file);
+    if (relative.getNameCount() > 1 && skipped.contains(relative.getName(0).toString())) {
+      return false;
+    }
+    long since = start - start % 1000; // some file systems store modification times in seconds
+    return Files.getLastModifiedTime(file).toMillis() >= since;
+  }
+
+  static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  /**
+   * Read all test cases of the given report file.
+   *
+   * <p>Only the attributes and the outcome of each test case are kept, nested output elements are
+   * skipped. Memory consumption is therefore independent of the size of the report.
+   */
+  static void read(Path file, Consumer<TestCase> consumer) throws IOException, XMLStreamException {
+    try (InputStream stream = Files.newInputStream(file)) {
+      XMLStreamReader reader = createInputFactory().createXMLStreamReader(stream);
+      try {
+        String className = null;
+        String name = null;
+        double time = 0;
+        Status status = Status.PASSED;
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            String element = reader.getLocalName();
+            if ("testcase".equals(element)) {
+              className = reader.getAttributeValue(null, "classname");
+              name = reader.getAttributeValue(null, "name");
+              time = parseTime(reader.getAttributeValue(null, "time"));
+              status = Status.PASSED;
+            } else if (className != null) {
+              status = merge(status, element);
+            }
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            if ("testcase".equals(reader.getLocalName()) && className != null) {
+              consumer.accept(new TestCase(className, name, time, status));
+              className = null;
+            }
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    }
+  }
+
+  private static Status merge(Status status, String element) {
+    switch (element) {
+      case "skipped":
+        return status == Status.PASSED ? Status.SKIPPED : status;
+      case "failure":
+        return status == Status.ERROR ? status : Status.FAILED;
+      case "error":
+        return Status.ERROR;
+      default:
+        return status;
+    }
+  }
+
+  static double parseTime(String time) {
+    if (time == null || time.isEmpty()) {
+      return 0;
+    }
+    try {
+      return Double.parseDouble(time.replace(",", ""));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
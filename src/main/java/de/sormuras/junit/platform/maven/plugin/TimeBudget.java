@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+/** Options of the budget mode selecting the most valuable test classes that fit a time budget. */
+@SuppressWarnings("WeakerAccess")
+public class TimeBudget {
+
+  /**
+   * Wall-clock budget in seconds for executing test classes, {@code 0} disables the budget mode.
+   *
+   * <p>The budget covers the recorded durations of the selected test classes only, leave some
+   * headroom for starting the JVM and discovering tests.
+   */
+  long seconds = 0;
+
+  /** Assumed duration in milliseconds of test classes without recorded history. */
+  long unknownDuration = 1000;
+
+  /** Number of deferred test classes to log. */
+  int reportSize = 10;
+}
@@ -20,6 +20,70 @@ public class Tweaks {
   /** Move any test engine implementations to the launcher classloader. */
   boolean moveTestEnginesToLauncherClassLoader = true;
 
+  /**
+   * Scan test class files before injecting well-known test engines.
+   *
+   * <p>The Jupiter engine is only injected, if a test class references a JUnit Jupiter type. The
+   * Vintage engine is only injected, if a test class references JUnit 4 or JUnit 3 test types.
+   */
+  boolean detectTestEngines = false;
+
+  /**
+   * Capture output of each test and only log the output of failed tests.
+   *
+   * <p>A listener registered with the launcher of the test run redirects {@code System.out} and
+   * {@code System.err} of threads executing tests into a buffer per test. Output of failed tests
+   * and containers is written to {@code failed-output.log} in the target directory and logged after
+   * the run, output of passed tests is discarded.
+   */
+  boolean captureOutput = false;
+
+  /** Archive the captured output of passed tests in {@code passed-output.log.gz}. */
+  boolean archivePassedOutput = false;
+
+  /** Number of captured bytes kept per test, older output is dropped. */
+  int capturedOutputBufferSize = 1024 * 1024;
+
+  /**
+   * Log test counts, running test classes and an estimated time of arrival as execution progress.
+   *
+   * <p>A listener is registered with the launcher of the test run, atomically updating {@code
+   * progress.properties} in the target directory. Other tools may poll that file.
+   */
+  boolean reportProgress = true;
+
+  /**
+   * Record CPU time, allocated bytes and garbage collections per test and per test class.
+   *
+   * <p>A listener is registered with the launcher of the test run, writing its report to {@code
+   * resource-usage.csv} in the target directory.
+   */
+  boolean recordResourceUsage = false;
+
+  /** Number of heaviest tests and test classes to log when resource usage is recorded. */
+  int resourceUsageSummarySize = 10;
+
+  /** Number of test classes to log and entries per section to summarize when profiling. */
+  int profileSummarySize = 5;
+
+  /**
+   * Merge all legacy XML reports found in the target directory into a single report.
+   *
+   * <p>Reports of engine forks and the performance lane are merged into {@code merged-report.xml},
+   * totals are written to {@code merged-report-summary.json}.
+   */
+  boolean mergeReports = false;
+
+  /**
+   * Reuse the path layering of the previous build if none of its inputs changed.
+   *
+   * <p>The resolved paths are stored in {@code launch-plan.properties} in the target directory,
+   * keyed by a hash of the project's path elements and the plugin configuration. The plan is
+   * ignored if any of its jar files vanished, test engines are detected or the test runtime is
+   * patched.
+   */
+  boolean cacheLaunchPlan = false;
+
   /** Fail if worker is not loaded in isolation. */
   boolean workerIsolationRequired = true;
 
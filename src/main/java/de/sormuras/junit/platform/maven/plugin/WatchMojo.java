@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import de.sormuras.junit.platform.isolator.Driver;
+import de.sormuras.junit.platform.isolator.TestMode;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * Launch the JUnit Platform in-process whenever compiled classes change.
+ *
+ * <p>Invoke this goal after compiling the tests, like {@code mvn test-compile
+ * junit-platform:watch}, and let the IDE recompile classes into the output directories. Paths are
+ * resolved and the configuration is built once. Jar files are loaded by a class loader kept alive
+ * for the whole session, output directories by a fresh class loader per launch.
+ *
+ * <p>After the initial launch of all tests, each change launches the changed test classes, the test
+ * classes referencing changed main classes and the previously failed test classes. Isolation levels
+ * and executors are ignored: tests are launched on the class path of the Maven process. Neither the
+ * performance nor the quarantine lane is launched, quarantined tests are not filtered.
+ */
+@Mojo(
+    name = "watch",
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDependencyResolution = ResolutionScope.TEST)
+public class WatchMojo extends JUnitPlatformMojo {
+
+  /** Milliseconds to wait for further changes before launching the affected tests. */
+  @Parameter(property = "junit-platform.watch.quietPeriod", defaultValue = "500")
+  private long quietPeriod = 500;
+
+  /** Quarantined tests are launched with all others, the quarantine lane isn't launched. */
+  @Override
+  boolean isQuarantineEnabled() {
+    return false;
+  }
+
+  @Override
+  int launchAll(Driver driver, Configuration configuration, Configuration lane) throws Exception {
+    if (lane != null) {
+      warn("The performance lane is not launched in watch mode");
+    }
+    if (getFlakyTests().enabled && getFlakyTests().quarantine) {
+      warn(
+          "The quarantine lane is not launched in watch mode, quarantined tests run with all others");
+    }
+    if (getProjectModules().getMode() != TestMode.CLASSIC) {
+      warn("Modules are launched on the class path in watch mode");
+    }
+    try (WatchSession session = new WatchSession(this, configuration)) {
+      session.launch(null);
+      session.watch(quietPeriod);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      info("Watch mode stopped.");
+    }
+    return 0;
+  }
+}
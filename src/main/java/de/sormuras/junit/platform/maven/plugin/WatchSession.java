@@ -0,0 +1,307 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import de.sormuras.junit.platform.isolator.ConfigurationBuilder;
+import de.sormuras.junit.platform.isolator.Overlay;
+import de.sormuras.junit.platform.isolator.OverlaySingleton;
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Repeatedly launch tests in-process, keeping the class loader of all jar files alive.
+ *
+ * <p>Jar files of all path layers are loaded by a single, warm class loader that is created once.
+ * Directories, like the main and test output directories, are loaded by a child class loader that
+ * is created for every launch. The worker is loaded via the child, so the launcher and the test
+ * engines stay warm while changed classes are picked up.
+ */
+class WatchSession implements AutoCloseable {
+
+  private final JUnitPlatformMojo mojo;
+  private final Configuration configuration;
+  private final Overlay overlay = OverlaySingleton.INSTANCE;
+  private final URLClassLoader warmLoader;
+  private final List<Path> directories = new ArrayList<>();
+  private final Set<Path> testDirectories = new LinkedHashSet<>();
+  private final Set<String> failed = new TreeSet<>();
+
+  WatchSession(JUnitPlatformMojo mojo, Configuration configuration) {
+    this.mojo = mojo;
+    this.configuration = configuration;
+    List<Path> jars = new ArrayList<>();
+    for (Set<String> layer : configuration.basic().getPaths().values()) {
+      for (String element : layer) {
+        Path path = Paths.get(element);
+        if (element.toLowerCase().endsWith(".jar")) {
+          jars.add(path);
+        } else if (!directories.contains(path)) {
+          directories.add(path);
+        }
+      }
+    }
+    mojo.getTestOutputDirectories().forEach(directory -> testDirectories.add(Paths.get(directory)));
+    ClassLoader parent =
+        configuration.basic().isPlatformClassLoader()
+            ? overlay.platformClassLoader()
+            : Thread.currentThread().getContextClassLoader();
+    this.warmLoader = overlay.newClassLoader("warm", parent, jars);
+    warmLoader.setDefaultAssertionStatus(configuration.basic().isDefaultAssertionStatus());
+  }
+
+  /**
+   * Launch the given test classes or, if {@code null}, all tests of the configuration.
+   *
+   * @return exit value of the worker
+   */
+  int launch(Set<String> classes) throws Exception {
+    if (classes == null && !configuration.discovery().getSelectedModules().isEmpty()) {
+      classes = new TreeSet<>(); // modules are launched on the class path, select their classes
+      for (Path directory : testDirectories) {
+        for (String name : ClassFiles.listClassNames(directory)) {
+          classes.add(topLevelClassName(name));
+        }
+      }
+    }
+    Configuration selected = classes == null ? configuration : select(configuration, classes);
+    long start = System.currentTimeMillis();
+    int result;
+    try (URLClassLoader loader = overlay.newClassLoader("watched", warmLoader, directories)) {
+      loader.setDefaultAssertionStatus(configuration.basic().isDefaultAssertionStatus());
+      String name = configuration.basic().getWorkerClassName();
+      Class<?> type = Class.forName(name, true, loader);
+      BiConsumer<String, String> log = this::log;
+      Callable<?> worker =
+          (Callable<?>)
+              type.getConstructor(byte[].class, BiConsumer.class)
+                  .newInstance(selected.toBytes(), log);
+      Thread thread = Thread.currentThread();
+      ClassLoader context = thread.getContextClassLoader();
+      thread.setContextClassLoader(loader);
+      try {
+        result = (Integer) worker.call();
+      } finally {
+        thread.setContextClassLoader(context);
+      }
+    }
+    if (classes != null) {
+      failed.removeAll(classes);
+    }
+    failed.addAll(readFailedClasses());
+    long millis = System.currentTimeMillis() - start;
+    if (failed.isEmpty()) {
+      mojo.info("Launch finished in {0} ms, all tests passed.", millis);
+    } else {
+      mojo.warn("Launch finished in {0} ms, failed: {1}", millis, failed);
+    }
+    return result;
+  }
+
+  /** Wait for changed class files and launch the affected tests, until interrupted. */
+  void watch(long quietPeriod) throws Exception {
+    try (WatchService service = FileSystems.getDefault().newWatchService()) {
+      for (Path directory : directories) {
+        register(service, directory);
+      }
+      mojo.info("Watching {0} for changes, press Ctrl+C to stop...", directories);
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<Path> changed = new TreeSet<>();
+        WatchKey key = service.take();
+        boolean overflow = false;
+        while (key != null) {
+          overflow |= collect(service, key, changed);
+          key = service.poll(quietPeriod, TimeUnit.MILLISECONDS);
+        }
+        if (changed.isEmpty() && !overflow) {
+          continue;
+        }
+        Set<String> selection = overflow ? null : selectAffected(changed);
+        if (selection != null && selection.isEmpty()) {
+          mojo.debug("No test affected by changes of {0}", changed);
+          continue;
+        }
+        mojo.info("Launching {0}...", selection == null ? "all tests" : selection);
+        launch(selection);
+      }
+    }
+  }
+
+  /**
+   * Select test classes affected by the given changed class files.
+   *
+   * <p>Changed test classes are selected, as are test classes referencing a changed main class and
+   * previously failed test classes. If no test class references the changed main classes directly,
+   * {@code null} is returned: all tests are affected.
+   */
+  Set<String> selectAffected(Set<Path> changed) throws IOException {
+    Set<String> tests = new TreeSet<>(failed);
+    Set<String> references = new HashSet<>();
+    for (Path file : changed) {
+      Path root = directories.stream().filter(file::startsWith).findFirst().orElse(null);
+      if (root == null) {
+        continue;
+      }
+      String name = ClassFiles.toClassName(root.relativize(file));
+      if (!testDirectories.contains(root)) {
+        references.add(name.replace('.', '/'));
+      } else if (Files.exists(file)) {
+        tests.add(topLevelClassName(name));
+      }
+    }
+    if (!references.isEmpty()) {
+      Set<String> referencing = ClassFiles.findReferencingClasses(testDirectories, references);
+      if (referencing.isEmpty()) {
+        return null;
+      }
+      referencing.forEach(name -> tests.add(topLevelClassName(name)));
+    }
+    return tests;
+  }
+
+  private static String topLevelClassName(String name) {
+    int dollar = name.indexOf('$');
+    return dollar < 0 ? name : name.substring(0, dollar);
+  }
+
+  /** Create a copy of the given configuration that selects the given classes only. */
+  static Configuration select(Configuration configuration, Set<String> classes) {
+    Configuration.Basic basic = configuration.basic();
+    Configuration.Discovery discovery = configuration.discovery();
+    return new ConfigurationBuilder()
+        .setDryRun(basic.isDryRun())
+        .setFailIfNoTests(false)
+        .setPlatformClassLoader(basic.isPlatformClassLoader())
+        .setDefaultAssertionStatus(basic.isDefaultAssertionStatus())
+        .setTargetDirectory(basic.getTargetDirectory())
+        .setWorkerCoordinates(basic.getWorkerCoordinates())
+        .setWorkerClassName(basic.getWorkerClassName())
+        .setWorkerIsolationRequired(basic.isWorkerIsolationRequired())
+        .setPaths(basic.getPaths())
+        .setTargetMainPath(basic.getTargetMainPath())
+        .setTargetTestPath(basic.getTargetTestPath())
+        .setModuleInfoTestPath(basic.getModuleInfoTestPath())
+        .launcher()
+        .setTestEngineAutoRegistration(configuration.launcher().isTestEngineAutoRegistration())
+        .setTestExecutionListenerAutoRegistration(
+            configuration.launcher().isTestExecutionListenerAutoRegistration())
+        .end()
+        .discovery()
+        .setSelectedClasses(classes)
+        .setFilterClassNamePatterns(discovery.getFilterClassNamePatterns())
+        .setFilterTags(discovery.getFilterTags())
+        .setParameters(discovery.getParameters())
+        .end()
+        .build();
+  }
+
+  private Set<String> readFailedClasses() {
+    Set<String> classes = new TreeSet<>();
+    try {
+      for (Path report : TestReports.find(Paths.get(configuration.basic().getTargetDirectory()))) {
+        TestReports.read(
+            report,
+            testCase -> {
+              if (testCase.isFailure()) {
+                classes.add(testCase.topLevelClassName());
+              }
+            });
+      }
+    } catch (IOException | XMLStreamException e) {
+      mojo.warn("Reading test reports failed: {0}", e.getMessage());
+    }
+    return classes;
+  }
+
+  private void register(WatchService service, Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      mojo.debug("Not watching missing directory {0}", root);
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path directory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+        directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      }
+    }
+  }
+
+  /** Collect changed class files of the given key, return {@code true} if events were lost. */
+  private boolean collect(WatchService service, WatchKey key, Set<Path> changed)
+      throws IOException {
+    boolean overflow = false;
+    Path directory = (Path) key.watchable();
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+      Path path = directory.resolve((Path) event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        register(service, path);
+        try (Stream<Path> paths = Files.walk(path)) {
+          paths.filter(file -> file.toString().endsWith(".class")).forEach(changed::add);
+        }
+      } else if (path.toString().endsWith(".class")) {
+        changed.add(path);
+      }
+    }
+    key.reset();
+    return overflow;
+  }
+
+  private void log(String level, String message) {
+    switch (level) {
+      case "debug":
+        mojo.getLog().debug(message);
+        break;
+      case "warn":
+        mojo.getLog().warn(message);
+        break;
+      case "error":
+        mojo.getLog().error(message);
+        break;
+      default:
+        mojo.getLog().info(message);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    warmLoader.close();
+  }
+}
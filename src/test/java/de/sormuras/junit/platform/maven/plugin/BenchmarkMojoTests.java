@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BenchmarkMojoTests {
+
+  private static final String RESULT =
+      String.join(
+          "\n",
+          "[",
+          "  {",
+          "    \"jmhVersion\" : \"1.37\",",
+          "    \"benchmark\" : \"a.FooBenchmark.run\",",
+          "    \"mode\" : \"thrpt\",",
+          "    \"params\" : { \"size\" : \"10\" },",
+          "    \"primaryMetric\" : {",
+          "      \"score\" : 1234.5,",
+          "      \"scoreError\" : \"NaN\",",
+          "      \"scoreUnit\" : \"ops/s\",",
+          "      \"rawData\" : [ [ 1234.5 ] ]",
+          "    },",
+          "    \"secondaryMetrics\" : { }",
+          "  },",
+          "  {",
+          "    \"benchmark\" : \"a.FooBenchmark.run\",",
+          "    \"mode\" : \"avgt\",",
+          "    \"primaryMetric\" : { \"score\" : 0.5, \"scoreUnit\" : \"ms/op\" }",
+          "  }",
+          "]");
+
+  @Test
+  void readScores(@TempDir Path temp) throws Exception {
+    Path file = Files.write(temp.resolve("jmh-result.json"), RESULT.getBytes("UTF-8"));
+    Map<String, BenchmarkMojo.Score> scores = BenchmarkMojo.readScores(file);
+    assertEquals(
+        List.of("a.FooBenchmark.run{size=10} [thrpt]", "a.FooBenchmark.run [avgt]"),
+        List.copyOf(scores.keySet()));
+    assertEquals(1234.5, scores.get("a.FooBenchmark.run{size=10} [thrpt]").score);
+    assertEquals("0.500 ms/op", scores.get("a.FooBenchmark.run [avgt]").toString());
+  }
+
+  @Test
+  void detectRegressions() {
+    BenchmarkMojo.Score throughput = new BenchmarkMojo.Score("thrpt", 100, "ops/s");
+    assertFalse(new BenchmarkMojo.Score("thrpt", 95, "ops/s").isRegression(throughput, 10));
+    assertFalse(new BenchmarkMojo.Score("thrpt", 200, "ops/s").isRegression(throughput, 10));
+    assertTrue(new BenchmarkMojo.Score("thrpt", 85, "ops/s").isRegression(throughput, 10));
+
+    BenchmarkMojo.Score time = new BenchmarkMojo.Score("avgt", 100, "ms/op");
+    assertFalse(new BenchmarkMojo.Score("avgt", 105, "ms/op").isRegression(time, 10));
+    assertFalse(new BenchmarkMojo.Score("avgt", 50, "ms/op").isRegression(time, 10));
+    assertTrue(new BenchmarkMojo.Score("avgt", 115, "ms/op").isRegression(time, 10));
+  }
+}
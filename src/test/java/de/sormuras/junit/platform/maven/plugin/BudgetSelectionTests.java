@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BudgetSelectionTests {
+
+  private static ClassHistory.Entry entry(long duration, double failureRate) {
+    return new ClassHistory.Entry(duration, 10, failureRate);
+  }
+
+  @Test
+  void selectMostValuableClassesThatFitTheBudget() {
+    Map<String, ClassHistory.Entry> history =
+        Map.of(
+            "Slow", entry(4000, 0.5),
+            "Flaky", entry(500, 0.5),
+            "Stable", entry(100, 0),
+            "Heavy", entry(2000, 0));
+    List<String> candidates = List.of("Slow", "Flaky", "Stable", "Heavy", "New");
+    BudgetSelection selection = BudgetSelection.select(candidates, Set.of(), history, 3000, 1000);
+    assertEquals(List.of("Flaky", "New", "Stable"), selection.getSelected());
+    assertEquals(List.of("Slow", "Heavy"), selection.getDeferred());
+    assertEquals(1600, selection.getExpected());
+    assertEquals(6000, selection.getDeferredDuration());
+  }
+
+  @Test
+  void relatedClassesAreSelectedFirst() {
+    Map<String, ClassHistory.Entry> history =
+        Map.of("Flaky", entry(500, 0.5), "Heavy", entry(2000, 0));
+    BudgetSelection selection =
+        BudgetSelection.select(List.of("Flaky", "Heavy"), Set.of("Heavy"), history, 2000, 1000);
+    assertEquals(List.of("Heavy"), selection.getSelected());
+    assertEquals(List.of("Flaky"), selection.getDeferred());
+    assertEquals(1, selection.getRelated());
+  }
+
+  @Test
+  void findRelatedTestClasses(@TempDir Path temp) throws Exception {
+    Path tests = temp.resolve("test-classes");
+    Path main = temp.resolve("classes");
+    Path testClasses =
+        Paths.get(
+            BudgetSelectionTests.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    for (Class<?> type : List.of(TweaksTests.class, JsonTests.class, ClassHistoryTests.class)) {
+      String file = type.getName().replace('.', '/') + ".class";
+      Files.createDirectories(tests.resolve(file).getParent());
+      Files.copy(testClasses.resolve(file), tests.resolve(file));
+      Files.setLastModifiedTime(tests.resolve(file), FileTime.fromMillis(1000));
+    }
+    Path changedTest = tests.resolve(JsonTests.class.getName().replace('.', '/') + ".class");
+    Files.setLastModifiedTime(changedTest, FileTime.fromMillis(3000));
+    Path changedMain = main.resolve(Tweaks.class.getName().replace('.', '/') + ".class");
+    Files.createDirectories(changedMain.getParent());
+    Files.write(changedMain, new byte[0]);
+    Files.setLastModifiedTime(changedMain, FileTime.fromMillis(3000));
+
+    assertEquals(
+        Set.of(TweaksTests.class.getName(), JsonTests.class.getName()),
+        BudgetSelection.findRelated(List.of(tests), List.of(main), 2000));
+    assertEquals(Set.of(), BudgetSelection.findRelated(List.of(tests), List.of(main), 0));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CapturingOutputStreamTests {
+
+  @Test
+  void routeOutputOfCurrentTestIntoItsBuffer() {
+    ByteArrayOutputStream original = new ByteArrayOutputStream();
+    ThreadLocal<String> current = new ThreadLocal<>();
+    Map<String, ByteArrayOutputStream> buffers = new HashMap<>();
+    buffers.put("a", new ByteArrayOutputStream());
+    PrintStream stream =
+        new PrintStream(new CapturingOutputStream(original, current, buffers, 100), true);
+
+    stream.print("before");
+    current.set("a");
+    stream.print("captured");
+    current.set("unknown");
+    stream.print("-after");
+
+    assertEquals("before-after", original.toString(UTF_8));
+    assertEquals("captured", buffers.get("a").toString(UTF_8));
+  }
+
+  @Test
+  void keepLastBytesOfOverflowingBuffer() {
+    ThreadLocal<String> current = ThreadLocal.withInitial(() -> "a");
+    Map<String, ByteArrayOutputStream> buffers = new HashMap<>();
+    buffers.put("a", new ByteArrayOutputStream());
+    PrintStream stream =
+        new PrintStream(
+            new CapturingOutputStream(new ByteArrayOutputStream(), current, buffers, 4), true);
+
+    stream.print("0123456789");
+
+    assertEquals("6789", buffers.get("a").toString(UTF_8));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassFilePatternsTests {
+
+  @Test
+  void translateAntStylePatterns() {
+    assertEquals("(?:.*/)?[^/]*Test\\.class", ClassFilePatterns.toRegex("**/*Test.java"));
+    assertEquals("a/b/C[^/]\\.class", ClassFilePatterns.toRegex("/a/b/C?.class"));
+    assertEquals("a/.*\\.class", ClassFilePatterns.toRegex("a/**"));
+    assertNull(ClassFilePatterns.compile(List.of()));
+    assertNull(ClassFilePatterns.compile(List.of(" ")));
+  }
+
+  @Test
+  void matchIncludesAndExcludes() {
+    ClassFilePatterns patterns =
+        new ClassFilePatterns(
+            List.of("**/*Test.java", "**/Test*", "%regex[.*Check.*]"),
+            List.of("**/slow/**", "**/Abstract*"));
+    assertFalse(patterns.isEmpty());
+    assertTrue(patterns.matches("FooTest.class"));
+    assertTrue(patterns.matches("a/b/FooTest.class"));
+    assertTrue(patterns.matches("a/TestFoo.class"));
+    assertTrue(patterns.matches("a/SanityCheck.class"));
+    assertFalse(patterns.matches("a/FooTests.class"));
+    assertFalse(patterns.matches("a/slow/FooTest.class"));
+    assertFalse(patterns.matches("a/AbstractTest.class"));
+    assertFalse(patterns.matches("a/FooTest$Nested.class"));
+    assertFalse(patterns.matches("a/FooTest.txt"));
+  }
+
+  @Test
+  void matchExcludesOnly() {
+    ClassFilePatterns patterns = new ClassFilePatterns(List.of(), List.of("**/*IT.java"));
+    assertTrue(patterns.matches("a/Foo.class"));
+    assertFalse(patterns.matches("a/FooIT.class"));
+    assertFalse(patterns.matches("a/package-info.class"));
+    assertTrue(new ClassFilePatterns(null, null).isEmpty());
+  }
+
+  @Test
+  void scanOutputDirectories(@TempDir Path temp) throws Exception {
+    for (String name :
+        List.of("a/ATest", "a/ATest$Nested", "a/b/BTest", "a/Helper", "module-info")) {
+      Path file = temp.resolve(name + ".class");
+      Files.createDirectories(file.getParent());
+      Files.createFile(file);
+    }
+    ClassFilePatterns patterns = new ClassFilePatterns(List.of("**/*Test.java"), List.of());
+    Set<String> names = patterns.scan(List.of(temp, temp.resolve("missing")));
+    assertEquals(List.of("a.ATest", "a.b.BTest"), List.copyOf(names));
+  }
+}
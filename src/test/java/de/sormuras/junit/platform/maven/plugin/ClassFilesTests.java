@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassFilesTests {
+
+  private static Path testClasses() throws Exception {
+    return Paths.get(
+        ClassFilesTests.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+  }
+
+  @Test
+  void listClassNames() throws Exception {
+    List<String> names = ClassFiles.listClassNames(testClasses());
+    assertTrue(names.contains(ClassFilesTests.class.getName()));
+    assertTrue(names.contains("it.Verifier"));
+  }
+
+  @Test
+  void findReferencesInConstantPools(@TempDir Path temp) throws Exception {
+    // copy a single test class, this class' constant pool contains the markers as literals
+    String file = TweaksTests.class.getName().replace('.', '/') + ".class";
+    Path target = temp.resolve(file);
+    Files.createDirectories(target.getParent());
+    Files.copy(testClasses().resolve(file), target);
+    Set<String> found =
+        ClassFiles.findReferences(List.of(temp), List.of("org/junit/jupiter/", "Lorg/junit/Test;"));
+    assertEquals(Set.of("org/junit/jupiter/"), found);
+  }
+
+  @Test
+  void findReferencingClasses(@TempDir Path temp) throws Exception {
+    for (Class<?> type : List.of(TweaksTests.class, JsonTests.class)) {
+      String file = type.getName().replace('.', '/') + ".class";
+      Path target = temp.resolve(file);
+      Files.createDirectories(target.getParent());
+      Files.copy(testClasses().resolve(file), target);
+    }
+    String tweaks = Tweaks.class.getName().replace('.', '/');
+    assertEquals(
+        Set.of(TweaksTests.class.getName()),
+        ClassFiles.findReferencingClasses(List.of(temp), List.of(tweaks)));
+    assertEquals(
+        Set.of(), ClassFiles.findReferencingClasses(List.of(temp), List.of("not/Referenced")));
+  }
+}
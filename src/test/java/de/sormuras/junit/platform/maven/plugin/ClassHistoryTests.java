@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassHistoryTests {
+
+  @Test
+  void recordReportsPerTopLevelClass(@TempDir Path temp) throws Exception {
+    Files.write(temp.resolve("TEST-junit-jupiter.xml"), TestReportsTests.REPORT.getBytes("UTF-8"));
+    Path stale = temp.resolve("performance").resolve("TEST-junit-jupiter.xml");
+    Files.createDirectories(stale.getParent());
+    Files.write(stale, TestReportsTests.REPORT.replace("a.", "b.").getBytes("UTF-8"));
+    Files.setLastModifiedTime(stale, FileTime.fromMillis(1000));
+
+    ClassHistory history = new ClassHistory();
+    history.record(temp, 5000);
+    Map<String, ClassHistory.Entry> entries = history.getEntries();
+    assertEquals(Set.of("a.FooTests", "a.BarTests"), entries.keySet());
+    assertEquals(1000750L, entries.get("a.FooTests").duration);
+    assertEquals(1.0, entries.get("a.FooTests").failureRate);
+    assertEquals(0.0, entries.get("a.BarTests").failureRate);
+    assertEquals(5000, history.getTimestamp());
+  }
+
+  @Test
+  void mergeSmoothsDurationsAndDecaysFailureRates(@TempDir Path temp) {
+    ClassHistory history = new ClassHistory();
+    history.record(Map.of("a.FooTests", 100L), Set.of("a.FooTests"), 1);
+    history.record(Map.of("a.FooTests", 300L), Set.of(), 2);
+    ClassHistory.Entry entry = history.getEntries().get("a.FooTests");
+    assertEquals(200, entry.duration);
+    assertEquals(2, entry.runs);
+    assertEquals(0.75, entry.failureRate);
+
+    Path file = temp.resolve(ClassHistory.FILE_NAME);
+    history.store(file);
+    ClassHistory loaded = ClassHistory.load(file);
+    assertEquals(2, loaded.getTimestamp());
+    assertEquals(entry.toString(), loaded.getEntries().get("a.FooTests").toString());
+    assertTrue(ClassHistory.load(temp.resolve("missing")).getEntries().isEmpty());
+  }
+}
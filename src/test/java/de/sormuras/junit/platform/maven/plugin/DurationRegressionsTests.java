@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurationRegressionsTests {
+
+  @Test
+  void collectDurationsPerClassAndPerTest(@TempDir Path temp) throws Exception {
+    Files.write(temp.resolve("TEST-junit-jupiter.xml"), TestReportsTests.REPORT.getBytes("UTF-8"));
+
+    List<Path> reports = TestReports.find(temp);
+    Map<String, Long> classes = DurationRegressions.collect(reports, false, new ArrayList<>());
+    assertEquals(
+        Map.of("a.FooTests", 1000750L, "a.FooTests$Nested", 0L, "a.BarTests", 0L), classes);
+    Map<String, Long> tests = DurationRegressions.collect(reports, true, new ArrayList<>());
+    assertEquals(250L, tests.get("a.FooTests#green()"));
+    assertEquals(4, tests.size());
+  }
+
+  @Test
+  void collectReadsTruncatedReportsPartially(@TempDir Path temp) throws Exception {
+    String report = TestReportsTests.REPORT;
+    Path truncated = temp.resolve("TEST-junit-jupiter.xml");
+    Files.write(truncated, report.substring(0, report.indexOf("a.BarTests")).getBytes("UTF-8"));
+
+    List<Path> partial = new ArrayList<>();
+    Map<String, Long> classes = DurationRegressions.collect(List.of(truncated), false, partial);
+    assertEquals(List.of(truncated), partial);
+    assertEquals(1000750L, classes.get("a.FooTests"));
+  }
+
+  @Test
+  void compareIgnoresNoiseAndNewEntries() {
+    Map<String, Long> baseline = Map.of("fast", 10L, "slow", 1000L, "steady", 1000L, "gone", 5L);
+    Map<String, Long> current = Map.of("fast", 100L, "slow", 2500L, "steady", 1200L, "new", 9L);
+
+    List<DurationRegressions.Regression> regressions =
+        DurationRegressions.compare(baseline, current, 50, 250);
+    assertEquals(List.of("slow"), names(regressions));
+    assertEquals(1500L, regressions.get(0).increase());
+    assertEquals(150.0, regressions.get(0).changeInPercent());
+
+    assertEquals(
+        List.of("slow", "steady", "fast"),
+        names(DurationRegressions.compare(baseline, current, 10, 0)));
+  }
+
+  @Test
+  void storeAndLoadBaseline(@TempDir Path temp) {
+    Path file = temp.resolve("durations.properties");
+    Map<String, Long> durations = Map.of("a.FooTests#green()", 250L, "a.BarTests", 0L);
+    DurationRegressions.store(file, durations);
+    assertEquals(durations, DurationRegressions.load(file));
+  }
+
+  private static List<String> names(List<DurationRegressions.Regression> regressions) {
+    return regressions.stream().map(regression -> regression.name).collect(Collectors.toList());
+  }
+}
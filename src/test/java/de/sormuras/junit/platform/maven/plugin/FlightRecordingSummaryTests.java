@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestIdentifier;
+
+class FlightRecordingSummaryTests {
+
+  @Test
+  void timelineFindsInnermostTestClass() {
+    FlightRecordingSummary.Timeline timeline = new FlightRecordingSummary.Timeline();
+    timeline.add(1, "a.Outer", 100, 900);
+    timeline.add(1, "a.Outer$Inner", 200, 300);
+    timeline.add(1, "a.Second", 950, 990);
+    timeline.add(2, "b.Other", 0, 1000);
+
+    assertNull(timeline.find(1, 50));
+    assertEquals("a.Outer", timeline.find(1, 150));
+    assertEquals("a.Outer$Inner", timeline.find(1, 250));
+    assertEquals("a.Outer", timeline.find(1, 350));
+    assertNull(timeline.find(1, 920));
+    assertEquals("a.Second", timeline.find(1, 960));
+    assertNull(timeline.find(3, 500));
+    assertEquals(Set.of("a.Outer$Inner", "b.Other"), timeline.findAll(250));
+  }
+
+  @Test
+  void recordAndSummarize(@TempDir Path temp) throws Exception {
+    String className = "a.BusyTests";
+    TestIdentifier identifier =
+        TestIdentifier.from(
+            new AbstractTestDescriptor(
+                UniqueId.forEngine("busy").append("class", className),
+                "BusyTests",
+                ClassSource.from(className)) {
+              @Override
+              public Type getType() {
+                return Type.CONTAINER;
+              }
+            });
+
+    FlightRecording recording = FlightRecording.start(FlightRecording.writeSettings(temp));
+    ProfilingListener listener = new ProfilingListener();
+    listener.executionStarted(identifier);
+    long checksum = busy();
+    listener.executionFinished(identifier, TestExecutionResult.successful());
+    Path file = temp.resolve(FlightRecording.FILE_NAME);
+    recording.stop(file);
+
+    JUnitPlatformMojo mojo = new JUnitPlatformMojo();
+    RecordingLog log = new RecordingLog();
+    mojo.setLog(log);
+    FlightRecordingSummary summary = new FlightRecordingSummary(mojo, List.of());
+    summary.summarize(file, 5);
+    FlightRecordingSummary.Profile profile = summary.getProfiles().get(className);
+    assertTrue(profile.samples > 0, "no samples attributed, checksum " + checksum);
+    Path summaryFile = temp.resolve(FlightRecordingSummary.FILE_NAME);
+    String text = Files.readString(summaryFile);
+    assertTrue(text.contains(className), text);
+
+    assertEquals("Flight recording summary written to " + summaryFile, log.lines.get(0));
+    assertTrue(log.lines.size() >= 2, String.join("\n", log.lines));
+    assertTrue(
+        log.lines.stream().noneMatch(line -> line.startsWith("[WARNING]")), log.lines::toString);
+    // the busiest test class comes first, unattributed samples may follow
+    assertTrue(log.lines.get(1).contains(" sample(s) | "), log.lines.get(1));
+    assertTrue(log.lines.get(1).contains(className), log.lines.get(1));
+  }
+
+  /** Collects info and warning messages instead of printing them to the build output. */
+  static class RecordingLog extends SystemStreamLog {
+
+    final List<String> lines = new ArrayList<>();
+
+    @Override
+    public void info(CharSequence content) {
+      lines.add(content.toString());
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+      lines.add("[WARNING] " + content);
+    }
+  }
+
+  private static long busy() {
+    long checksum = 0;
+    long end = System.nanoTime() + 500_000_000L;
+    while (System.nanoTime() < end) {
+      for (int i = 0; i < 10_000; i++) {
+        checksum += Long.toString(checksum * 31 + i).hashCode();
+      }
+    }
+    return checksum;
+  }
+}
@@ -19,8 +19,13 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
+import java.util.List;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.Test;
 
 class JUnitPlatformMojoTests {
@@ -30,6 +35,9 @@ class JUnitPlatformMojoTests {
     JUnitPlatformMojo mojo = new JUnitPlatformMojo();
 
     assertFalse(mojo.isDryRun());
+    assertFalse(mojo.isAsync());
+    assertFalse(mojo.isProfile());
+    assertFalse(mojo.getDurationGate().enabled);
     assertEquals(Executor.DIRECT, mojo.getExecutor());
     assertEquals(Isolation.NONE, mojo.getIsolation());
     assertEquals(300L, mojo.getTimeout());
@@ -49,4 +57,50 @@ class JUnitPlatformMojoTests {
     assertSame(Collections.EMPTY_LIST, javaOptions.overrideJavaOptions);
     assertSame(Collections.EMPTY_LIST, javaOptions.overrideLauncherOptions);
   }
+
+  @Test
+  void awaitIsScheduledByGoalOrExecution() {
+    MavenProject project = new MavenProject();
+    Plugin plugin = new Plugin();
+    plugin.setGroupId("de.sormuras.junit");
+    plugin.setArtifactId("junit-platform-maven-plugin");
+    project.getBuild().addPlugin(plugin);
+    project.setArtifactId("project");
+    MavenProject earlier = new MavenProject();
+    earlier.setArtifactId("earlier");
+    List<MavenProject> projects = List.of(earlier, project);
+
+    assertFalse(JUnitPlatformMojo.isAwaitScheduled(List.of("verify"), projects, project));
+    assertTrue(
+        JUnitPlatformMojo.isAwaitScheduled(
+            List.of("verify", "junit-platform:await"), projects, project));
+    PluginExecution execution = new PluginExecution();
+    execution.addGoal("await");
+    plugin.addExecution(execution);
+    assertTrue(JUnitPlatformMojo.isAwaitScheduled(List.of("verify"), projects, project));
+    assertTrue(JUnitPlatformMojo.isAwaitScheduled(List.of("install"), projects, earlier));
+    assertFalse(JUnitPlatformMojo.isAwaitScheduled(List.of("test"), projects, project));
+    assertFalse(
+        JUnitPlatformMojo.isAwaitScheduled(List.of("junit-platform:launch"), projects, project));
+    execution.setPhase("test");
+    assertTrue(JUnitPlatformMojo.isAwaitScheduled(List.of("test"), projects, project));
+  }
+
+  @Test
+  void awaitBoundInAnEarlierProjectIsNotScheduled() {
+    MavenProject project = new MavenProject();
+    Plugin plugin = new Plugin();
+    plugin.setGroupId("de.sormuras.junit");
+    plugin.setArtifactId("junit-platform-maven-plugin");
+    PluginExecution execution = new PluginExecution();
+    execution.addGoal("await");
+    plugin.addExecution(execution);
+    project.getBuild().addPlugin(plugin);
+    project.setArtifactId("project");
+    MavenProject later = new MavenProject();
+    later.setArtifactId("later");
+
+    List<MavenProject> projects = List.of(project, later);
+    assertFalse(JUnitPlatformMojo.isAwaitScheduled(List.of("verify"), projects, later));
+  }
 }
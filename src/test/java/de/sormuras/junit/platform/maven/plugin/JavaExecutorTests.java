@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JavaExecutorTests {
+
+  @Test
+  void engineForksAreDisabledByDefault() {
+    assertSame(Collections.EMPTY_LIST, new JavaOptions().engineForks);
+    assertEquals(1, new JavaOptions().forkCount);
+  }
+
+  @Test
+  void engineForksIncludeARemainderForkExcludingAllListedEngines() {
+    Map<String, List<List<String>>> forks =
+        JavaExecutor.createEngineForks(List.of("junit-jupiter", "junit-vintage"));
+    assertEquals(
+        List.of("junit-jupiter", "junit-vintage", JavaExecutor.REMAINING_ENGINES_FORK),
+        List.copyOf(forks.keySet()));
+    assertEquals(
+        List.of(List.of(), List.of("--include-engine=junit-vintage")), forks.get("junit-vintage"));
+    assertEquals(
+        List.of(
+            List.of(), List.of("--exclude-engine=junit-jupiter", "--exclude-engine=junit-vintage")),
+        forks.get(JavaExecutor.REMAINING_ENGINES_FORK));
+  }
+
+  @Test
+  void forkPartitionFilterAssignsNestedClassesWithTheirTopLevelClass() {
+    int fork = ForkPartitionFilter.assign("a.BTests", 3);
+    assertTrue(fork >= 0 && fork < 3);
+    assertEquals(fork, ForkPartitionFilter.assign("a.BTests$Nested", 3));
+    assertEquals(0, ForkPartitionFilter.assign("a.BTests", 1));
+  }
+
+  @Test
+  void argumentFilesAreSupportedSinceJava9(@TempDir Path temp) throws Exception {
+    Path java = Files.createDirectories(temp.resolve("bin")).resolve("java");
+    assertFalse(JavaExecutor.supportsArgumentFiles(java));
+    Files.write(temp.resolve("release"), List.of("JAVA_VERSION=\"1.8.0_202\""));
+    assertFalse(JavaExecutor.supportsArgumentFiles(java));
+    Files.write(temp.resolve("release"), List.of("IMPLEMENTOR=x", "JAVA_VERSION=\"11.0.2\""));
+    assertTrue(JavaExecutor.supportsArgumentFiles(java));
+  }
+
+  @Test
+  void argumentFileIsReadByJava(@TempDir Path temp) throws Exception {
+    Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+    assertTrue(JavaExecutor.supportsArgumentFiles(java));
+    String value = "a b\\c\"d#e";
+    Path file = temp.resolve(JavaExecutor.ARGUMENT_FILE_NAME);
+    JavaExecutor.writeArgumentFile(file, List.of("-Dargument.file.value=" + value));
+    Process process =
+        new ProcessBuilder(java.toString(), "@" + file, "-XshowSettings:properties", "-version")
+            .redirectErrorStream(true)
+            .start();
+    String output = new String(process.getInputStream().readAllBytes());
+    assertEquals(0, process.waitFor());
+    assertTrue(output.contains("argument.file.value = " + value), output);
+  }
+
+  @Test
+  void mergeExitValues() {
+    assertEquals(0, JavaExecutor.mergeExitValues(List.of()));
+    assertEquals(0, JavaExecutor.mergeExitValues(List.of(0, 0)));
+    assertEquals(0, JavaExecutor.mergeExitValues(List.of(2, 0)));
+    assertEquals(2, JavaExecutor.mergeExitValues(List.of(2, 2)));
+    assertEquals(1, JavaExecutor.mergeExitValues(List.of(0, 1)));
+    assertEquals(1, JavaExecutor.mergeExitValues(List.of(2, 1)));
+    assertEquals(-2, JavaExecutor.mergeExitValues(List.of(-2, 0)));
+  }
+
+  @Test
+  void mockitoAgentIsPreferredOverByteBuddyAgent(@TempDir Path temp) throws Exception {
+    Path byteBuddy = jar(temp.resolve("byte-buddy-agent-1.14.9.jar"), true);
+    Path mockito4 = jar(temp.resolve("mockito-core-4.11.0.jar"), false);
+    Path mockito5 = jar(temp.resolve("mockito-core-5.7.0.jar"), true);
+    Map<String, Set<String>> paths = new LinkedHashMap<>();
+    paths.put("main", Set.of(temp.resolve("classes").toString()));
+    assertEquals(Optional.empty(), JavaExecutor.findAgent(paths));
+    paths.put("test", Set.of(mockito4.toString(), byteBuddy.toString()));
+    assertEquals(Optional.of(byteBuddy), JavaExecutor.findAgent(paths));
+    paths.put("test", Set.of(mockito5.toString(), byteBuddy.toString()));
+    assertEquals(Optional.of(mockito5), JavaExecutor.findAgent(paths));
+  }
+
+  @Test
+  void containsAgent() {
+    assertFalse(JavaExecutor.containsAgent(List.of("-Xmx1g", "-javaagent:jacoco.jar")));
+    assertTrue(JavaExecutor.containsAgent(List.of("-javaagent:/m2/byte-buddy-agent-1.14.9.jar")));
+    assertTrue(JavaExecutor.containsAgent(List.of("-javaagent:/m2/mockito-core-5.7.0.jar")));
+  }
+
+  private static Path jar(Path file, boolean agent) throws Exception {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if (agent) {
+      manifest.getMainAttributes().putValue("Premain-Class", "Agent");
+    }
+    try (JarOutputStream stream = new JarOutputStream(Files.newOutputStream(file), manifest)) {
+      return file;
+    }
+  }
+}
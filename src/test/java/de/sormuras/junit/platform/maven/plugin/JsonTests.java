@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonTests {
+
+  @Test
+  void parseValues() {
+    assertEquals(Map.of(), Json.parse("{}"));
+    assertEquals(List.of(), Json.parse(" [ ] "));
+    assertEquals(1.5, Json.parse("1.5"));
+    assertEquals(-2.0E3, Json.parse("-2e3"));
+    assertEquals(true, Json.parse("true"));
+    assertNull(Json.parse("null"));
+    assertEquals("a\"b\né", Json.parse("\"a\\\"b\\n\\u00e9\""));
+  }
+
+  @Test
+  void parseNestedStructures() {
+    Object value = Json.parse("{\"a\": [1, {\"b\": \"c\"}], \"d\": false}");
+    assertEquals(Map.of("a", List.of(1.0, Map.of("b", "c")), "d", false), value);
+  }
+
+  @Test
+  void parseIllegalInput() {
+    assertThrows(IllegalArgumentException.class, () -> Json.parse("{"));
+    assertThrows(IllegalArgumentException.class, () -> Json.parse("[1,]"));
+    assertThrows(IllegalArgumentException.class, () -> Json.parse("\"open"));
+    assertThrows(IllegalArgumentException.class, () -> Json.parse("1 2"));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LaunchPlanTests {
+
+  @Test
+  void hashDependsOnAllInputsAndTheirBoundaries() {
+    String hash = LaunchPlan.hash(List.of("a", "b"));
+    assertEquals(64, hash.length());
+    assertEquals(hash, LaunchPlan.hash(List.of("a", "b")));
+    assertNotEquals(hash, LaunchPlan.hash(List.of("ab")));
+    assertNotEquals(hash, LaunchPlan.hash(List.of("b", "a")));
+  }
+
+  @Test
+  void describeListsInstanceFields() {
+    Tweaks tweaks = new Tweaks();
+    String before = LaunchPlan.describe(tweaks);
+    assertTrue(before.contains("cacheLaunchPlan=false"), before);
+    tweaks.moveTestEnginesToLauncherClassLoader = !tweaks.moveTestEnginesToLauncherClassLoader;
+    assertNotEquals(before, LaunchPlan.describe(tweaks));
+  }
+
+  @Test
+  void storeAndLoad(@TempDir Path temp) throws Exception {
+    Path main = Files.createDirectory(temp.resolve("main"));
+    Path test = Files.createFile(temp.resolve("test.jar"));
+    Map<String, Set<String>> paths = new LinkedHashMap<>();
+    paths.put("main", new LinkedHashSet<>(List.of(main.toString())));
+    paths.put("test", new LinkedHashSet<>(List.of(test.toString(), main.toString())));
+    Path file = temp.resolve(LaunchPlan.FILE_NAME);
+    LaunchPlan.store(file, "123", paths);
+
+    Map<String, Set<String>> loaded = LaunchPlan.load(file, "123").orElseThrow();
+    assertEquals(paths, loaded);
+    assertEquals(List.of("main", "test"), List.copyOf(loaded.keySet()));
+    assertEquals(List.of(test.toString(), main.toString()), List.copyOf(loaded.get("test")));
+
+    assertFalse(LaunchPlan.load(file, "456").isPresent());
+    assertFalse(LaunchPlan.load(temp.resolve("missing.properties"), "123").isPresent());
+    Files.delete(main);
+    assertTrue(LaunchPlan.load(file, "123").isPresent());
+    Files.delete(test);
+    assertFalse(LaunchPlan.load(file, "123").isPresent());
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.jar.JarFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LauncherExtensionsTests {
+
+  @Test
+  void writeJarWithListenerServiceAndProperties(@TempDir Path temp) throws Exception {
+    String listener = ResourceUsageListener.class.getName();
+    LauncherExtensions extensions = new LauncherExtensions();
+    assertTrue(extensions.isEmpty());
+    Path jar =
+        extensions
+            .addListener(listener)
+            .addClass(PerformanceLauncher.class.getName())
+            .setProperty("key", "value")
+            .write(temp);
+
+    assertEquals(LauncherExtensions.JAR_NAME, jar.getFileName().toString());
+    try (JarFile file = new JarFile(jar.toFile())) {
+      String name = file.getManifest().getMainAttributes().getValue("Automatic-Module-Name");
+      assertEquals(LauncherExtensions.MODULE_NAME, name);
+      assertNotNull(file.getEntry(listener.replace('.', '/') + ".class"));
+      String services =
+          new String(
+              file.getInputStream(
+                      file.getEntry(
+                          "META-INF/services/org.junit.platform.launcher.TestExecutionListener"))
+                  .readAllBytes(),
+              StandardCharsets.UTF_8);
+      assertEquals(listener + "\n", services);
+      String main = PerformanceLauncher.class.getName().replace('.', '/') + ".class";
+      assertNotNull(file.getEntry(main));
+      String packagePath = getClass().getPackage().getName().replace('.', '/');
+      Properties properties = new Properties();
+      properties.load(
+          file.getInputStream(file.getEntry(packagePath + '/' + LauncherExtensions.PROPERTIES)));
+      assertEquals("value", properties.getProperty("key"));
+    }
+  }
+
+  @Test
+  void describeChangesWithListenersAndProperties() {
+    String listener = ProfilingListener.class.getName();
+    String empty = new LauncherExtensions().describe();
+    String profiling = new LauncherExtensions().addListener(listener).describe();
+    assertNotEquals(empty, profiling);
+    assertEquals(profiling, new LauncherExtensions().addListener(listener).describe());
+    LauncherExtensions configured = new LauncherExtensions().addListener(listener);
+    assertNotEquals(profiling, configured.setProperty("key", "value").describe());
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MojoHelperTests {
+
+  @Test
+  void convertUserPropertyValues() {
+    assertEquals("a", MojoHelper.convert(String.class, "a"));
+    assertEquals(true, MojoHelper.convert(boolean.class, "true"));
+    assertEquals(4, MojoHelper.convert(int.class, " 4"));
+    assertEquals(100L, MojoHelper.convert(long.class, "100 "));
+    assertEquals(0.5, MojoHelper.convert(double.class, "0.5"));
+    assertEquals(List.of("a", "b"), MojoHelper.convert(List.class, "a,b"));
+    assertEquals(Map.of("a", "1", "b", "2"), MojoHelper.convert(Map.class, "a=1,b=2"));
+    assertThrows(IllegalArgumentException.class, () -> MojoHelper.convert(Object.class, "a"));
+  }
+
+  @Test
+  void allOptionsConfigurableByUserPropertiesHaveSupportedTypes() {
+    for (Object dto : List.of(new JavaOptions(), new Tweaks())) {
+      for (Field field : dto.getClass().getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        Class<?> type = field.getType();
+        String value = type == List.class || type == Map.class ? "a=1" : "1";
+        MojoHelper.convert(type, value);
+      }
+    }
+  }
+}
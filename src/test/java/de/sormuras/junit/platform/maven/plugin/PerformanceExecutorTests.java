@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PerformanceExecutorTests {
+
+  @Test
+  void performanceLaneIsDisabledByDefault() {
+    assertFalse(new PerformanceOptions().isEnabled());
+  }
+
+  @Test
+  void excludeLaneTagsFromMainSuite() {
+    Set<String> lane = Set.of("perf");
+    assertEquals(Set.of("!(perf)"), PerformanceExecutor.excludeTags(null, lane));
+    assertEquals(Set.of("!(perf)"), PerformanceExecutor.excludeTags(Set.of(), lane));
+    assertEquals(
+        Set.of("(fast | slow) & !(perf)"),
+        PerformanceExecutor.excludeTags(Set.of("fast | slow"), lane));
+  }
+
+  @Test
+  void pinnedOptionsPrecedeMainClass() {
+    JUnitPlatformMojo mojo = new JUnitPlatformMojo();
+    PerformanceExecutor executor = new PerformanceExecutor(mojo);
+    List<String> cmd = new ArrayList<>();
+    executor.addMainArguments(cmd, false);
+    assertEquals(
+        List.of(
+            "-Xms512m",
+            "-Xmx512m",
+            "-XX:+UseSerialGC",
+            "-XX:CICompilerCount=2",
+            "-XX:+AlwaysPreTouch",
+            "org.junit.platform.console.ConsoleLauncher"),
+        cmd);
+
+    mojo.getPerformanceOptions().warmupRuns = 2;
+    cmd.clear();
+    executor.addMainArguments(cmd, true);
+    assertEquals("-D" + PerformanceLauncher.WARMUP_RUNS_KEY + "=2", cmd.get(5));
+    assertEquals(
+        List.of(
+            "--module", LauncherExtensions.MODULE_NAME + '/' + PerformanceLauncher.class.getName()),
+        cmd.subList(6, 8));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcessLogTests {
+
+  private static List<String> write(Path file, String text, boolean compress, long maxSize)
+      throws Exception {
+    ProcessLog log =
+        new ProcessLog(new ByteArrayInputStream(text.getBytes(UTF_8)), file, compress, maxSize);
+    log.run();
+    assertEquals(text.length(), log.getBytes());
+    try (Stream<String> lines = ProcessLog.lines(file, UTF_8)) {
+      return lines.collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  void resolveCompressedLogFile(@TempDir Path temp) {
+    assertEquals(temp.resolve("a.log"), ProcessLog.resolve(temp, "a.log", false));
+    assertEquals(temp.resolve("a.log.gz"), ProcessLog.resolve(temp, "a.log", true));
+  }
+
+  @Test
+  void copyUnboundedLog(@TempDir Path temp) throws Exception {
+    String text = "1\n2\n3\n";
+    assertEquals(List.of("1", "2", "3"), write(temp.resolve("a.log"), text, false, 0));
+    assertEquals(List.of("1", "2", "3"), write(temp.resolve("a.log.gz"), text, true, 0));
+    assertEquals(text, Files.readString(temp.resolve("a.log")));
+  }
+
+  @Test
+  void retainHeadAndTailOfBoundedLog(@TempDir Path temp) throws Exception {
+    String text = "head\n" + "x".repeat(20_000) + "\ntail\n";
+    List<String> expected = List.of("head", "", "[... 20001 bytes omitted ...]", "tail");
+    assertEquals(expected, write(temp.resolve("a.log"), text, false, 10));
+    assertEquals(expected, write(temp.resolve("a.log.gz"), text, true, 10));
+  }
+
+  @Test
+  void keepBoundedLogBelowMaximumSizeUnchanged(@TempDir Path temp) throws Exception {
+    String text = "0123456789\n";
+    assertEquals(List.of("0123456789"), write(temp.resolve("a.log"), text, false, 100));
+    assertEquals(List.of("0123456789"), write(temp.resolve("b.log"), text, false, 16));
+  }
+
+  @Test
+  void growTailBufferBeyondItsInitialSizeBeforeWrappingAround(@TempDir Path temp) throws Exception {
+    String text = "head\n" + "x".repeat(50_000) + "\n" + "y".repeat(19_999) + "\ntail\n";
+    List<String> expected =
+        List.of(
+            "head",
+            "x".repeat(19_995),
+            "[... 30011 bytes omitted ...]",
+            "y".repeat(19_994),
+            "tail");
+    assertEquals(expected, write(temp.resolve("a.log"), text, false, 40_000));
+  }
+
+  @Test
+  void allocateTailBufferOnDemandOnly(@TempDir Path temp) throws Exception {
+    String text = "0123456789\n";
+    long huge = 8L * 1024 * 1024 * 1024;
+    assertEquals(List.of("0123456789"), write(temp.resolve("a.log"), text, false, huge));
+  }
+
+  @Test
+  void clampMaximumSizeToOneByteOfHeadAndTail(@TempDir Path temp) throws Exception {
+    String text = "0123456789\n";
+    List<String> expected = List.of("0", "[... 9 bytes omitted ...]", "");
+    assertEquals(expected, write(temp.resolve("a.log"), text, false, 1));
+  }
+
+  @Test
+  void recordFailureInsteadOfThrowing(@TempDir Path temp) {
+    Path file = temp.resolve("missing").resolve("a.log");
+    ProcessLog log = new ProcessLog(new ByteArrayInputStream(new byte[1]), file, false, 0);
+    assertFalse(log.getFailure().isPresent());
+    log.run();
+    assertTrue(log.getFailure().isPresent());
+  }
+}
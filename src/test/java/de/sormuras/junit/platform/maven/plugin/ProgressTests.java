@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProgressTests {
+
+  @Test
+  void estimateRemainingDuration() {
+    OptionalLong none = OptionalLong.empty();
+    assertEquals(
+        OptionalLong.of(7000), Progress.estimateRemaining(3000, 1, 9, OptionalLong.of(10000)));
+    assertEquals(OptionalLong.of(9000), Progress.estimateRemaining(3000, 1, 4, none));
+    assertEquals(
+        OptionalLong.of(1000), Progress.estimateRemaining(12000, 12, 13, OptionalLong.of(10000)));
+    assertEquals(none, Progress.estimateRemaining(3000, 0, 4, none));
+  }
+
+  @Test
+  void formatDuration() {
+    assertEquals("0s", Progress.formatDuration(-5));
+    assertEquals("59s", Progress.formatDuration(59_999));
+    assertEquals("1m 05s", Progress.formatDuration(65_000));
+    assertEquals("2h 00m 01s", Progress.formatDuration(7_201_000));
+  }
+
+  @Test
+  void readAndFormatProgressFile(@TempDir Path temp) throws Exception {
+    Path file = temp.resolve(Progress.FILE_NAME);
+    assertFalse(Progress.read(file).isPresent());
+    Files.write(
+        file,
+        List.of(
+            "started.at=1000",
+            "finished=false",
+            "tests.found=10",
+            "tests.started=6",
+            "tests.succeeded=3",
+            "tests.failed=1",
+            "tests.skipped=1",
+            "running.a.SlowTests=2000",
+            "running.a.FastTests=5000"));
+
+    Progress progress = Progress.read(file).orElseThrow();
+    assertEquals(5, progress.completed());
+    List<String> lines = progress.format(11000, OptionalLong.empty());
+    assertEquals(3, lines.size());
+    assertTrue(
+        lines.get(0).startsWith("Progress: 5 of 10 test(s) completed, 3 succeeded, 1 failed"));
+    assertTrue(lines.get(0).endsWith("elapsed 10s, ETA 10s"), lines.get(0));
+    assertEquals("  running a.SlowTests for 9s", lines.get(1));
+    assertEquals("  running a.FastTests for 6s", lines.get(2));
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReactorSchedulerTests {
+
+  @Test
+  void remainingDurationsFollowLongestDownstreamChain() {
+    MavenProject core = project("core");
+    MavenProject fast = project("fast");
+    MavenProject slow = project("slow");
+    MavenProject app = project("app");
+    Map<MavenProject, List<MavenProject>> downstream = new HashMap<>();
+    downstream.put(core, List.of(fast, slow));
+    downstream.put(fast, List.of(app));
+    downstream.put(slow, List.of());
+    downstream.put(app, List.of());
+
+    Map<MavenProject, Long> durations = new HashMap<>();
+    durations.put(core, 10L);
+    durations.put(fast, 5L);
+    durations.put(slow, 100L);
+    durations.put(app, 20L);
+
+    List<MavenProject> projects = List.of(core, fast, slow, app);
+    Map<MavenProject, Long> remaining =
+        ReactorScheduler.computeRemaining(projects, graph(projects, downstream), durations);
+
+    assertEquals(110L, remaining.get(core));
+    assertEquals(25L, remaining.get(fast));
+    assertEquals(100L, remaining.get(slow));
+    assertEquals(20L, remaining.get(app));
+  }
+
+  @Test
+  void historyStoresSmoothedSuiteDurations(@TempDir Path temp) {
+    History history = new History(temp);
+    MavenProject project = project("module");
+
+    assertFalse(history.loadSuiteDuration(project).isPresent());
+    history.storeSuiteDuration(project, 1000);
+    assertEquals(1000L, history.loadSuiteDuration(project).getAsLong());
+    history.storeSuiteDuration(project, 3000);
+    assertEquals(2000L, history.loadSuiteDuration(project).getAsLong());
+  }
+
+  private static MavenProject project(String artifactId) {
+    MavenProject project = new MavenProject();
+    project.setGroupId("group");
+    project.setArtifactId(artifactId);
+    return project;
+  }
+
+  private static ProjectDependencyGraph graph(
+      List<MavenProject> sorted, Map<MavenProject, List<MavenProject>> downstream) {
+    return new ProjectDependencyGraph() {
+      @Override
+      public List<MavenProject> getSortedProjects() {
+        return sorted;
+      }
+
+      @Override
+      public List<MavenProject> getDownstreamProjects(MavenProject project, boolean transitive) {
+        return downstream.get(project);
+      }
+
+      @Override
+      public List<MavenProject> getUpstreamProjects(MavenProject project, boolean transitive) {
+        List<MavenProject> upstream = new ArrayList<>();
+        downstream.forEach(
+            (key, value) -> {
+              if (value.contains(project)) {
+                upstream.add(key);
+              }
+            });
+        return upstream;
+      }
+    };
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReportMergerTests {
+
+  private static final String JUPITER =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<testsuite name=\"JUnit Jupiter\" tests=\"2\">\n"
+          + "  <testcase name=\"a()\" classname=\"x.ATests\" time=\"1.5\"/>\n"
+          + "  <testcase name=\"b()\" classname=\"x.ATests\" time=\"0.5\">\n"
+          + "    <failure message=\"boom\">trace &amp; more</failure>\n"
+          + "    <system-out><![CDATA[out]]></system-out>\n"
+          + "  </testcase>\n"
+          + "</testsuite>\n";
+
+  private static final String TRUNCATED =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<testsuites>\n"
+          + "<testsuite name=\"JUnit Vintage\">\n"
+          + "  <testcase name=\"c\" classname=\"x.CTest\" time=\"1\"><skipped/></testcase>\n"
+          + "  <testcase name=\"d\" classname=\"x.CTest\" time=\"1\">\n"
+          + "    <system-out>partial out";
+
+  @Test
+  void mergeCompleteAndPartialReports(@TempDir Path temp) throws Exception {
+    Path jupiter = Files.createDirectories(temp.resolve("junit-jupiter"));
+    Path vintage = Files.createDirectories(temp.resolve("junit-vintage"));
+    Files.writeString(jupiter.resolve("TEST-junit-jupiter.xml"), JUPITER);
+    Files.writeString(vintage.resolve("TEST-junit-vintage.xml"), TRUNCATED);
+    Files.writeString(temp.resolve("TEST-empty.xml"), "");
+
+    Path merged = temp.resolve(ReportMerger.XML_NAME);
+    ReportMerger.Summary summary = ReportMerger.merge(TestReports.find(temp), merged);
+
+    assertEquals(3, summary.tests());
+    assertEquals(1, summary.count(TestReports.Status.PASSED));
+    assertEquals(1, summary.count(TestReports.Status.FAILED));
+    assertEquals(1, summary.count(TestReports.Status.SKIPPED));
+    assertEquals(3, summary.reports.size());
+    assertEquals(2, summary.partial.size());
+    assertTrue(summary.toJson().contains("\"tests\": 3,"), summary.toJson());
+
+    String xml = Files.readString(merged);
+    assertTrue(xml.contains("<testsuites tests=\"3\" skipped=\"1\" failures=\"1\""), xml);
+    assertTrue(xml.contains("trace &amp; more"), xml);
+    assertTrue(xml.contains("<system-out>out</system-out>"), xml);
+    assertTrue(xml.contains("<!-- Partial report, truncated: TEST-junit-vintage.xml -->"), xml);
+
+    // the merged report is a well-formed report itself
+    List<TestReports.TestCase> cases = new ArrayList<>();
+    TestReports.read(merged, cases::add);
+    assertEquals(4, cases.size());
+  }
+
+  @Test
+  void reportsOfTheQuarantineLaneAreNotMerged(@TempDir Path temp) throws Exception {
+    Path quarantine = Files.createDirectories(temp.resolve(QuarantineExecutor.DIRECTORY_NAME));
+    Path performance = Files.createDirectories(temp.resolve(PerformanceExecutor.DIRECTORY_NAME));
+    Path report = Files.writeString(temp.resolve("TEST-junit-jupiter.xml"), JUPITER);
+    Path lane = Files.writeString(performance.resolve("TEST-junit-jupiter.xml"), JUPITER);
+    Files.writeString(quarantine.resolve("TEST-junit-jupiter.xml"), JUPITER);
+
+    assertEquals(List.of(report, lane), ReportMerger.find(temp, System.currentTimeMillis() - 1000));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResourceUsageReportTests {
+
+  @Test
+  void readAndRankEntries(@TempDir Path temp) throws Exception {
+    Path file =
+        Files.write(
+            temp.resolve(ResourceUsageReport.FILE_NAME),
+            List.of(
+                ResourceUsageListener.HEADER,
+                "TEST,100,30,1000,0,a.FooTests#one",
+                "TEST,100,10,9000,1,a.FooTests#two, with comma",
+                "TEST,100,-1,-1,0,a.FooTests#three",
+                "CLASS,300,45,10000,1,a.FooTests",
+                "broken line"));
+
+    List<ResourceUsageReport.Entry> entries = ResourceUsageReport.read(file);
+    assertEquals(4, entries.size());
+    assertEquals("a.FooTests#two, with comma", entries.get(1).name);
+    assertEquals(
+        List.of("a.FooTests", "a.FooTests#one"),
+        ResourceUsageReport.top(entries, e -> e.cpu, 2).stream()
+            .map(e -> e.name)
+            .collect(Collectors.toList()));
+    assertEquals(
+        List.of("a.FooTests", "a.FooTests#two, with comma", "a.FooTests#one"),
+        ResourceUsageReport.top(entries, e -> e.allocated, 5).stream()
+            .map(e -> e.name)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  void findReportsOfAllForksOfTheCurrentLaunch(@TempDir Path temp) throws Exception {
+    List<String> lines = List.of(ResourceUsageListener.HEADER, "TEST,1,1,1,0,a.FooTests#one");
+    Path first = temp.resolve("fork-1").resolve(ResourceUsageReport.FILE_NAME);
+    Path second = temp.resolve("fork-2").resolve(ResourceUsageReport.FILE_NAME);
+    Path stale = temp.resolve("fork-3").resolve(ResourceUsageReport.FILE_NAME);
+    Path lane =
+        temp.resolve(QuarantineExecutor.DIRECTORY_NAME).resolve(ResourceUsageReport.FILE_NAME);
+    for (Path file : List.of(first, second, stale, lane)) {
+      Files.createDirectories(file.getParent());
+      Files.write(file, lines);
+    }
+    long start = System.currentTimeMillis() - 1000;
+    Files.setLastModifiedTime(stale, FileTime.fromMillis(start - 60_000));
+
+    assertEquals(List.of(first, second), ResourceUsageReport.find(temp, start));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultCacheTests {
+
+  private static Path jar(Path file, long time, String content) throws Exception {
+    try (OutputStream stream = Files.newOutputStream(file);
+        ZipOutputStream zip = new ZipOutputStream(stream)) {
+      ZipEntry entry = new ZipEntry("a/A.class");
+      entry.setTime(time);
+      zip.putNextEntry(entry);
+      zip.write(content.getBytes("UTF-8"));
+      zip.closeEntry();
+    }
+    return file;
+  }
+
+  @Test
+  void jarFingerprintsIgnoreEntryTimestamps(@TempDir Path temp) throws Exception {
+    String one = ResultCache.fingerprint(jar(temp.resolve("one.jar"), 1000000000000L, "A"));
+    String two = ResultCache.fingerprint(jar(temp.resolve("two.jar"), 1500000000000L, "A"));
+    String other = ResultCache.fingerprint(jar(temp.resolve("other.jar"), 1000000000000L, "B"));
+    assertEquals(one, two);
+    assertNotEquals(one, other);
+  }
+
+  @Test
+  void directoryFingerprintsCoverNamesAndContents(@TempDir Path temp) throws Exception {
+    Path classes = Files.createDirectories(temp.resolve("classes/a"));
+    Files.write(classes.resolve("A.class"), new byte[] {1, 2});
+    String fingerprint = ResultCache.fingerprint(temp.resolve("classes"));
+    Files.write(classes.resolve("A.class"), new byte[] {1, 3});
+    assertNotEquals(fingerprint, ResultCache.fingerprint(temp.resolve("classes")));
+    Files.write(classes.resolve("A.class"), new byte[] {1, 2});
+    assertEquals(fingerprint, ResultCache.fingerprint(temp.resolve("classes")));
+    Files.move(classes.resolve("A.class"), classes.resolve("B.class"));
+    assertNotEquals(fingerprint, ResultCache.fingerprint(temp.resolve("classes")));
+    assertEquals("missing", ResultCache.fingerprint(temp.resolve("missing.jar")));
+  }
+
+  @Test
+  void relocateLongestPrefixFirst() {
+    Map<String, String> prefixes = Map.of("/home/ci", "${home}", "/home/ci/work", "${basedir}");
+    assertEquals(
+        "${basedir}/target:${home}/.m2/a.jar",
+        ResultCache.relocate("/home/ci/work/target:/home/ci/.m2/a.jar", prefixes));
+  }
+
+  @Test
+  void evictLeastRecentlyUsedEntries(@TempDir Path temp) throws Exception {
+    for (String key : List.of("old", "used", "new")) {
+      Path entry = Files.createDirectories(temp.resolve(key));
+      Files.write(entry.resolve("report.xml"), new byte[100]);
+      Files.write(entry.resolve(ResultCache.ENTRY_FILE_NAME), new byte[0]);
+    }
+    Files.createDirectories(temp.resolve(".temporary"));
+    Files.setLastModifiedTime(temp.resolve("old/entry.properties"), FileTime.fromMillis(1000));
+    Files.setLastModifiedTime(temp.resolve("used/entry.properties"), FileTime.fromMillis(3000));
+    Files.setLastModifiedTime(temp.resolve("new/entry.properties"), FileTime.fromMillis(2000));
+
+    assertEquals(0, ResultCache.evict(temp, 300));
+    assertEquals(2, ResultCache.evict(temp, 150));
+    assertFalse(Files.exists(temp.resolve("old")));
+    assertFalse(Files.exists(temp.resolve("new")));
+    assertTrue(Files.exists(temp.resolve("used")));
+    assertTrue(Files.exists(temp.resolve(".temporary")));
+  }
+
+  @Test
+  void markerFileTracksLastUse(@TempDir Path temp) throws Exception {
+    for (String key : List.of("restored", "stored")) {
+      Path entry = Files.createDirectories(temp.resolve(key));
+      Files.write(entry.resolve("report.xml"), new byte[100]);
+      Files.write(entry.resolve(ResultCache.ENTRY_FILE_NAME), new byte[0]);
+    }
+    Files.setLastModifiedTime(temp.resolve("restored/entry.properties"), FileTime.fromMillis(1000));
+    Files.setLastModifiedTime(temp.resolve("stored/entry.properties"), FileTime.fromMillis(2000));
+    ResultCache.touch(temp.resolve("restored"));
+    ResultCache.touch(temp.resolve("restored"));
+
+    assertEquals(1, ResultCache.evict(temp, 150));
+    assertFalse(Files.exists(temp.resolve("stored")));
+    assertTrue(Files.exists(temp.resolve("restored/" + ResultCache.LAST_USED_FILE_NAME)));
+  }
+
+  @Test
+  void entriesMissingReportFilesAreInvalid(@TempDir Path temp) throws Exception {
+    Path entry = Files.createDirectories(temp.resolve("entry"));
+    Path reports = Files.createDirectories(entry.resolve(ResultCache.REPORTS_DIRECTORY_NAME));
+    Files.write(reports.resolve("TEST-junit-jupiter.xml"), new byte[0]);
+    Files.createDirectories(reports.resolve("fork-1"));
+    Files.write(reports.resolve("fork-1/TEST-junit-jupiter.xml"), new byte[0]);
+    Path file = entry.resolve(ResultCache.ENTRY_FILE_NAME);
+    assertFalse(ResultCache.isValid(entry), "entry without report count");
+
+    Files.write(file, List.of(ResultCache.REPORTS_KEY + "=2"));
+    assertTrue(ResultCache.isValid(entry));
+    Files.delete(reports.resolve("fork-1/TEST-junit-jupiter.xml"));
+    assertFalse(ResultCache.isValid(entry));
+  }
+
+  @Test
+  void sharedEntriesAreReadableByEverybody(@TempDir Path temp) throws Exception {
+    assumeTrue(Files.getFileAttributeView(temp, PosixFileAttributeView.class) != null);
+    Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rwxrwx---"));
+    Path entry = Files.createTempDirectory(temp, ".entry");
+    Path file = Files.write(entry.resolve(ResultCache.ENTRY_FILE_NAME), new byte[0]);
+    Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+
+    ResultCache.share(temp, entry);
+
+    assertEquals("rwxrwxr-x", PosixFilePermissions.toString(Files.getPosixFilePermissions(entry)));
+    assertEquals("rw-rw-r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RuntimeImageTests {
+
+  @Test
+  void parseSystemModulesFollowsRequiresOfRootsOnly() {
+    List<String> lines =
+        List.of(
+            "root bar file:///project/target/test-classes/",
+            "root jdk.management jrt:/jdk.management",
+            "bar requires foo file:///project/target/classes/",
+            "foo requires java.sql jrt:/java.sql",
+            "java.sql requires java.logging jrt:/java.logging",
+            "jdk.management requires java.management jrt:/java.management",
+            "java.base binds java.desktop jrt:/java.desktop",
+            "java.desktop requires java.xml jrt:/java.xml",
+            "java.base binds jdk.localedata jrt:/jdk.localedata",
+            "jdk.localedata requires jdk.unused jrt:/jdk.unused",
+            "org.junit.platform.launcher binds org.junit.jupiter.engine file:///engine.jar");
+    assertEquals(
+        Set.of(
+            "java.base",
+            "java.logging",
+            "java.management",
+            "java.sql",
+            "jdk.localedata",
+            "jdk.management",
+            "jdk.unused"),
+        RuntimeImage.parseSystemModules(lines));
+  }
+
+  @Test
+  void parseSystemModulesAlwaysContainsJavaBase() {
+    assertEquals(Set.of("java.base"), RuntimeImage.parseSystemModules(List.of()));
+  }
+
+  @Test
+  void createProbeOptionsDropsAgentsDebuggerAndFlightRecordingsButKeepsTheirModules() {
+    List<String> options =
+        List.of(
+            "-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address=*:5005",
+            "-javaagent:/m2/mockito-core-5.7.0.jar",
+            "-XX:StartFlightRecording=filename=recording.jfr",
+            "-Dfile.encoding=UTF-8",
+            "--module-path",
+            "target/classes");
+    assertEquals(
+        List.of("-Dfile.encoding=UTF-8", "--module-path", "target/classes"),
+        RuntimeImage.createProbeOptions(options));
+    assertEquals(
+        Set.of("java.instrument", "jdk.jdwp.agent", "jdk.jfr"),
+        RuntimeImage.findRequiredModules(options));
+  }
+
+  @Test
+  void agentOptionsRequireJavaInstrument() {
+    assertEquals(
+        Set.of("java.instrument"),
+        RuntimeImage.findRequiredModules(List.of("-javaagent:/m2/jacocoagent.jar=destfile=x")));
+    assertEquals(
+        Set.of("java.instrument"),
+        RuntimeImage.findRequiredModules(List.of("-agentpath:/opt/profiler/libagent.so")));
+    assertEquals(Set.of(), RuntimeImage.findRequiredModules(List.of("-Dfile.encoding=UTF-8")));
+  }
+
+  @Test
+  void evictLeastRecentlyUsedImages(@TempDir Path temp) throws Exception {
+    for (int i = 1; i <= 4; i++) {
+      Path image = Files.createDirectories(temp.resolve("image" + i).resolve("bin"));
+      Files.write(image.resolve("java"), new byte[] {1});
+      Files.setLastModifiedTime(image.getParent(), FileTime.fromMillis(i * 1000L));
+    }
+    Files.createDirectories(temp.resolve("image5-123.tmp"));
+
+    assertEquals(2, RuntimeImage.evict(temp, 2));
+    try (Stream<Path> images = Files.list(temp)) {
+      assertEquals(
+          Set.of("image3", "image4", "image5-123.tmp"),
+          images.map(path -> path.getFileName().toString()).collect(Collectors.toSet()));
+    }
+  }
+}
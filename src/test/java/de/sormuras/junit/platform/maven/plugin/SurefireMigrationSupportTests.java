@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.model.Plugin;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Test;
+
+class SurefireMigrationSupportTests {
+
+  private static Xpp3Dom child(Xpp3Dom parent, String name, String value) {
+    Xpp3Dom child = new Xpp3Dom(name);
+    child.setValue(value);
+    parent.addChild(child);
+    return child;
+  }
+
+  @Test
+  void parseForkCount() {
+    assertEquals(0, SurefireMigrationSupport.parseForkCount("0", 8));
+    assertEquals(3, SurefireMigrationSupport.parseForkCount(" 3 ", 8));
+    assertEquals(8, SurefireMigrationSupport.parseForkCount("1C", 8));
+    assertEquals(6, SurefireMigrationSupport.parseForkCount("0.75C", 8));
+    assertEquals(1, SurefireMigrationSupport.parseForkCount("0.1C", 2));
+  }
+
+  @Test
+  void splitArgLine() {
+    assertEquals(
+        List.of("${argLine}", "-Xmx1g", "-Dname=a b", "-Dx='y'"),
+        SurefireMigrationSupport.splitArgLine("@{argLine} -Xmx1g  \"-Dname=a b\" \"-Dx='y'\""));
+    assertEquals(List.of(), SurefireMigrationSupport.splitArgLine("  "));
+  }
+
+  @Test
+  void createParallelParameters() {
+    String prefix = "junit.jupiter.execution.parallel.";
+    Map<String, String> classes =
+        SurefireMigrationSupport.createParallelParameters("classes", "2", true);
+    assertEquals("true", classes.get(prefix + "enabled"));
+    assertEquals("same_thread", classes.get(prefix + "mode.default"));
+    assertEquals("concurrent", classes.get(prefix + "mode.classes.default"));
+    assertEquals("dynamic", classes.get(prefix + "config.strategy"));
+    assertEquals("2", classes.get(prefix + "config.dynamic.factor"));
+
+    Map<String, String> all = SurefireMigrationSupport.createParallelParameters("all", "4", false);
+    assertEquals("concurrent", all.get(prefix + "mode.default"));
+    assertEquals("concurrent", all.get(prefix + "mode.classes.default"));
+    assertEquals("fixed", all.get(prefix + "config.strategy"));
+    assertEquals("4", all.get(prefix + "config.fixed.parallelism"));
+
+    Map<String, String> methods =
+        SurefireMigrationSupport.createParallelParameters("methods", null, true);
+    assertEquals("concurrent", methods.get(prefix + "mode.default"));
+    assertEquals("same_thread", methods.get(prefix + "mode.classes.default"));
+    assertNull(methods.get(prefix + "config.strategy"));
+  }
+
+  @Test
+  void migrateForksAndParallelExecution() {
+    Xpp3Dom surefire = new Xpp3Dom("configuration");
+    child(surefire, "forkCount", "3");
+    child(surefire, "argLine", "-Xmx1g");
+    child(surefire, "parallel", "classes");
+    child(surefire, "threadCount", "2");
+
+    Xpp3Dom junit = new Xpp3Dom("configuration");
+    Xpp3Dom parameters = new Xpp3Dom("parameters");
+    child(parameters, "junit.jupiter.execution.parallel.enabled", "false");
+    junit.addChild(parameters);
+    Plugin junitPlugin = new Plugin();
+    junitPlugin.setConfiguration(junit);
+
+    SurefireMigrationSupport support = new SurefireMigrationSupport(null, null);
+    support.migrateForks(surefire, junitPlugin);
+    support.migrateParallelExecution(surefire, junitPlugin);
+
+    assertEquals("JAVA", junit.getChild("executor").getValue());
+    Xpp3Dom javaOptions = junit.getChild("javaOptions");
+    assertEquals("3", javaOptions.getChild("forkCount").getValue());
+    assertEquals("-Xmx1g", javaOptions.getChild("additionalOptions").getChild(0).getValue());
+    String prefix = "junit.jupiter.execution.parallel.";
+    assertEquals("false", parameters.getChild(prefix + "enabled").getValue());
+    assertEquals("concurrent", parameters.getChild(prefix + "mode.classes.default").getValue());
+  }
+
+  @Test
+  void createTagExpressions() {
+    assertEquals(
+        Set.of("fast", "smoke"),
+        SurefireMigrationSupport.createTagExpressions("fast, smoke", null));
+    assertEquals(
+        Set.of("(fast) & !(slow | flaky)"),
+        SurefireMigrationSupport.createTagExpressions("fast", "slow,flaky"));
+    assertEquals(Set.of("!(slow)"), SurefireMigrationSupport.createTagExpressions(null, "slow"));
+  }
+
+  @Test
+  void migrateTestSelection() {
+    Xpp3Dom surefire = new Xpp3Dom("configuration");
+    Xpp3Dom includes = child(surefire, "includes", null);
+    child(includes, "include", "**/*Check.java");
+    child(surefire, "groups", "fast");
+    Xpp3Dom junit = new Xpp3Dom("configuration");
+    Plugin junitPlugin = new Plugin();
+    junitPlugin.setConfiguration(junit);
+
+    new SurefireMigrationSupport(null, null).migrateTestSelection(surefire, junitPlugin);
+
+    assertEquals("**/*Check.java", junit.getChild("includes").getChild(0).getValue());
+    assertNull(junit.getChild("excludes"));
+    assertEquals("fast", junit.getChild("tags").getChild(0).getValue());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestIndexTests {
+
+  private final TestIndex index =
+      new TestIndex(
+          List.of(
+              "a.FooTests",
+              "a.FooTests$Nested",
+              "a.BarTests",
+              "a.BarbazTests",
+              "b.FooTests",
+              "b.Other$InnerTests"));
+
+  private Selectors select(String test, List<String> unmatched) {
+    return index.select(test, unmatched::add);
+  }
+
+  @Test
+  void simpleNameMatchesAllPackages() {
+    Selectors selectors = select("FooTests", new ArrayList<>());
+    assertEquals(Set.of("a.FooTests", "b.FooTests"), selectors.classes);
+    assertTrue(selectors.methods.isEmpty());
+  }
+
+  @Test
+  void qualifiedNamesAndSourceFileNames() {
+    assertEquals(Set.of("a.FooTests"), select("a.FooTests", List.of()).classes);
+    assertEquals(Set.of("a.FooTests"), select("a/FooTests.java", List.of()).classes);
+    assertEquals(Set.of("a.FooTests$Nested"), select("a.FooTests$Nested", List.of()).classes);
+  }
+
+  @Test
+  void nestedClassesMatchByTheirInnermostName() {
+    assertEquals(Set.of("b.Other$InnerTests"), select("InnerTests", List.of()).classes);
+  }
+
+  @Test
+  void globsAndLists() {
+    List<String> unmatched = new ArrayList<>();
+    Selectors selectors = select("Bar*, b.*, Missing?Tests", unmatched);
+    assertEquals(
+        Set.of("a.BarTests", "a.BarbazTests", "b.FooTests", "b.Other$InnerTests"),
+        selectors.classes);
+    assertEquals(List.of("Missing?Tests"), unmatched);
+  }
+
+  @Test
+  void nestedMatchesOfSelectedClassesAreDropped() {
+    assertEquals(Set.of("a.FooTests"), select("a.Foo*", List.of()).classes);
+  }
+
+  @Test
+  void methods() {
+    Selectors selectors = select("BarTests#baz+qux,a.FooTests#m(int),BarbazTests#b*", List.of());
+    assertEquals(Set.of("a.BarbazTests"), selectors.classes);
+    assertEquals(
+        Set.of("a.BarTests#baz", "a.BarTests#qux", "a.FooTests#m(int)"), selectors.methods);
+  }
+
+  @Test
+  void parameterListsMayContainCommas() {
+    Selectors selectors =
+        select(
+            "a.FooTests#m(int, java.lang.String)+n(),b.FooTests#x(int,long),BarTests", List.of());
+    assertEquals(Set.of("a.BarTests"), selectors.classes);
+    assertEquals(
+        Set.of("a.FooTests#m(int, java.lang.String)", "a.FooTests#n()", "b.FooTests#x(int,long)"),
+        selectors.methods);
+  }
+
+  @Test
+  void jarListingsAreCached(@TempDir Path temp) throws Exception {
+    Path jar = temp.resolve("demo-tests.jar");
+    try (OutputStream stream = Files.newOutputStream(jar);
+        ZipOutputStream zip = new ZipOutputStream(stream)) {
+      for (String entry :
+          List.of(
+              "c/JarTests.class",
+              "c/package-info.class",
+              "module-info.class",
+              "META-INF/versions/11/c/JarTests.class",
+              "c/readme.txt")) {
+        zip.putNextEntry(new ZipEntry(entry));
+        zip.closeEntry();
+      }
+    }
+    List<String> names = TestIndex.listClassNames(jar);
+    assertEquals(List.of("c.JarTests"), names);
+    assertTrue(names == TestIndex.listClassNames(jar));
+    TestIndex index = TestIndex.of(List.of(temp.resolve("missing")), List.of(jar));
+    assertEquals(Set.of("c.JarTests"), index.select("JarTests", name -> {}).classes);
+  }
+}
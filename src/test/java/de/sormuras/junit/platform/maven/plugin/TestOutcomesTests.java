@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestOutcomesTests {
+
+  @Test
+  void scoreCountsFlipsBetweenConsecutiveRuns() {
+    assertEquals(0, TestOutcomes.score(""));
+    assertEquals(0, TestOutcomes.score("P"));
+    assertEquals(0, TestOutcomes.score("PPPP"));
+    assertEquals(0, TestOutcomes.score("FFFF"));
+    assertEquals(1, TestOutcomes.score("PFPF"));
+    assertEquals(0.5, TestOutcomes.score("PPFPP"));
+  }
+
+  @Test
+  void recordReportsPerMethod(@TempDir Path temp) throws Exception {
+    Files.write(temp.resolve("TEST-junit-jupiter.xml"), TestReportsTests.REPORT.getBytes("UTF-8"));
+    TestOutcomes outcomes = new TestOutcomes();
+    outcomes.record(temp, 0, 3);
+    outcomes.record(temp, 0, 3);
+    assertEquals(
+        Map.of("a.FooTests#green", "PP", "a.FooTests#red", "FF", "a.FooTests$Nested#broken", "FF"),
+        outcomes.getOutcomes());
+  }
+
+  @Test
+  void recordKeepsWindowAndFindsFlakyTestsFlakiestFirst(@TempDir Path temp) {
+    TestOutcomes outcomes = new TestOutcomes();
+    for (String run : List.of("PPP", "FPF", "PPP", "PFF", "PPP")) {
+      outcomes.record(
+          Map.of("a", run.charAt(0) == 'P', "b", run.charAt(1) == 'P', "c", run.charAt(2) == 'P'),
+          4);
+    }
+    assertEquals(Map.of("a", "FPPP", "b", "PPFP", "c", "FPFP"), outcomes.getOutcomes());
+    outcomes.record(Map.of("c", false), 4);
+    assertEquals(List.of("c", "b"), List.copyOf(outcomes.findFlaky(0.5, 4).keySet()));
+    assertEquals(List.of("c", "b", "a"), List.copyOf(outcomes.findFlaky(0.2, 4).keySet()));
+    assertEquals(Map.of(), outcomes.findFlaky(0.2, 5));
+
+    Path file = temp.resolve(TestOutcomes.FILE_NAME);
+    outcomes.store(file);
+    assertEquals(outcomes.getOutcomes(), TestOutcomes.load(file).getOutcomes());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestReportsTests {
+
+  static final String REPORT =
+      String.join(
+          "\n",
+          "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+          "<testsuite name=\"JUnit Jupiter\" tests=\"4\" time=\"1.5\">",
+          "  <properties><property name=\"a\" value=\"b\"/></properties>",
+          "  <testcase name=\"green()\" classname=\"a.FooTests\" time=\"0.25\">",
+          "    <system-out><![CDATA[noise]]></system-out>",
+          "  </testcase>",
+          "  <testcase name=\"red()\" classname=\"a.FooTests\" time=\"1,000.5\">",
+          "    <failure message=\"boom\" type=\"AssertionError\">trace</failure>",
+          "  </testcase>",
+          "  <testcase name=\"broken()\" classname=\"a.FooTests$Nested\" time=\"0\">",
+          "    <error message=\"oops\" type=\"RuntimeException\"/>",
+          "  </testcase>",
+          "  <testcase name=\"later()\" classname=\"a.BarTests\" time=\"0\">",
+          "    <skipped/>",
+          "  </testcase>",
+          "</testsuite>");
+
+  @Test
+  void readTestCases(@TempDir Path temp) throws Exception {
+    Path report = Files.write(temp.resolve("TEST-junit-jupiter.xml"), REPORT.getBytes("UTF-8"));
+    Files.write(temp.resolve("junit-platform-summary.txt"), "ignored".getBytes("UTF-8"));
+
+    assertEquals(List.of(report), TestReports.find(temp));
+    List<TestReports.TestCase> cases = new ArrayList<>();
+    TestReports.read(report, cases::add);
+
+    assertEquals(4, cases.size());
+    assertEquals(TestReports.Status.PASSED, cases.get(0).status);
+    assertEquals(0.25, cases.get(0).time);
+    assertEquals(TestReports.Status.FAILED, cases.get(1).status);
+    assertEquals(1000.5, cases.get(1).time);
+    assertEquals(TestReports.Status.ERROR, cases.get(2).status);
+    assertEquals("a.FooTests", cases.get(2).topLevelClassName());
+    assertEquals(TestReports.Status.SKIPPED, cases.get(3).status);
+  }
+
+  @Test
+  void findSkipsLanesAndStaleReports(@TempDir Path temp) throws Exception {
+    Path main = Files.write(temp.resolve("TEST-junit-jupiter.xml"), REPORT.getBytes("UTF-8"));
+    Path fork = Files.createDirectories(temp.resolve("fork-1")).resolve("TEST-junit-jupiter.xml");
+    Files.write(fork, REPORT.getBytes("UTF-8"));
+    Path lane = Files.createDirectories(temp.resolve("quarantine")).resolve("TEST-lane.xml");
+    Files.write(lane, REPORT.getBytes("UTF-8"));
+    Path stale = Files.createDirectories(temp.resolve("fork-7")).resolve("TEST-junit-jupiter.xml");
+    Files.write(stale, REPORT.getBytes("UTF-8"));
+    Files.setLastModifiedTime(stale, FileTime.fromMillis(1000));
+
+    List<Path> reports = TestReports.find(temp, 5000, TestReports.LANE_DIRECTORIES);
+    assertEquals(List.of(main, fork), reports);
+    assertEquals(List.of(main, fork, lane), TestReports.find(temp, 5000, List.of()));
+  }
+}
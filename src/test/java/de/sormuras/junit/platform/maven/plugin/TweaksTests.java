@@ -14,6 +14,8 @@
 
 package de.sormuras.junit.platform.maven.plugin;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,6 +30,15 @@ class TweaksTests {
     assertTrue(tweaks.defaultAssertionStatus);
     assertTrue(tweaks.failIfNoTests);
     assertTrue(tweaks.platformClassLoader);
+    assertFalse(tweaks.detectTestEngines);
+    assertFalse(tweaks.captureOutput);
+    assertFalse(tweaks.archivePassedOutput);
+    assertFalse(tweaks.mergeReports);
+    assertFalse(tweaks.cacheLaunchPlan);
+    assertTrue(tweaks.reportProgress);
+    assertFalse(tweaks.recordResourceUsage);
+    assertEquals(10, tweaks.resourceUsageSummarySize);
+    assertEquals(5, tweaks.profileSummarySize);
     assertSame(Collections.EMPTY_LIST, tweaks.additionalLauncherDependencies);
     assertSame(Collections.EMPTY_LIST, tweaks.additionalLauncherPathElements);
     assertSame(Collections.EMPTY_LIST, tweaks.additionalTestDependencies);
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.sormuras.junit.platform.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.sormuras.junit.platform.isolator.Configuration;
+import de.sormuras.junit.platform.isolator.ConfigurationBuilder;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class WatchSessionTests {
+
+  @Test
+  void selectCopiesConfigurationAndReplacesSelectors() {
+    Configuration configuration =
+        new ConfigurationBuilder()
+            .setFailIfNoTests(true)
+            .setTargetDirectory("target")
+            .setPaths(Map.of("test", Set.of("target/test-classes")))
+            .discovery()
+            .setSelectedClasspathRoots(Set.of("target/test-classes"))
+            .setFilterTags(Set.of("fast"))
+            .setParameters(Map.of("key", "value"))
+            .end()
+            .build();
+
+    Configuration selected = WatchSession.select(configuration, Set.of("a.BTests"));
+
+    assertFalse(selected.basic().isFailIfNoTests());
+    assertEquals("target", selected.basic().getTargetDirectory());
+    assertEquals(configuration.basic().getPaths(), selected.basic().getPaths());
+    assertEquals(configuration.launcher(), selected.launcher());
+    assertEquals(Set.of("a.BTests"), selected.discovery().getSelectedClasses());
+    assertTrue(selected.discovery().getSelectedClasspathRoots().isEmpty());
+    assertEquals(Set.of("fast"), selected.discovery().getFilterTags());
+    assertEquals(Map.of("key", "value"), selected.discovery().getParameters());
+  }
+}